@@ -0,0 +1,23 @@
+package com.kaiyikang.winter.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Run the public method on an executor and return immediately. The method
+ * must return void or CompletableFuture.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Async {
+
+    /**
+     * Bean name of Executor, empty to use the default executor of
+     * AsyncProxyBeanPostProcessor.
+     */
+    String value() default "";
+}
@@ -0,0 +1,26 @@
+package com.kaiyikang.winter.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Record count, errors and latency of the public method to a Timer of
+ * TimerRegistry. On a class, all public methods except equals(), hashCode()
+ * and toString() are timed.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface Timed {
+
+    /**
+     * Name of the timer on a method, or name prefix on a class. Default to
+     * "SimpleClassName.methodName".
+     */
+    String value() default "";
+}
@@ -3,7 +3,7 @@ package com.kaiyikang.winter.aop;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
-public abstract class AfterInvocationHandlerAdapter implements InvocationHandler {
+public abstract class AfterInvocationHandlerAdapter implements InvocationHandler, MethodInterceptor {
 
     public abstract Object after(Object proxy, Object returnValue, Method method, Object[] args);
 
@@ -12,4 +12,10 @@ public abstract class AfterInvocationHandlerAdapter implements InvocationHandler
         Object ret = method.invoke(proxy, args);
         return after(proxy, ret, method, args);
     }
+
+    @Override
+    public final Object invoke(MethodInvocation invocation) throws Throwable {
+        Object ret = invocation.proceed();
+        return after(invocation.getThis(), ret, invocation.getMethod(), invocation.getArguments());
+    }
 }
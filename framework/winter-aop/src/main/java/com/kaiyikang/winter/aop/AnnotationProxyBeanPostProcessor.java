@@ -4,8 +4,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.kaiyikang.winter.context.ApplicationContextUtils;
 import com.kaiyikang.winter.context.BeanDefinition;
@@ -13,10 +13,12 @@ import com.kaiyikang.winter.context.BeanPostProcessor;
 import com.kaiyikang.winter.context.ConfigurableApplicationContext;
 import com.kaiyikang.winter.exception.AopConfigException;
 import com.kaiyikang.winter.exception.BeansException;
+import com.kaiyikang.winter.utils.MergedAnnotations;
 
 public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements BeanPostProcessor {
 
-    Map<String, Object> originBeans = new HashMap<>();
+    // Beans may be processed concurrently by parallel refresh
+    Map<String, Object> originBeans = new ConcurrentHashMap<>();
     Class<A> annotationClass;
 
     public AnnotationProxyBeanPostProcessor() {
@@ -24,9 +26,11 @@ public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements B
     }
 
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
-        Class<?> beanClass = bean.getClass();
+        // bean may be proxied by another processor already
+        Object target = ProxyResolver.getInstance().getTarget(bean);
+        Class<?> beanClass = target.getClass();
 
-        A anno = beanClass.getAnnotation(annotationClass);
+        A anno = MergedAnnotations.from(beanClass).get(annotationClass);
         if (anno == null) {
             return bean;
         }
@@ -40,7 +44,7 @@ public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements B
                     e);
         }
         Object proxy = createProxy(beanClass, bean, handlerName);
-        originBeans.put(beanName, bean);
+        originBeans.put(beanName, target);
         return proxy;
     }
 
@@ -65,11 +69,12 @@ public class AnnotationProxyBeanPostProcessor<A extends Annotation> implements B
             handlerBean = ctx.createBeanAsEarlySingleton(handlerBeanDef);
         }
 
-        if (handlerBean instanceof InvocationHandler handler) {
-            return ProxyResolver.getInstance().createProxy(bean, handler);
+        // Add to the chain of the existing proxy, or create one
+        if (handlerBean instanceof MethodInterceptor || handlerBean instanceof InvocationHandler) {
+            return ProxyResolver.getInstance().addHandler(bean, handlerBean);
         } else {
-            throw new AopConfigException(String.format("@%s proxy handler '%s' is not type of %s.",
-                    this.annotationClass.getSimpleName(), handlerName,
+            throw new AopConfigException(String.format("@%s proxy handler '%s' is not type of %s or %s.",
+                    this.annotationClass.getSimpleName(), handlerName, MethodInterceptor.class.getName(),
                     InvocationHandler.class.getName()));
         }
 
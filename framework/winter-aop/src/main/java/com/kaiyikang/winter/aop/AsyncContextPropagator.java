@@ -0,0 +1,15 @@
+package com.kaiyikang.winter.aop;
+
+/**
+ * Carry thread-bound context (e.g. MDC, transaction) from the caller of an
+ * {@code @Async} method to the thread running it. Implementations are loaded
+ * by ServiceLoader.
+ */
+public interface AsyncContextPropagator {
+
+    /**
+     * Called on the caller thread to capture context, return a task which
+     * runs the given task with the context and restores the thread after.
+     */
+    Runnable wrap(Runnable task);
+}
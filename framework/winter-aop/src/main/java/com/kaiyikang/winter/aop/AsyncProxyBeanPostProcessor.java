@@ -0,0 +1,203 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kaiyikang.winter.annotation.Async;
+import com.kaiyikang.winter.annotation.Order;
+import com.kaiyikang.winter.context.ApplicationContextUtils;
+import com.kaiyikang.winter.context.BeanPostProcessor;
+import com.kaiyikang.winter.exception.AopConfigException;
+import com.kaiyikang.winter.exception.BeansException;
+import com.kaiyikang.winter.utils.MergedAnnotations;
+
+/**
+ * Proxy beans having @Async methods, which are submitted to an executor with
+ * the context captured by AsyncContextPropagators. The default executor
+ * creates a virtual thread per task, and the number of running tasks is
+ * limited by maxInFlight: the caller is blocked when the limit is reached. A
+ * task returning CompletableFuture is running until the future completes.
+ *
+ * The interceptor is added to the proxy chain of the bean before other
+ * handlers. Register it by @Bean(destroyMethod = "close") to wait for running
+ * tasks on close.
+ */
+public class AsyncProxyBeanPostProcessor implements BeanPostProcessor, AutoCloseable {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    // Beans may be processed concurrently by parallel refresh
+    final Map<String, Object> originBeans = new ConcurrentHashMap<>();
+
+    final ExecutorService defaultExecutor;
+    final Semaphore inFlight;
+    final List<AsyncContextPropagator> propagators = new ArrayList<>();
+
+    public AsyncProxyBeanPostProcessor() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public AsyncProxyBeanPostProcessor(int maxInFlight) {
+        this(Executors.newVirtualThreadPerTaskExecutor(), maxInFlight);
+    }
+
+    public AsyncProxyBeanPostProcessor(ExecutorService defaultExecutor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new AopConfigException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.defaultExecutor = defaultExecutor;
+        this.inFlight = new Semaphore(maxInFlight);
+        ServiceLoader.load(AsyncContextPropagator.class, Thread.currentThread().getContextClassLoader())
+                .forEach(this.propagators::add);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        Object target = ProxyResolver.getInstance().getTarget(bean);
+        boolean hasAsync = false;
+        for (Class<?> clazz = target.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            for (Method m : clazz.getDeclaredMethods()) {
+                if (MergedAnnotations.from(m).isPresent(Async.class)) {
+                    checkAsyncMethod(m);
+                    hasAsync = true;
+                }
+            }
+        }
+        if (!hasAsync) {
+            return bean;
+        }
+        Object proxy = ProxyResolver.getInstance().addHandler(bean, new AsyncInterceptor());
+        originBeans.put(beanName, target);
+        return proxy;
+    }
+
+    @Override
+    public Object postProcessOnSetProperty(Object bean, String beanName) {
+        Object origin = originBeans.get(beanName);
+        return origin != null ? origin : bean;
+    }
+
+    static void checkAsyncMethod(Method m) {
+        int mod = m.getModifiers();
+        if (!Modifier.isPublic(mod) || Modifier.isStatic(mod) || Modifier.isFinal(mod)) {
+            throw new AopConfigException("@Async method must be public, non-static and non-final: " + m);
+        }
+        Class<?> returnType = m.getReturnType();
+        if (returnType != CompletableFuture.class && returnType != void.class) {
+            throw new AopConfigException("@Async method must return void or CompletableFuture: " + m);
+        }
+    }
+
+    /**
+     * Wait for running tasks and shutdown the default executor.
+     */
+    @Override
+    public void close() {
+        this.defaultExecutor.close();
+    }
+
+    // The outermost, so the rest of the chain is called on the executor
+    @Order(Integer.MIN_VALUE)
+    class AsyncInterceptor implements MethodInterceptor, Pointcut {
+
+        // Method -> @Async, which may be declared on a superclass of the proxy
+        final Map<Method, Optional<Async>> asyncMethods = new ConcurrentHashMap<>();
+
+        // Only @Async methods are intercepted
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return this.asyncMethods.computeIfAbsent(method, m -> findAsync(targetClass, m)).isPresent();
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            Async async = this.asyncMethods
+                    .computeIfAbsent(method, m -> findAsync(invocation.getThis().getClass(), m)).orElse(null);
+            if (async == null) {
+                return invocation.proceed();
+            }
+
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            Runnable task = () -> {
+                try {
+                    Object r = invocation.proceed();
+                    if (r instanceof CompletableFuture<?> future) {
+                        future.whenComplete((value, e) -> {
+                            if (e != null) {
+                                result.completeExceptionally(e);
+                            } else {
+                                result.complete(value);
+                            }
+                        });
+                    } else {
+                        result.complete(r);
+                    }
+                } catch (Throwable t) {
+                    fail(result, method, t);
+                }
+            };
+            // Capture context on caller thread
+            for (AsyncContextPropagator propagator : propagators) {
+                task = propagator.wrap(task);
+            }
+
+            // Resolved before acquire, so a missing executor holds no permit
+            Executor executor = getExecutor(async);
+            inFlight.acquire();
+            // Released when the returned future completes, not when the method returns
+            result.whenComplete((value, e) -> inFlight.release());
+            try {
+                executor.execute(task);
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+            return method.getReturnType() == void.class ? null : result;
+        }
+
+        void fail(CompletableFuture<Object> result, Method method, Throwable t) {
+            if (method.getReturnType() == void.class) {
+                logger.error("Exception in @Async method " + method, t);
+            }
+            result.completeExceptionally(t);
+        }
+
+        Executor getExecutor(Async async) {
+            if (async.value().isEmpty()) {
+                return defaultExecutor;
+            }
+            return ApplicationContextUtils.getRequiredApplicationContext().getBean(async.value(), Executor.class);
+        }
+
+        Optional<Async> findAsync(Class<?> beanClass, Method method) {
+            for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+                try {
+                    Async async = MergedAnnotations
+                            .from(clazz.getDeclaredMethod(method.getName(), method.getParameterTypes()))
+                            .get(Async.class);
+                    if (async != null) {
+                        return Optional.of(async);
+                    }
+                } catch (NoSuchMethodException e) {
+                    // Declared in superclass
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.kaiyikang.winter.aop;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
-public abstract class BeforeInvocationHandlerAdapter implements InvocationHandler {
+public abstract class BeforeInvocationHandlerAdapter implements InvocationHandler, MethodInterceptor {
     public abstract void before(Object proxy, Method method, Object[] args);
 
     @Override
@@ -11,4 +11,10 @@ public abstract class BeforeInvocationHandlerAdapter implements InvocationHandle
         before(proxy, method, args);
         return method.invoke(proxy, args);
     }
+
+    @Override
+    public final Object invoke(MethodInvocation invocation) throws Throwable {
+        before(invocation.getThis(), invocation.getMethod(), invocation.getArguments());
+        return invocation.proceed();
+    }
 }
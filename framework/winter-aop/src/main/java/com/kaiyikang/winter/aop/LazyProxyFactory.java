@@ -0,0 +1,37 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+import com.kaiyikang.winter.context.LazyBeanProxyFactory;
+
+/**
+ * Create lazy proxy by ProxyResolver. The proxy is a subclass of the bean class,
+ * so the class must be public and not final.
+ *
+ * Only public and protected non-final methods are forwarded to the target,
+ * others would run on the proxy whose fields are never injected. A class
+ * declaring such methods is not proxyable, and the lazy bean is created
+ * eagerly when it is injected. Methods called by the context on the target,
+ * e.g. @PostConstruct, are allowed.
+ *
+ * The proxy is created by a constructor of the bean class, so only injection,
+ * init methods and the target instance are delayed to the first call.
+ */
+public class LazyProxyFactory implements LazyBeanProxyFactory {
+
+    @Override
+    public boolean isProxyable(Class<?> beanClass) {
+        int mod = beanClass.getModifiers();
+        if (!Modifier.isPublic(mod) || Modifier.isFinal(mod) || beanClass.isPrimitive() || beanClass.isArray()) {
+            return false;
+        }
+        return ProxyResolver.getInstance().getUnforwardedMethod(beanClass) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object createLazyProxy(Class<?> beanClass, Supplier<Object> targetSupplier) {
+        return ProxyResolver.getInstance().createLazyProxy((Class<Object>) beanClass, targetSupplier);
+    }
+}
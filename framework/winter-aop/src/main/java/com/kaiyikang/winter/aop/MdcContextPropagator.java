@@ -0,0 +1,29 @@
+package com.kaiyikang.winter.aop;
+
+import java.util.Map;
+
+import org.slf4j.MDC;
+
+public class MdcContextPropagator implements AsyncContextPropagator {
+
+    @Override
+    public Runnable wrap(Runnable task) {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+        if (context == null || context.isEmpty()) {
+            return task;
+        }
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            MDC.setContextMap(context);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.kaiyikang.winter.aop;
+
+/**
+ * Around advice of a proxied method. Unlike InvocationHandler, the target is
+ * called by MethodInvocation.proceed() without reflection.
+ *
+ * A handler bean of @Around, @Transactional... can implement it instead of
+ * InvocationHandler. BeforeInvocationHandlerAdapter and
+ * AfterInvocationHandlerAdapter implement both.
+ */
+@FunctionalInterface
+public interface MethodInterceptor {
+
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
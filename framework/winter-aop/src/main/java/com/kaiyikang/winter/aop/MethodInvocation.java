@@ -0,0 +1,29 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * A call of a proxied method, passed to MethodInterceptor.
+ */
+public interface MethodInvocation {
+
+    /**
+     * The target, not the proxy.
+     */
+    Object getThis();
+
+    /**
+     * The method of target class.
+     */
+    Method getMethod();
+
+    /**
+     * Arguments of the call, which can be modified before proceed().
+     */
+    Object[] getArguments();
+
+    /**
+     * Call the target with the arguments.
+     */
+    Object proceed() throws Throwable;
+}
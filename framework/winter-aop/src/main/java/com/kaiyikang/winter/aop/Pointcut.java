@@ -0,0 +1,100 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.kaiyikang.winter.utils.MergedAnnotations;
+
+/**
+ * Methods advised by a handler. A MethodInterceptor or InvocationHandler can
+ * implement it to declare the methods it needs, and a method which matches no
+ * handler of a proxy calls the target directly, without the dispatcher.
+ *
+ * A handler which is not a Pointcut advises the DEFAULT methods.
+ */
+@FunctionalInterface
+public interface Pointcut {
+
+    /**
+     * All methods which can be proxied.
+     */
+    Pointcut ALL = (method, targetClass) -> true;
+
+    /**
+     * equals(), hashCode() and toString().
+     */
+    Pointcut OBJECT_METHODS = (method, targetClass) -> switch (method.getName()) {
+    case "equals" -> method.getParameterCount() == 1 && method.getParameterTypes()[0] == Object.class;
+    case "hashCode", "toString" -> method.getParameterCount() == 0;
+    default -> false;
+    };
+
+    /**
+     * Read-only accessors: getXxx() and isXxx() without parameters.
+     */
+    Pointcut ACCESSORS = (method, targetClass) -> {
+        if (method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+            return false;
+        }
+        String name = method.getName();
+        return (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.charAt(3)))
+                || (name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2))
+                        && method.getReturnType() == boolean.class);
+    };
+
+    /**
+     * All methods except the methods of Object.
+     */
+    Pointcut DEFAULT = OBJECT_METHODS.negate();
+
+    boolean matches(Method method, Class<?> targetClass);
+
+    default Pointcut and(Pointcut other) {
+        return (method, targetClass) -> matches(method, targetClass) && other.matches(method, targetClass);
+    }
+
+    default Pointcut or(Pointcut other) {
+        return (method, targetClass) -> matches(method, targetClass) || other.matches(method, targetClass);
+    }
+
+    default Pointcut negate() {
+        return (method, targetClass) -> !matches(method, targetClass);
+    }
+
+    /**
+     * Methods annotated with the annotation, directly or as meta-annotation.
+     */
+    static Pointcut annotatedWith(Class<? extends Annotation> annotationClass) {
+        return (method, targetClass) -> MergedAnnotations.from(method).isPresent(annotationClass);
+    }
+
+    /**
+     * Methods matching a signature pattern, which is a method name, or a
+     * method name with simple names of parameter types, and '*' matches any
+     * characters, e.g. "find*", "save(User)" or "update*(*)".
+     */
+    static Pointcut signature(String pattern) {
+        String glob = pattern.replace(" ", "");
+        boolean withParameters = glob.indexOf('(') >= 0;
+        Pattern regex = Pattern.compile(Arrays.stream(glob.split("\\*", -1)).map(Pattern::quote)
+                .collect(Collectors.joining(".*")));
+        return (method, targetClass) -> {
+            String signature = method.getName();
+            if (withParameters) {
+                signature = signature + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName)
+                        .collect(Collectors.joining(",", "(", ")"));
+            }
+            return regex.matcher(signature).matches();
+        };
+    }
+
+    /**
+     * Get the pointcut of a handler.
+     */
+    static Pointcut of(Object handler) {
+        return handler instanceof Pointcut pointcut ? pointcut : DEFAULT;
+    }
+}
@@ -0,0 +1,97 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.kaiyikang.winter.exception.AopConfigException;
+
+/**
+ * Dispatcher of a proxy with a chain of handlers. The interceptors of each
+ * method are resolved by Pointcut of handlers on creation, so a call only
+ * creates one MethodInvocation.
+ *
+ * An InvocationHandler cannot proceed, it calls the method on a receiver: the
+ * target if it is the last handler, or else a proxy of the rest handlers.
+ */
+final class ProxyChain implements ProxyDispatcher {
+
+    final ProxyResolver.ProxyType proxyType;
+    final Object target;
+    final List<Object> handlers;
+    // Interceptors of each method, by index of ProxyType.methods
+    final MethodInterceptor[][] chains;
+
+    ProxyChain(ProxyResolver resolver, ProxyResolver.ProxyType proxyType, Object target, List<?> handlers) {
+        this.proxyType = proxyType;
+        this.target = target;
+        this.handlers = List.copyOf(handlers);
+
+        int size = this.handlers.size();
+        Pointcut[] pointcuts = new Pointcut[size];
+        MethodInterceptor[] interceptors = new MethodInterceptor[size];
+        for (int i = 0; i < size; i++) {
+            Object handler = this.handlers.get(i);
+            pointcuts[i] = Pointcut.of(handler);
+            if (handler instanceof MethodInterceptor interceptor) {
+                interceptors[i] = interceptor;
+            } else if (handler instanceof InvocationHandler invocationHandler) {
+                List<Object> rest = this.handlers.subList(i + 1, size);
+                Object receiver = rest.isEmpty() ? target : resolver.createProxy(target, rest);
+                interceptors[i] = invocation -> invocationHandler.invoke(receiver, invocation.getMethod(),
+                        invocation.getArguments());
+            } else {
+                throw new AopConfigException(String.format("Proxy handler %s is not type of %s or %s.", handler,
+                        MethodInterceptor.class.getName(), InvocationHandler.class.getName()));
+            }
+        }
+
+        Method[] methods = proxyType.methods;
+        this.chains = new MethodInterceptor[methods.length][];
+        // Methods matching the same handlers share the chain
+        Map<List<MethodInterceptor>, MethodInterceptor[]> distinctChains = new HashMap<>();
+        for (int m = 0; m < methods.length; m++) {
+            List<MethodInterceptor> chain = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                if (pointcuts[i].matches(methods[m], proxyType.targetClass)) {
+                    chain.add(interceptors[i]);
+                    if (!(this.handlers.get(i) instanceof MethodInterceptor)) {
+                        // the rest handlers are called by receiver
+                        break;
+                    }
+                }
+            }
+            this.chains[m] = distinctChains.computeIfAbsent(chain,
+                    c -> c.toArray(MethodInterceptor[]::new));
+        }
+    }
+
+    /**
+     * Methods with empty chain are not intercepted.
+     */
+    ProxyResolver.ProxyShape getShape() {
+        BitSet intercepted = new BitSet(this.chains.length);
+        for (int m = 0; m < this.chains.length; m++) {
+            if (this.chains[m].length > 0) {
+                intercepted.set(m);
+            }
+        }
+        return new ProxyResolver.ProxyShape(intercepted);
+    }
+
+    @Override
+    public Object dispatch(int index, MethodHandle invoker, Object[] args) throws Throwable {
+        return new ProxyMethodInvocation(this.target, this.proxyType.methods[index], invoker, args,
+                this.chains[index]).proceed();
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyChain(" + this.target.getClass().getName() + ", " + this.handlers + ")";
+    }
+}
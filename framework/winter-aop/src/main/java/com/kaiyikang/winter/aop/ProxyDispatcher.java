@@ -0,0 +1,22 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Instance state of a proxy. Every intercepted method of a generated proxy
+ * class calls the dispatcher of the proxy instance with the index of the
+ * method, so one proxy class is shared by all proxies of the same target
+ * class.
+ */
+public interface ProxyDispatcher {
+
+    /**
+     * Dispatch a call of the proxy.
+     *
+     * @param index   Index of the method in ProxyResolver.getProxyMethods().
+     * @param invoker Constant handle of the method with type (Object target,
+     *                Object[] args)Object.
+     * @param args    Arguments of the call, empty array if no argument.
+     */
+    Object dispatch(int index, MethodHandle invoker, Object[] args) throws Throwable;
+}
@@ -0,0 +1,59 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * MethodInvocation of a proxy call, one per call. proceed() moves to the next
+ * interceptor of the chain, so an interceptor proceeds at most once, on any
+ * thread. After the last interceptor the target is called by a MethodHandle of
+ * type (Object, Object[])Object, so there is no access check and no
+ * InvocationTargetException.
+ */
+final class ProxyMethodInvocation implements MethodInvocation {
+
+    final Object target;
+    final Method method;
+    final MethodHandle invoker;
+    final Object[] args;
+    final MethodInterceptor[] chain;
+    // Index of the interceptor called by proceed()
+    int index;
+
+    ProxyMethodInvocation(Object target, Method method, MethodHandle invoker, Object[] args,
+            MethodInterceptor[] chain) {
+        this.target = target;
+        this.method = method;
+        this.invoker = invoker;
+        this.args = args;
+        this.chain = chain;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return args;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        if (index < chain.length) {
+            return chain[index++].invoke(this);
+        }
+        return (Object) invoker.invokeExact(target, args);
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyMethodInvocation(" + method + ")";
+    }
+}
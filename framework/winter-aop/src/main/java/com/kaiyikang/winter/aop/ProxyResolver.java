@@ -1,71 +1,515 @@
 package com.kaiyikang.winter.aop;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.kaiyikang.winter.annotation.EventListener;
+import com.kaiyikang.winter.annotation.Order;
+import com.kaiyikang.winter.annotation.Scheduled;
+import com.kaiyikang.winter.exception.AopConfigException;
+import com.kaiyikang.winter.utils.MergedAnnotations;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.loading.MultipleParentClassLoader;
 import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
-import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.utility.JavaConstant;
 
+/**
+ * Create proxy by subclass of the target class.
+ *
+ * Proxy classes are generated once per target class and shape (which methods
+ * call the dispatcher), and shared by all proxies of them. Target and handler
+ * are not in the generated class, but in the fields of each proxy instance.
+ * Every intercepted method calls the dispatcher with the constant index of the
+ * method and a constant MethodHandle of the method (a dynamic constant of the
+ * generated class), so there is no lookup on call and the JIT can inline the
+ * target. A method which matches the Pointcut of no handler calls the target
+ * directly, and so does every method of a lazy proxy, with typed arguments.
+ *
+ * A bean has at most one proxy holding a chain of handlers, which is extended
+ * by addHandler() instead of creating a proxy of the proxy. A MethodInterceptor
+ * calls the target by a MethodHandle of the method instead of Method.invoke().
+ * The resolver is thread-safe.
+ *
+ * A proxy is created by a constructor imitating an accessible constructor of
+ * the target class, preferring the one with fewest parameters, with null or
+ * zero arguments. So the target class needs an accessible constructor which
+ * accepts them, and its fields are set on the proxy too, but never used by
+ * the forwarded methods. Public and protected
+ * non-final methods are overridden and forwarded to the target, protected ones
+ * only if the proxy class is defined in the package of the target. Other
+ * methods run on the proxy itself, and a warning is logged when the proxy
+ * class is generated, except for methods only called on the target by the
+ * context, e.g. @PostConstruct.
+ */
 public class ProxyResolver {
 
+    static final String DISPATCHER_FIELD = "winter$dispatcher";
+
+    static final String TARGET_FIELD = "winter$target";
+
+    static final String SUPPLIER_FIELD = "winter$supplier";
+
+    static final Method DISPATCH_METHOD;
+
+    static final Method INVOKER_BOOTSTRAP;
+
+    static final Method SUPPLIER_GET;
+
+    static {
+        try {
+            DISPATCH_METHOD = ProxyDispatcher.class.getMethod("dispatch", int.class, MethodHandle.class,
+                    Object[].class);
+            INVOKER_BOOTSTRAP = ProxyResolver.class.getMethod("bootstrapInvoker", MethodHandles.Lookup.class,
+                    String.class, Class.class, int.class);
+            SUPPLIER_GET = Supplier.class.getMethod("get");
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final ProxyResolver INSTANCE = new ProxyResolver();
+
+    /**
+     * Which methods of the target call the dispatcher, and the others call the
+     * target directly. All methods of a lazy proxy call the target from
+     * supplier.
+     */
+    record ProxyShape(BitSet intercepted, boolean lazy) {
+
+        ProxyShape(BitSet intercepted) {
+            this(intercepted, false);
+        }
+
+        static ProxyShape ofLazy() {
+            return new ProxyShape(new BitSet(), true);
+        }
+    }
+
+    /**
+     * A generated proxy class, supplierField is null if not lazy.
+     */
+    record ProxyClass(Class<?> type, Constructor<?> constructor, Object[] constructorArgs, Field dispatcherField,
+            Field targetField, Field supplierField) {
+    }
+
+    /**
+     * Proxy classes of a target class.
+     */
+    static final class ProxyType {
+
+        final Class<?> targetClass;
+        // Methods which can be intercepted, the index is passed to dispatcher
+        final Method[] methods;
+        // Created on first use, a MethodHandle is safe to publish by race
+        final MethodHandle[] invokers;
+        final Map<ProxyShape, ProxyClass> classes = new ConcurrentHashMap<>();
+        // Lookup to define proxy classes in the package of target, or null
+        final MethodHandles.Lookup lookup;
+        // A method which is not forwarded to the target, or null
+        final Method unforwarded;
+
+        ProxyType(Class<?> targetClass) {
+            this.targetClass = targetClass;
+            this.lookup = getDefiningLookup(targetClass);
+            // Protected methods can be overridden only in the same runtime package
+            this.methods = getInterceptableMethods(targetClass, this.lookup != null);
+            this.invokers = new MethodHandle[this.methods.length];
+            this.unforwarded = findUnforwardedMethod(targetClass, this.lookup != null);
+        }
+
+        /**
+         * Get handle of the method with type (Object target, Object[] args)Object.
+         */
+        MethodHandle getInvoker(int index) {
+            MethodHandle invoker = this.invokers[index];
+            if (invoker == null) {
+                invoker = createInvoker(this.methods[index]);
+                this.invokers[index] = invoker;
+            }
+            return invoker;
+        }
+
+        static MethodHandle createInvoker(Method method) {
+            try {
+                // Public method may be declared in a non-public class
+                method.trySetAccessible();
+                // Fixed arity: the varargs array is one of args
+                return MethodHandles.lookup().unreflect(method).asFixedArity()
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new AopConfigException("Cannot access method: " + method, e);
+            }
+        }
+    }
+
     final Logger logger = LoggerFactory.getLogger(getClass());
 
-    final ByteBuddy byteBuddy = new ByteBuddy();
+    // Dynamic constant needs class file of Java 11
+    final ByteBuddy byteBuddy = new ByteBuddy(ClassFileVersion.JAVA_V11);
 
-    private static ProxyResolver INSTANCE = null;
+    final ClassValue<ProxyType> proxyTypes = new ClassValue<>() {
+        @Override
+        protected ProxyType computeValue(Class<?> type) {
+            return new ProxyType(type);
+        }
+    };
+
+    // Dispatcher field of generated proxy classes
+    final ClassValue<Optional<Field>> dispatcherFields = new ClassValue<>() {
+        @Override
+        protected Optional<Field> computeValue(Class<?> type) {
+            try {
+                Field field = type.getDeclaredField(DISPATCHER_FIELD);
+                if (field.getType() == ProxyDispatcher.class && field.trySetAccessible()) {
+                    return Optional.of(field);
+                }
+            } catch (NoSuchFieldException e) {
+                // Not a proxy
+            }
+            return Optional.empty();
+        }
+    };
 
     private ProxyResolver() {
     }
 
     public static ProxyResolver getInstance() {
-        if (INSTANCE == null) {
-            INSTANCE = new ProxyResolver();
-        }
         return INSTANCE;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Get a non-private method of the class which a proxy cannot forward to the
+     * target, or null.
+     */
+    public Method getUnforwardedMethod(Class<?> targetClass) {
+        return this.proxyTypes.get(targetClass).unforwarded;
+    }
+
+    /**
+     * Bootstrap of the dynamic constant in a generated proxy class, which is the
+     * invoker of the method at index of the target class.
+     */
+    public static MethodHandle bootstrapInvoker(MethodHandles.Lookup lookup, String name, Class<?> type,
+            int index) {
+        return INSTANCE.proxyTypes.get(lookup.lookupClass().getSuperclass()).getInvoker(index);
+    }
+
     public <T> T createProxy(T bean, InvocationHandler handler) {
+        return createProxy(bean, List.of(handler));
+    }
+
+    /**
+     * Create proxy with interceptor, which calls the target by
+     * MethodInvocation.proceed().
+     */
+    public <T> T createProxy(T bean, MethodInterceptor interceptor) {
+        return createProxy(bean, List.of(interceptor));
+    }
 
+    /**
+     * Create one proxy with a chain of handlers, and each handler is a
+     * MethodInterceptor or an InvocationHandler. The first handler is the
+     * outermost one.
+     */
+    public <T> T createProxy(T bean, List<?> handlers) {
         Class<?> targetClass = bean.getClass();
-        logger.atDebug().log("create proxy for bean {} @{}", targetClass.getName(),
-                Integer.toHexString(bean.hashCode()));
+        logger.atDebug().log("create proxy for bean {} @{} with handlers {}", targetClass.getName(),
+                Integer.toHexString(bean.hashCode()), handlers);
 
-        Class<?> proxyClass = this.byteBuddy
-                // create subclass of the targetClass since the subclass can inherit the class.
-                // and with no args constructor
-                .subclass(targetClass, ConstructorStrategy.Default.DEFAULT_CONSTRUCTOR)
-                // intercept which type of method, or use named("hello") only for hello()
-                .method(ElementMatchers.isPublic())
-                // main logic
-                .intercept(InvocationHandlerAdapter.of(
-                        new InvocationHandler() {
-                            @Override
-                            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                                // avoid the dead loop, here use bean
-                                return handler.invoke(bean, method, args);
-                            }
-                        }))
-                // generate .class
-                .make()
-                // load into loader
-                .load(targetClass.getClassLoader())
-                // get the loaded class
-                .getLoaded();
-
-        Object proxy;
+        ProxyType proxyType = this.proxyTypes.get(targetClass);
+        // avoid the dead loop, here use bean
+        ProxyChain chain = new ProxyChain(this, proxyType, bean, handlers);
+        return newProxy(proxyType, chain.getShape(), chain, bean);
+    }
+
+    /**
+     * Add handler to the chain of a proxy created by the resolver, and return a
+     * new proxy of the target with handlers ordered by @Order. If bean is not a
+     * proxy, a proxy of bean is created.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T addHandler(T bean, Object handler) {
+        ProxyChain chain = getProxyChain(bean);
+        if (chain == null) {
+            return createProxy(bean, List.of(handler));
+        }
+        List<Object> handlers = new ArrayList<>(chain.handlers);
+        handlers.add(handler);
+        // Stable sort, handlers of the same order are kept in order of adding
+        handlers.sort(Comparator.comparingInt(ProxyResolver::getOrder));
+        return (T) createProxy(chain.target, handlers);
+    }
+
+    /**
+     * Get the target of a proxy created by the resolver, or the bean itself.
+     */
+    public Object getTarget(Object bean) {
+        ProxyChain chain = getProxyChain(bean);
+        return chain == null ? bean : chain.target;
+    }
+
+    /**
+     * Get the handlers of a proxy created by the resolver, or empty list.
+     */
+    public List<Object> getHandlers(Object bean) {
+        ProxyChain chain = getProxyChain(bean);
+        return chain == null ? List.of() : chain.handlers;
+    }
+
+    ProxyChain getProxyChain(Object bean) {
+        Field dispatcherField = this.dispatcherFields.get(bean.getClass()).orElse(null);
+        if (dispatcherField == null) {
+            return null;
+        }
         try {
-            proxy = proxyClass.getConstructor().newInstance();
+            return dispatcherField.get(bean) instanceof ProxyChain chain ? chain : null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    static int getOrder(Object handler) {
+        Order order = MergedAnnotations.from(handler.getClass()).get(Order.class);
+        return order == null ? Integer.MAX_VALUE : order.value();
+    }
+
+    /**
+     * Create proxy of target class without target instance. The target is
+     * obtained from supplier on every call, so it can be created on first call.
+     */
+    public <T> T createLazyProxy(Class<T> targetClass, Supplier<? extends T> targetSupplier) {
+        logger.atDebug().log("create lazy proxy for class {}", targetClass.getName());
+
+        ProxyType proxyType = this.proxyTypes.get(targetClass);
+        return newProxy(proxyType, ProxyShape.ofLazy(), null, null, targetSupplier);
+    }
+
+    <T> T newProxy(ProxyType proxyType, ProxyShape shape, ProxyDispatcher dispatcher, Object target) {
+        return newProxy(proxyType, shape, dispatcher, target, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T newProxy(ProxyType proxyType, ProxyShape shape, ProxyDispatcher dispatcher, Object target,
+            Supplier<?> supplier) {
+        ProxyClass proxyClass = proxyType.classes.computeIfAbsent(shape, s -> generateProxyClass(proxyType, s));
+        try {
+            Object proxy = proxyClass.constructor().newInstance(proxyClass.constructorArgs());
+            proxyClass.dispatcherField().set(proxy, dispatcher);
+            proxyClass.targetField().set(proxy, target);
+            if (proxyClass.supplierField() != null) {
+                proxyClass.supplierField().set(proxy, supplier);
+            }
+            return (T) proxy;
+        } catch (InvocationTargetException e) {
+            throw new AopConfigException("Cannot create proxy of " + proxyType.targetClass.getName()
+                    + ": constructor of target class failed with null or zero arguments.", e.getCause());
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        return (T) proxy;
+    }
+
+    ProxyClass generateProxyClass(ProxyType proxyType, ProxyShape shape) {
+        Class<?> targetClass = proxyType.targetClass;
+        logger.atDebug().log("generate proxy class for {} with {} intercepted methods", targetClass.getName(),
+                shape.intercepted().cardinality());
+        if (proxyType.unforwarded != null) {
+            logger.warn("method {} is not public or is final, it is not forwarded and runs on the proxy of {}.",
+                    proxyType.unforwarded, targetClass.getName());
+        }
+
+        DynamicType.Builder<?> builder = this.byteBuddy
+                // create subclass of the targetClass since the subclass can inherit the class.
+                // constructors call super, package-private ones only in the package of target
+                .subclass(targetClass, proxyType.lookup != null ? ConstructorStrategy.Default.IMITATE_SUPER_CLASS
+                        : ConstructorStrategy.Default.IMITATE_SUPER_CLASS_PUBLIC)
+                .defineField(DISPATCHER_FIELD, ProxyDispatcher.class, Visibility.PRIVATE)
+                .defineField(TARGET_FIELD, targetClass, Visibility.PRIVATE);
+        if (shape.lazy()) {
+            builder = builder.defineField(SUPPLIER_FIELD, Supplier.class, Visibility.PRIVATE);
+        }
+        Method[] methods = proxyType.methods;
+        for (int i = 0; i < methods.length; i++) {
+            if (shape.lazy()) {
+                // ((T) this.supplier.get()).method(args)
+                builder = builder.method(ElementMatchers.is(methods[i])).intercept(MethodCall.invoke(methods[i])
+                        .onMethodCall(MethodCall.invoke(SUPPLIER_GET).onField(SUPPLIER_FIELD)).withAllArguments()
+                        .withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+            } else if (shape.intercepted().get(i)) {
+                // this.dispatcher.dispatch(i, constant invoker, args)
+                builder = builder.method(ElementMatchers.is(methods[i])).intercept(MethodCall.invoke(DISPATCH_METHOD)
+                        .onField(DISPATCHER_FIELD).with(i)
+                        .with(JavaConstant.Dynamic.bootstrap("invoker" + i, INVOKER_BOOTSTRAP, i))
+                        .withArgumentArray().withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC));
+            } else {
+                // this.target.method(args)
+                builder = builder.method(ElementMatchers.is(methods[i]))
+                        .intercept(MethodCall.invoke(methods[i]).onField(TARGET_FIELD).withAllArguments());
+            }
+        }
+
+        Class<?> proxyClass = loadProxyClass(builder.make(), proxyType);
+        try {
+            Constructor<?> constructor = Arrays.stream(proxyClass.getDeclaredConstructors())
+                    .min(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow(() -> new AopConfigException(
+                            "Cannot create proxy of " + targetClass.getName() + ": no accessible constructor."));
+            Object[] constructorArgs = Arrays.stream(constructor.getParameterTypes())
+                    .map(ProxyResolver::getDefaultValue).toArray();
+            Field dispatcherField = proxyClass.getDeclaredField(DISPATCHER_FIELD);
+            dispatcherField.setAccessible(true);
+            Field targetField = proxyClass.getDeclaredField(TARGET_FIELD);
+            targetField.setAccessible(true);
+            Field supplierField = null;
+            if (shape.lazy()) {
+                supplierField = proxyClass.getDeclaredField(SUPPLIER_FIELD);
+                supplierField.setAccessible(true);
+            }
+            return new ProxyClass(proxyClass, constructor, constructorArgs, dispatcherField, targetField,
+                    supplierField);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    Class<?> loadProxyClass(DynamicType.Unloaded<?> unloaded, ProxyType proxyType) {
+        ClassLoader classLoader = proxyType.targetClass.getClassLoader();
+        if (proxyType.lookup != null) {
+            // Define in the package of target, no class loader per proxy class
+            return unloaded.load(classLoader, ClassLoadingStrategy.UsingLookup.of(proxyType.lookup)).getLoaded();
+        }
+        ClassLoader parent = new MultipleParentClassLoader.Builder()
+                .append(classLoader, ProxyDispatcher.class.getClassLoader()).build();
+        return unloaded.load(parent, ClassLoadingStrategy.Default.WRAPPER).getLoaded();
+    }
+
+    /**
+     * Get lookup to define proxy class in the package of target, or null if the
+     * loader of target cannot see the dispatcher or the package is not open.
+     */
+    static MethodHandles.Lookup getDefiningLookup(Class<?> targetClass) {
+        ClassLoader classLoader = targetClass.getClassLoader();
+        if (classLoader == null || !isVisible(classLoader, ProxyDispatcher.class)) {
+            return null;
+        }
+        try {
+            return MethodHandles.privateLookupIn(targetClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    static Object getDefaultValue(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    static boolean isVisible(ClassLoader classLoader, Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Find a non-private instance method which is final, package-private, or
+     * protected if protected methods are not overridden, so it is not forwarded
+     * to the target. Methods called on the target by the context are skipped.
+     */
+    static Method findUnforwardedMethod(Class<?> targetClass, boolean overrideProtected) {
+        for (Class<?> clazz = targetClass; clazz != Object.class && clazz != null; clazz = clazz.getSuperclass()) {
+            for (Method m : clazz.getDeclaredMethods()) {
+                int mod = m.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isPrivate(mod) || m.isSynthetic() || isCalledOnTarget(m)) {
+                    continue;
+                }
+                if (Modifier.isFinal(mod) || !(Modifier.isPublic(mod)
+                        || (overrideProtected && Modifier.isProtected(mod)))) {
+                    return m;
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean isCalledOnTarget(Method m) {
+        return m.isAnnotationPresent(PostConstruct.class) || m.isAnnotationPresent(PreDestroy.class)
+                || m.isAnnotationPresent(EventListener.class) || m.isAnnotationPresent(Scheduled.class);
+    }
+
+    /**
+     * Public methods, and protected methods if overrideProtected, which can be
+     * overridden, one per signature, sorted by signature.
+     */
+    static Method[] getInterceptableMethods(Class<?> targetClass, boolean overrideProtected) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method m : targetClass.getMethods()) {
+            int mod = m.getModifiers();
+            if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || m.isBridge() || m.isSynthetic()) {
+                continue;
+            }
+            String signature = m.getName() + Arrays.toString(m.getParameterTypes());
+            Method exist = methods.get(signature);
+            // Prefer method of class than method of interface
+            if (exist == null || (exist.getDeclaringClass().isInterface() && !m.getDeclaringClass().isInterface())) {
+                methods.put(signature, m);
+            }
+        }
+        if (overrideProtected) {
+            // The first declaration of a signature from the target class up wins
+            Set<String> declared = new HashSet<>();
+            for (Class<?> c = targetClass; c != Object.class && c != null; c = c.getSuperclass()) {
+                for (Method m : c.getDeclaredMethods()) {
+                    int mod = m.getModifiers();
+                    String signature = m.getName() + Arrays.toString(m.getParameterTypes());
+                    if (Modifier.isStatic(mod) || Modifier.isPrivate(mod) || m.isBridge() || m.isSynthetic()
+                            || !declared.add(signature) || !Modifier.isProtected(mod) || Modifier.isFinal(mod)
+                            || methods.containsKey(signature)) {
+                        continue;
+                    }
+                    // Called by Method.invoke() of an InvocationHandler
+                    m.trySetAccessible();
+                    methods.put(signature, m);
+                }
+            }
+        }
+        List<String> signatures = new ArrayList<>(methods.keySet());
+        signatures.sort(Comparator.naturalOrder());
+        return signatures.stream().map(methods::get).toArray(Method[]::new);
     }
 }
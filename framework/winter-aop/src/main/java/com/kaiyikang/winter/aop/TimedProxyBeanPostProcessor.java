@@ -0,0 +1,121 @@
+package com.kaiyikang.winter.aop;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.kaiyikang.winter.annotation.Order;
+import com.kaiyikang.winter.annotation.Timed;
+import com.kaiyikang.winter.context.BeanPostProcessor;
+import com.kaiyikang.winter.exception.BeansException;
+import com.kaiyikang.winter.utils.MergedAnnotations;
+
+/**
+ * Proxy beans having @Timed class or methods, and record each call to a Timer
+ * of the TimerRegistry. A BeanPostProcessor cannot be autowired, so export the
+ * registry of the processor as a bean:
+ *
+ * <pre>
+ * &#64;Bean
+ * TimedProxyBeanPostProcessor timedProxyBeanPostProcessor() {
+ *     return new TimedProxyBeanPostProcessor();
+ * }
+ *
+ * &#64;Bean
+ * TimerRegistry timerRegistry(@Autowired TimedProxyBeanPostProcessor processor) {
+ *     return processor.getTimerRegistry();
+ * }
+ * </pre>
+ *
+ * The timer of a method is resolved when the proxy is created, so a call only
+ * reads the clock twice and records to the timer.
+ */
+public class TimedProxyBeanPostProcessor implements BeanPostProcessor {
+
+    // Beans may be processed concurrently by parallel refresh
+    final Map<String, Object> originBeans = new ConcurrentHashMap<>();
+
+    final TimerRegistry timerRegistry;
+
+    public TimedProxyBeanPostProcessor() {
+        this(new TimerRegistry());
+    }
+
+    public TimedProxyBeanPostProcessor(TimerRegistry timerRegistry) {
+        this.timerRegistry = timerRegistry;
+    }
+
+    public TimerRegistry getTimerRegistry() {
+        return timerRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        Object target = ProxyResolver.getInstance().getTarget(bean);
+        Class<?> targetClass = target.getClass();
+        boolean hasTimed = MergedAnnotations.from(targetClass).isPresent(Timed.class);
+        for (Method m : targetClass.getMethods()) {
+            hasTimed = hasTimed || MergedAnnotations.from(m).isPresent(Timed.class);
+        }
+        if (!hasTimed) {
+            return bean;
+        }
+        Object proxy = ProxyResolver.getInstance().addHandler(bean, new TimedInterceptor());
+        originBeans.put(beanName, target);
+        return proxy;
+    }
+
+    @Override
+    public Object postProcessOnSetProperty(Object bean, String beanName) {
+        Object origin = originBeans.get(beanName);
+        return origin != null ? origin : bean;
+    }
+
+    /**
+     * Get timer name of the method, or null if it is not timed.
+     */
+    static String getTimerName(Method method, Class<?> targetClass) {
+        Timed timed = MergedAnnotations.from(method).get(Timed.class);
+        if (timed != null) {
+            return timed.value().isEmpty() ? targetClass.getSimpleName() + "." + method.getName() : timed.value();
+        }
+        timed = MergedAnnotations.from(targetClass).get(Timed.class);
+        if (timed != null && Pointcut.DEFAULT.matches(method, targetClass)) {
+            String prefix = timed.value().isEmpty() ? targetClass.getSimpleName() : timed.value();
+            return prefix + "." + method.getName();
+        }
+        return null;
+    }
+
+    // Inside @Async, so the time of an @Async method is measured on executor
+    @Order(Integer.MIN_VALUE + 1)
+    class TimedInterceptor implements MethodInterceptor, Pointcut {
+
+        // Method -> Timer of the timed methods, filled by matches()
+        final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            String name = getTimerName(method, targetClass);
+            if (name == null) {
+                return false;
+            }
+            this.timers.put(method, timerRegistry.timer(name));
+            return true;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Timer timer = this.timers.get(invocation.getMethod());
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                Object r = invocation.proceed();
+                error = false;
+                return r;
+            } finally {
+                timer.record(System.nanoTime() - start, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.kaiyikang.winter.aop;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Count, errors and latency histogram of a timed method.
+ *
+ * The histogram has log-linear buckets like HdrHistogram: values below 32 ns
+ * have a bucket per nanosecond, and each power of two above is split into 32
+ * buckets, so a recorded value has a relative error below 1/32. Values above
+ * 2^43 ns (about 2.4 hours) are recorded as the max bucket.
+ *
+ * Buckets and totals are striped by thread into AtomicLongArrays, so recording
+ * is a few atomic adds without lock, and threads on different stripes do not
+ * contend. A stripe is allocated on first use. snapshot() merges the stripes
+ * without stopping recording, so a concurrent record may be partially seen.
+ */
+public final class Timer {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_BIT = 42;
+    static final long MAX_VALUE = (1L << (MAX_BIT + 1)) - 1;
+    static final int BUCKETS = (MAX_BIT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    // Slots after the buckets
+    static final int TOTAL = BUCKETS;
+    static final int ERRORS = BUCKETS + 1;
+    static final int MAX = BUCKETS + 2;
+    static final int SLOTS = BUCKETS + 3;
+
+    static final int STRIPES = nextPowerOfTwo(Math.min(Runtime.getRuntime().availableProcessors(), 16));
+
+    final String name;
+    final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    public Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a call.
+     *
+     * @param nanos Latency in nanoseconds.
+     * @param error If the call throws exception.
+     */
+    public void record(long nanos, boolean error) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        AtomicLongArray stripe = getStripe();
+        stripe.getAndIncrement(bucketIndex(value));
+        stripe.getAndAdd(TOTAL, value);
+        if (error) {
+            stripe.getAndIncrement(ERRORS);
+        }
+        if (value > stripe.get(MAX)) {
+            stripe.accumulateAndGet(MAX, value, Math::max);
+        }
+    }
+
+    AtomicLongArray getStripe() {
+        long id = Thread.currentThread().threadId();
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+        AtomicLongArray stripe = this.stripes.get(index);
+        if (stripe == null) {
+            this.stripes.compareAndSet(index, null, new AtomicLongArray(SLOTS));
+            stripe = this.stripes.get(index);
+        }
+        return stripe;
+    }
+
+    public TimerSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        long errors = 0;
+        long max = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray stripe = this.stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+            total += stripe.get(TOTAL);
+            errors += stripe.get(ERRORS);
+            max = Math.max(max, stripe.get(MAX));
+        }
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        return new TimerSnapshot(this.name, count, errors, total, max, valueAt(counts, count, max, 0.5),
+                valueAt(counts, count, max, 0.9), valueAt(counts, count, max, 0.99),
+                valueAt(counts, count, max, 0.999));
+    }
+
+    /**
+     * Get the highest value of the bucket at the percentile, but not above max.
+     */
+    static long valueAt(long[] counts, long count, long max, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    static int nextPowerOfTwo(int n) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(Math.max(n, 1) - 1));
+    }
+
+    @Override
+    public String toString() {
+        return "Timer(" + this.name + ")";
+    }
+}
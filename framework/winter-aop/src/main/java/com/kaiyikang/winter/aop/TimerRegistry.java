@@ -0,0 +1,37 @@
+package com.kaiyikang.winter.aop;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timers by name, which are recorded by @Timed methods. Exported as a bean by
+ * TimedProxyBeanPostProcessor.getTimerRegistry() for the snapshots of timers.
+ */
+public class TimerRegistry {
+
+    final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Get or create timer.
+     */
+    public Timer timer(String name) {
+        return this.timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Get timer, or null if not exist.
+     */
+    public Timer getTimer(String name) {
+        return this.timers.get(name);
+    }
+
+    /**
+     * Get snapshots of all timers ordered by name.
+     */
+    public List<TimerSnapshot> getSnapshots() {
+        return this.timers.values().stream().map(Timer::snapshot)
+                .sorted(Comparator.comparing(TimerSnapshot::name)).toList();
+    }
+}
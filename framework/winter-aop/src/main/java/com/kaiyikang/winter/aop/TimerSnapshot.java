@@ -0,0 +1,13 @@
+package com.kaiyikang.winter.aop;
+
+/**
+ * Totals of a Timer since start. Times are in nanoseconds, and percentiles
+ * have a relative error below 1/32.
+ */
+public record TimerSnapshot(String name, long count, long errors, long totalTime, long max, long p50, long p90,
+        long p99, long p999) {
+
+    public double mean() {
+        return count == 0 ? 0 : (double) totalTime / count;
+    }
+}
@@ -0,0 +1,18 @@
+package com.kaiyikang.winter.aop.async;
+
+import com.kaiyikang.winter.annotation.Bean;
+import com.kaiyikang.winter.annotation.ComponentScan;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.annotation.Value;
+import com.kaiyikang.winter.aop.AsyncProxyBeanPostProcessor;
+
+@Configuration
+@ComponentScan
+public class AsyncApplication {
+
+    @Bean(destroyMethod = "close")
+    AsyncProxyBeanPostProcessor createAsyncProxyBeanPostProcessor(
+            @Value("${winter.async.max-in-flight:2}") int maxInFlight) {
+        return new AsyncProxyBeanPostProcessor(maxInFlight);
+    }
+}
@@ -0,0 +1,94 @@
+package com.kaiyikang.winter.aop.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.exception.NoSuchBeanDefinitionException;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class AsyncProxyTest {
+
+    @Test
+    public void runOnVirtualThread() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(AsyncApplication.class, createPropertyResolver())) {
+            ReportService service = ctx.getBean(ReportService.class);
+            assertNotSame(ReportService.class, service.getClass());
+
+            MDC.put("requestId", "r-1");
+            try {
+                assertEquals("a:true:r-1", service.fetch("a").get());
+            } finally {
+                MDC.remove("requestId");
+            }
+
+            // Not @Async
+            assertEquals(Thread.currentThread().getName(), service.currentThread());
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> service.fail().get());
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    public void limitInFlightTasks() throws Exception {
+        ReportService service;
+        try (var ctx = new AnnotationConfigApplicationContext(AsyncApplication.class, createPropertyResolver())) {
+            service = ctx.getBean(ReportService.class);
+            for (int i = 0; i < 6; i++) {
+                service.record("r" + i);
+            }
+        }
+        // Running tasks are finished on close
+        assertEquals(6, service.getRecords().size());
+        assertTrue(service.getMaxRunning() <= 2);
+    }
+
+    @Test
+    public void holdPermitUntilFutureCompletes() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(AsyncApplication.class, createPropertyResolver())) {
+            ReportService service = ctx.getBean(ReportService.class);
+            CompletableFuture<String> signal = new CompletableFuture<>();
+            CompletableFuture<String> first = service.await(signal);
+            CompletableFuture<String> second = service.await(signal);
+            // Both permits are held by the pending futures
+            CompletableFuture<String> third = CompletableFuture.supplyAsync(() -> service.fetch("c").join());
+            assertThrows(TimeoutException.class, () -> third.get(100, TimeUnit.MILLISECONDS));
+
+            signal.complete("done");
+            assertEquals("done", first.get());
+            assertEquals("done", second.get());
+            assertEquals("c:true:null", third.get());
+        }
+    }
+
+    @Test
+    public void noPermitLeakForMissingExecutor() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(AsyncApplication.class, createPropertyResolver())) {
+            ReportService service = ctx.getBean(ReportService.class);
+            // More calls than maxInFlight = 2, none of them blocks
+            for (int i = 0; i < 5; i++) {
+                assertThrows(NoSuchBeanDefinitionException.class, () -> service.fetchByMissingExecutor("x"));
+            }
+            assertEquals("a:true:null", service.fetch("a").get(1, TimeUnit.SECONDS));
+        }
+    }
+
+    PropertyResolver createPropertyResolver() {
+        var ps = new Properties();
+        ps.put("app.title", "Async App");
+        return new PropertyResolver(ps);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kaiyikang.winter.aop.async;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.MDC;
+
+import com.kaiyikang.winter.annotation.Async;
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class ReportService {
+
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final List<String> records = new CopyOnWriteArrayList<>();
+
+    @Async
+    public CompletableFuture<String> fetch(String name) {
+        return CompletableFuture.completedFuture(
+                name + ":" + Thread.currentThread().isVirtual() + ":" + MDC.get("requestId"));
+    }
+
+    @Async
+    public CompletableFuture<String> fail() {
+        throw new IllegalStateException("fetch failed");
+    }
+
+    @Async
+    public CompletableFuture<String> await(CompletableFuture<String> signal) {
+        return signal;
+    }
+
+    @Async("missingExecutor")
+    public CompletableFuture<String> fetchByMissingExecutor(String name) {
+        return CompletableFuture.completedFuture(name);
+    }
+
+    @Async
+    public void record(String record) throws InterruptedException {
+        int n = this.running.incrementAndGet();
+        this.maxRunning.accumulateAndGet(n, Math::max);
+        Thread.sleep(50);
+        this.records.add(record);
+        this.running.decrementAndGet();
+    }
+
+    public List<String> getRecords() {
+        return this.records;
+    }
+
+    public int getMaxRunning() {
+        return this.maxRunning.get();
+    }
+
+    public String currentThread() {
+        return Thread.currentThread().getName();
+    }
+}
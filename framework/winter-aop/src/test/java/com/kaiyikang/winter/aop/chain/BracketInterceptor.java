@@ -0,0 +1,16 @@
+package com.kaiyikang.winter.aop.chain;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Order;
+import com.kaiyikang.winter.aop.MethodInterceptor;
+import com.kaiyikang.winter.aop.MethodInvocation;
+
+@Order(1)
+@Component
+public class BracketInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return "[" + invocation.proceed() + "]";
+    }
+}
@@ -0,0 +1,7 @@
+package com.kaiyikang.winter.aop.chain;
+
+import com.kaiyikang.winter.aop.AnnotationProxyBeanPostProcessor;
+
+public class BracketProxyBeanPostProcessor extends AnnotationProxyBeanPostProcessor<Bracket> {
+
+}
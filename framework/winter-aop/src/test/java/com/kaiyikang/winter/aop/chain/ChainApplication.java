@@ -0,0 +1,21 @@
+package com.kaiyikang.winter.aop.chain;
+
+import com.kaiyikang.winter.annotation.Bean;
+import com.kaiyikang.winter.annotation.ComponentScan;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.aop.AroundProxyBeanPostProcessor;
+
+@Configuration
+@ComponentScan
+public class ChainApplication {
+
+    @Bean
+    AroundProxyBeanPostProcessor createAroundProxyBeanPostProcessor() {
+        return new AroundProxyBeanPostProcessor();
+    }
+
+    @Bean
+    BracketProxyBeanPostProcessor createBracketProxyBeanPostProcessor() {
+        return new BracketProxyBeanPostProcessor();
+    }
+}
@@ -0,0 +1,44 @@
+package com.kaiyikang.winter.aop.chain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.aop.ProxyResolver;
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class ChainProxyTest {
+
+    @Test
+    public void testOneProxyWithOrderedChain() {
+        try (var ctx = new AnnotationConfigApplicationContext(ChainApplication.class,
+                new PropertyResolver(new Properties()))) {
+            GreetingBean proxy = ctx.getBean(GreetingBean.class);
+
+            // proxy of the bean, not proxy of proxy
+            assertSame(GreetingBean.class, proxy.getClass().getSuperclass());
+            Object target = ProxyResolver.getInstance().getTarget(proxy);
+            assertSame(GreetingBean.class, target.getClass());
+
+            // ordered by @Order of handlers, not by processors
+            BracketInterceptor bracket = ctx.getBean(BracketInterceptor.class);
+            PoliteInvocationHandler polite = ctx.getBean(PoliteInvocationHandler.class);
+            assertEquals(List.of(bracket, polite), ProxyResolver.getInstance().getHandlers(proxy));
+            assertEquals("[Hello, Bob!]", proxy.hello("Bob"));
+        }
+    }
+
+    @Test
+    public void testInvocationHandlerBeforeInterceptor() {
+        GreetingBean proxy = ProxyResolver.getInstance().createProxy(new GreetingBean(),
+                List.of(new PoliteInvocationHandler(), new BracketInterceptor()));
+
+        // bracket is called by the receiver of polite handler
+        assertEquals("[Hello, Bob.]", proxy.hello("Bob"));
+    }
+}
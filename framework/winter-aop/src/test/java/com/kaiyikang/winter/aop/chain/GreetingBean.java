@@ -0,0 +1,14 @@
+package com.kaiyikang.winter.aop.chain;
+
+import com.kaiyikang.winter.annotation.Around;
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+@Around("politeInvocationHandler")
+@Bracket("bracketInterceptor")
+public class GreetingBean {
+
+    public String hello(String name) {
+        return "Hello, " + name + ".";
+    }
+}
@@ -0,0 +1,21 @@
+package com.kaiyikang.winter.aop.chain;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Order;
+
+@Order(2)
+@Component
+public class PoliteInvocationHandler implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object bean, Method method, Object[] args) throws Throwable {
+        String ret = (String) method.invoke(bean, args);
+        if (ret.endsWith(".")) {
+            ret = ret.substring(0, ret.length() - 1) + "!";
+        }
+        return ret;
+    }
+}
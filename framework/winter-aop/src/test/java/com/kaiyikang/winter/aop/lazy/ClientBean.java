@@ -0,0 +1,14 @@
+package com.kaiyikang.winter.aop.lazy;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class ClientBean {
+
+    public final HeavyBean heavyBean;
+
+    public ClientBean(@Autowired HeavyBean heavyBean) {
+        this.heavyBean = heavyBean;
+    }
+}
@@ -0,0 +1,28 @@
+package com.kaiyikang.winter.aop.lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Lazy;
+
+import jakarta.annotation.PostConstruct;
+
+@Lazy
+@Component
+public class HeavyBean {
+
+    // Initialized only once for the target, the proxy runs the constructor too
+    public static final AtomicInteger created = new AtomicInteger();
+
+    boolean initialized;
+
+    @PostConstruct
+    void init() {
+        created.incrementAndGet();
+        this.initialized = true;
+    }
+
+    public String hello(String name) {
+        return (this.initialized ? "Hello, " : "Not initialized, ") + name + "!";
+    }
+}
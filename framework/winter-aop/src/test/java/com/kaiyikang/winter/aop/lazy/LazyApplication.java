@@ -0,0 +1,8 @@
+package com.kaiyikang.winter.aop.lazy;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class LazyApplication {
+
+}
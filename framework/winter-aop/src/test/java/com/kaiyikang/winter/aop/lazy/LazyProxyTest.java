@@ -0,0 +1,49 @@
+package com.kaiyikang.winter.aop.lazy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class LazyProxyTest {
+
+    @Test
+    public void testLazyProxy() {
+        int created = HeavyBean.created.get();
+        try (var ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver())) {
+            // Proxy injected, target not created yet
+            ClientBean client = ctx.getBean(ClientBean.class);
+            assertNotSame(HeavyBean.class, client.heavyBean.getClass());
+            assertEquals(created, HeavyBean.created.get());
+
+            // Created and initialized on first call
+            assertEquals("Hello, Bob!", client.heavyBean.hello("Bob"));
+            assertEquals("Hello, Alice!", client.heavyBean.hello("Alice"));
+            assertEquals(created + 1, HeavyBean.created.get());
+            assertSame(HeavyBean.class, ctx.getBean(HeavyBean.class).getClass());
+            assertEquals(created + 1, HeavyBean.created.get());
+        }
+    }
+
+    @Test
+    public void createEagerlyIfNonPublicMethods() {
+        try (var ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver())) {
+            // A proxy would call the package-private method on itself
+            LegacyClientBean client = ctx.getBean(LegacyClientBean.class);
+            assertSame(LegacyBean.class, client.legacyBean.getClass());
+            assertEquals("legacy", client.getLegacyName());
+        }
+    }
+
+    PropertyResolver createPropertyResolver() {
+        var ps = new Properties();
+        var pr = new PropertyResolver(ps);
+        return pr;
+    }
+}
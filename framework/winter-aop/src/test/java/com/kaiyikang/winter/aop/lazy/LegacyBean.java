@@ -0,0 +1,16 @@
+package com.kaiyikang.winter.aop.lazy;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Lazy;
+
+@Lazy
+@Component
+public class LegacyBean {
+
+    final String name = "legacy";
+
+    // Not forwarded by a lazy proxy
+    String getName() {
+        return this.name;
+    }
+}
@@ -0,0 +1,18 @@
+package com.kaiyikang.winter.aop.lazy;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class LegacyClientBean {
+
+    public final LegacyBean legacyBean;
+
+    public LegacyClientBean(@Autowired LegacyBean legacyBean) {
+        this.legacyBean = legacyBean;
+    }
+
+    public String getLegacyName() {
+        return this.legacyBean.getName();
+    }
+}
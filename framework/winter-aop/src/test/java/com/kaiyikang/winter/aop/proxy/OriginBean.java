@@ -15,4 +15,18 @@ public class OriginBean {
     public String morning() {
         return "Morning, " + name + ".";
     }
+
+    public String greet(String other) {
+        return name + " greets " + other + ".";
+    }
+
+    public int length() {
+        return name.length();
+    }
+
+    public void check() {
+        if (name == null) {
+            throw new IllegalStateException("name is null");
+        }
+    }
 }
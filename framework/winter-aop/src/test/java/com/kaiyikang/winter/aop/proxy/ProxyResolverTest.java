@@ -1,11 +1,28 @@
 package com.kaiyikang.winter.aop.proxy;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 
+import com.kaiyikang.winter.aop.MethodInterceptor;
+import com.kaiyikang.winter.aop.MethodInvocation;
+import com.kaiyikang.winter.aop.Pointcut;
 import com.kaiyikang.winter.aop.ProxyResolver;
 
 public class ProxyResolverTest {
@@ -31,4 +48,162 @@ public class ProxyResolverTest {
 
     }
 
+    @Test
+    public void testProxyClassIsShared() {
+        OriginBean bob = new OriginBean();
+        bob.name = "Bob";
+        OriginBean alice = new OriginBean();
+        alice.name = "Alice";
+
+        OriginBean proxy1 = ProxyResolver.getInstance().createProxy(bob, new PoliteInvocationHandler());
+        OriginBean proxy2 = ProxyResolver.getInstance().createProxy(alice, new PoliteInvocationHandler());
+
+        // same class, different target
+        assertSame(proxy1.getClass(), proxy2.getClass());
+        assertEquals("Hello, Bob!", proxy1.hello());
+        assertEquals("Hello, Alice!", proxy2.hello());
+    }
+
+    @Test
+    public void testCreateProxyConcurrently() throws Exception {
+        List<Callable<OriginBean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            final String name = "Bob-" + i;
+            tasks.add(() -> {
+                OriginBean origin = new OriginBean();
+                origin.name = name;
+                return ProxyResolver.getInstance().createProxy(origin, new PoliteInvocationHandler());
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Set<Class<?>> classes = new HashSet<>();
+            List<Future<OriginBean>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                OriginBean proxy = futures.get(i).get();
+                classes.add(proxy.getClass());
+                assertEquals("Hello, Bob-" + i + "!", proxy.hello());
+            }
+            assertEquals(1, classes.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMethodInterceptor() {
+        OriginBean origin = new OriginBean();
+        origin.name = "Bob";
+        List<String> called = new ArrayList<>();
+        MethodInterceptor interceptor = invocation -> {
+            assertSame(origin, invocation.getThis());
+            called.add(invocation.getMethod().getName());
+            if (invocation.getMethod().getName().equals("greet")) {
+                // modify argument before proceed
+                invocation.getArguments()[0] = "Alice";
+            }
+            return invocation.proceed();
+        };
+
+        OriginBean proxy = ProxyResolver.getInstance().createProxy(origin, interceptor);
+
+        assertEquals("Hello, Bob.", proxy.hello());
+        assertEquals("Bob greets Alice.", proxy.greet("Tom"));
+        assertEquals(3, proxy.length());
+        proxy.check();
+        assertEquals(List.of("hello", "greet", "length", "check"), called);
+
+        // exception of target is not wrapped
+        origin.name = null;
+        IllegalStateException e = assertThrows(IllegalStateException.class, proxy::check);
+        assertEquals("name is null", e.getMessage());
+    }
+
+    @Test
+    public void testPointcut() {
+        OriginBean origin = new OriginBean();
+        origin.name = "Bob";
+        PolitePointcutInterceptor interceptor = new PolitePointcutInterceptor();
+
+        OriginBean proxy = ProxyResolver.getInstance().createProxy(origin, interceptor);
+
+        assertEquals("Hello, Bob!", proxy.hello());
+        // not matched methods call target directly
+        assertEquals("Morning, Bob.", proxy.morning());
+        assertEquals("Bob greets Alice.", proxy.greet("Alice"));
+        assertEquals(3, proxy.length());
+        assertEquals(origin.toString(), proxy.toString());
+        assertEquals(List.of("hello"), interceptor.called);
+
+        // other shape, other class
+        OriginBean all = ProxyResolver.getInstance().createProxy(origin, (MethodInterceptor) MethodInvocation::proceed);
+        assertNotSame(proxy.getClass(), all.getClass());
+    }
+
+    @Test
+    public void testProxyNonPublicMethod() throws Exception {
+        List<String> called = new ArrayList<>();
+        MethodInterceptor interceptor = invocation -> {
+            called.add(invocation.getMethod().getName());
+            return invocation.proceed();
+        };
+        PackageBean target = new PackageBean();
+        target.name = "Alice";
+        PackageBean proxy = ProxyResolver.getInstance().createProxy(target, interceptor);
+
+        // Protected method is forwarded, package-private method runs on the proxy with a warning
+        assertEquals("Hello, Alice", proxy.greeting());
+        assertEquals("Bob", proxy.getName());
+        assertEquals(List.of("greeting"), called);
+        assertEquals(PackageBean.class.getDeclaredMethod("getName"),
+                ProxyResolver.getInstance().getUnforwardedMethod(PackageBean.class));
+    }
+
+    @Test
+    public void testPointcutMatches() throws Exception {
+        Pointcut getters = Pointcut.ACCESSORS;
+        assertTrue(getters.matches(Thread.class.getMethod("getName"), Thread.class));
+        assertTrue(getters.matches(Thread.class.getMethod("isDaemon"), Thread.class));
+        assertFalse(getters.matches(Thread.class.getMethod("setName", String.class), Thread.class));
+        assertFalse(Pointcut.DEFAULT.matches(Object.class.getMethod("toString"), Object.class));
+
+        Pointcut signature = Pointcut.signature("greet(String)");
+        assertTrue(signature.matches(OriginBean.class.getMethod("greet", String.class), OriginBean.class));
+        assertFalse(signature.matches(OriginBean.class.getMethod("hello"), OriginBean.class));
+        assertTrue(Pointcut.signature("*ello").matches(OriginBean.class.getMethod("hello"), OriginBean.class));
+        assertTrue(Pointcut.annotatedWith(Polite.class).matches(OriginBean.class.getMethod("hello"),
+                OriginBean.class));
+    }
+
+    public static class PackageBean {
+
+        String name = "Bob";
+
+        // Runs on the proxy and returns its own field
+        String getName() {
+            return name;
+        }
+
+        protected String greeting() {
+            return "Hello, " + name;
+        }
+    }
+
+    static class PolitePointcutInterceptor implements MethodInterceptor, Pointcut {
+
+        final Pointcut pointcut = Pointcut.annotatedWith(Polite.class);
+        final List<String> called = new ArrayList<>();
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return pointcut.matches(method, targetClass);
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            called.add(invocation.getMethod().getName());
+            String ret = (String) invocation.proceed();
+            return ret.substring(0, ret.length() - 1) + "!";
+        }
+    }
 }
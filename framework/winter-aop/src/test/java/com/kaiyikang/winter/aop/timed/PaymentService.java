@@ -0,0 +1,24 @@
+package com.kaiyikang.winter.aop.timed;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Timed;
+
+@Component
+public class PaymentService {
+
+    @Timed
+    public int pay(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        return amount;
+    }
+
+    @Timed("payment.refund")
+    public void refund(int amount) {
+    }
+
+    public String getCurrency() {
+        return "EUR";
+    }
+}
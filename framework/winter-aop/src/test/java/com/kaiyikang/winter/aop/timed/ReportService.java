@@ -0,0 +1,17 @@
+package com.kaiyikang.winter.aop.timed;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Timed;
+
+@Component
+@Timed("report")
+public class ReportService {
+
+    public String daily() {
+        return "daily";
+    }
+
+    public String weekly() {
+        return "weekly";
+    }
+}
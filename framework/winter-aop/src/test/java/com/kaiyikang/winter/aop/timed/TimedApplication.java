@@ -0,0 +1,23 @@
+package com.kaiyikang.winter.aop.timed;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Bean;
+import com.kaiyikang.winter.annotation.ComponentScan;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.aop.TimedProxyBeanPostProcessor;
+import com.kaiyikang.winter.aop.TimerRegistry;
+
+@Configuration
+@ComponentScan
+public class TimedApplication {
+
+    @Bean
+    TimedProxyBeanPostProcessor timedProxyBeanPostProcessor() {
+        return new TimedProxyBeanPostProcessor();
+    }
+
+    @Bean
+    TimerRegistry timerRegistry(@Autowired TimedProxyBeanPostProcessor processor) {
+        return processor.getTimerRegistry();
+    }
+}
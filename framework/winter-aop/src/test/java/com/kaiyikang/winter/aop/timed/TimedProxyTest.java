@@ -0,0 +1,63 @@
+package com.kaiyikang.winter.aop.timed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.aop.TimerRegistry;
+import com.kaiyikang.winter.aop.TimerSnapshot;
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class TimedProxyTest {
+
+    @Test
+    public void testTimedMethods() {
+        try (var ctx = new AnnotationConfigApplicationContext(TimedApplication.class,
+                new PropertyResolver(new Properties()))) {
+            PaymentService payment = ctx.getBean(PaymentService.class);
+            assertNotSame(PaymentService.class, payment.getClass());
+
+            assertEquals(10, payment.pay(10));
+            assertEquals(20, payment.pay(20));
+            assertThrows(IllegalArgumentException.class, () -> payment.pay(0));
+            payment.refund(5);
+            assertEquals("EUR", payment.getCurrency());
+
+            TimerRegistry registry = ctx.getBean(TimerRegistry.class);
+            TimerSnapshot pay = registry.getTimer("PaymentService.pay").snapshot();
+            assertEquals(3, pay.count());
+            assertEquals(1, pay.errors());
+            assertTrue(pay.max() > 0);
+            assertTrue(pay.p50() <= pay.p99() && pay.p99() <= pay.max());
+            assertEquals(1, registry.getTimer("payment.refund").snapshot().count());
+            // not timed
+            assertNull(registry.getTimer("PaymentService.getCurrency"));
+        }
+    }
+
+    @Test
+    public void testTimedClass() {
+        try (var ctx = new AnnotationConfigApplicationContext(TimedApplication.class,
+                new PropertyResolver(new Properties()))) {
+            ReportService report = ctx.getBean(ReportService.class);
+            report.daily();
+            report.daily();
+            report.weekly();
+            report.toString();
+
+            TimerRegistry registry = ctx.getBean(TimerRegistry.class);
+            List<String> names = registry.getSnapshots().stream().map(TimerSnapshot::name)
+                    .filter(name -> name.startsWith("report.")).toList();
+            assertEquals(List.of("report.daily", "report.weekly"), names);
+            assertEquals(2, registry.getTimer("report.daily").snapshot().count());
+        }
+    }
+}
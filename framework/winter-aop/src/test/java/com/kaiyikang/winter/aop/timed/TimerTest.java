@@ -0,0 +1,70 @@
+package com.kaiyikang.winter.aop.timed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.aop.Timer;
+import com.kaiyikang.winter.aop.TimerSnapshot;
+
+public class TimerTest {
+
+    @Test
+    public void testPercentiles() {
+        Timer timer = new Timer("test");
+        // 1 us ... 10 ms
+        for (long i = 1; i <= 10_000; i++) {
+            timer.record(i * 1000, i % 100 == 0);
+        }
+        TimerSnapshot snapshot = timer.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertEquals(100, snapshot.errors());
+        assertEquals(10_000_000, snapshot.max());
+        assertEquals(50_005_000_000L, snapshot.totalTime());
+        assertNear(5_000_000, snapshot.p50());
+        assertNear(9_000_000, snapshot.p90());
+        assertNear(9_900_000, snapshot.p99());
+        assertNear(9_990_000, snapshot.p999());
+    }
+
+    @Test
+    public void testSmallValues() {
+        Timer timer = new Timer("small");
+        timer.record(0, false);
+        timer.record(7, false);
+        timer.record(-1, false);
+        TimerSnapshot snapshot = timer.snapshot();
+        assertEquals(3, snapshot.count());
+        assertEquals(0, snapshot.p50());
+        assertEquals(7, snapshot.max());
+    }
+
+    @Test
+    public void testRecordConcurrently() throws Exception {
+        Timer timer = new Timer("concurrent");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    timer.record(i, false);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        TimerSnapshot snapshot = timer.snapshot();
+        assertEquals(800_000, snapshot.count());
+        assertEquals(8 * (99_999L * 100_000 / 2), snapshot.totalTime());
+        assertEquals(99_999, snapshot.max());
+    }
+
+    static void assertNear(long expected, long actual) {
+        // relative error of a bucket is below 1/32
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "expected " + expected + " but " + actual);
+    }
+}
@@ -0,0 +1,215 @@
+package com.kaiyikang.winter.boot.loader;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.kaiyikang.winter.boot.loader.nested.NestedLocation;
+
+/**
+ * Load classes and resources from the nested jars and classes directory of an
+ * archive without extracting it, e.g. "WEB-INF/lib/*.jar" and
+ * "WEB-INF/classes/" of a war.
+ *
+ * Entry names of all roots are indexed on creation, so a class or resource is
+ * found by one lookup instead of trying each jar. Bytecode of a stored entry is
+ * defined from the memory-mapped archive directly. The loader is parallel
+ * capable, and classes are loaded with a lock per class name.
+ *
+ * A nested jar is read as a plain jar: multi-release entries under
+ * "META-INF/versions/" are not selected by the running Java version, but only
+ * found by their full names as other resources.
+ *
+ * The class is final since the constructor passes this loader to the
+ * protection domain of each root.
+ */
+public final class NestedJarClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    public static final String WAR_CLASSES = "WEB-INF/classes/";
+    public static final String WAR_LIB = "WEB-INF/lib/";
+
+    /**
+     * A classpath root in the archive.
+     *
+     * @param archive   The outer archive or a nested jar.
+     * @param prefix    Entry name prefix of the root, e.g. "WEB-INF/classes/",
+     *                  or empty for a nested jar.
+     * @param nestedJar Entry name of the nested jar, or null.
+     */
+    record Root(ZipArchive archive, String prefix, String nestedJar, Set<String> directories,
+            ProtectionDomain protectionDomain) {
+
+        boolean contains(String name) {
+            ZipArchive.Entry entry = archive.getEntry(prefix + name);
+            return (entry != null && !entry.isDirectory()) || directories.contains(name);
+        }
+    }
+
+    final Path file;
+    final List<Root> roots;
+    // Resource name -> the first root containing it
+    final Map<String, Root> index;
+
+    /**
+     * Create a class loader for a war, with "WEB-INF/classes/" first, then all
+     * jars of "WEB-INF/lib/" in order of name.
+     */
+    public static NestedJarClassLoader forWar(Path war, ClassLoader parent) throws IOException {
+        ZipArchive archive = ZipArchive.open(war);
+        List<String> jars = new ArrayList<>();
+        for (ZipArchive.Entry entry : archive.getEntries()) {
+            String name = entry.name();
+            if (name.startsWith(WAR_LIB) && name.endsWith(".jar") && name.indexOf('/', WAR_LIB.length()) < 0) {
+                jars.add(name);
+            }
+        }
+        Collections.sort(jars);
+        return new NestedJarClassLoader(war, WAR_CLASSES, jars, parent);
+    }
+
+    /**
+     * @param file       The outer archive.
+     * @param classesDir Entry name prefix of the classes directory, or null.
+     * @param nestedJars Entry names of the nested jars.
+     * @param parent     The parent class loader.
+     */
+    public NestedJarClassLoader(Path file, String classesDir, List<String> nestedJars, ClassLoader parent)
+            throws IOException {
+        super("winter-nested", parent);
+        this.file = file.toAbsolutePath().normalize();
+        ZipArchive archive = ZipArchive.open(this.file);
+        List<Root> roots = new ArrayList<>(nestedJars.size() + 1);
+        if (classesDir != null) {
+            roots.add(createRoot(archive, classesDir, null));
+        }
+        for (String jar : nestedJars) {
+            roots.add(createRoot(archive.getNestedArchive(jar), "", jar));
+        }
+        this.roots = List.copyOf(roots);
+        this.index = createIndex(this.roots);
+    }
+
+    Root createRoot(ZipArchive archive, String prefix, String nestedJar) {
+        // Directories are implied by entries, since many jars have no directory entry
+        Set<String> directories = new HashSet<>();
+        for (ZipArchive.Entry entry : archive.getEntries()) {
+            String name = entry.name();
+            if (name.startsWith(prefix)) {
+                for (int n = name.lastIndexOf('/'); n > prefix.length(); n = name.lastIndexOf('/', n - 1)) {
+                    if (!directories.add(name.substring(prefix.length(), n))) {
+                        break;
+                    }
+                }
+            }
+        }
+        URL location = new NestedLocation(this.file, nestedJar, nestedJar == null ? prefix : "").toUrl();
+        CodeSource codeSource = new CodeSource(location, (Certificate[]) null);
+        return new Root(archive, prefix, nestedJar, Set.copyOf(directories),
+                new ProtectionDomain(codeSource, null, this, null));
+    }
+
+    static Map<String, Root> createIndex(List<Root> roots) {
+        Map<String, Root> index = new HashMap<>();
+        for (Root root : roots) {
+            int prefixLength = root.prefix().length();
+            for (ZipArchive.Entry entry : root.archive().getEntries()) {
+                if (!entry.isDirectory() && entry.name().startsWith(root.prefix())) {
+                    index.putIfAbsent(entry.name().substring(prefixLength), root);
+                }
+            }
+            for (String dir : root.directories()) {
+                index.putIfAbsent(dir, root);
+            }
+        }
+        return index;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        String path = name.replace('.', '/').concat(".class");
+        Root root = this.index.get(path);
+        if (root == null) {
+            throw new ClassNotFoundException(name);
+        }
+        ByteBuffer data;
+        try {
+            data = root.archive().getData(root.archive().getEntry(root.prefix() + path));
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+        int n = name.lastIndexOf('.');
+        if (n > 0) {
+            definePackageIfAbsent(name.substring(0, n));
+        }
+        return defineClass(name, data, root.protectionDomain());
+    }
+
+    void definePackageIfAbsent(String packageName) {
+        if (getDefinedPackage(packageName) == null) {
+            try {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            } catch (IllegalArgumentException e) {
+                // Defined by another thread
+            }
+        }
+    }
+
+    @Override
+    protected URL findResource(String name) {
+        String key = removeTrailingSlash(name);
+        Root root = this.index.get(key);
+        return root == null ? null : toUrl(root, key);
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) {
+        String key = removeTrailingSlash(name);
+        if (!this.index.containsKey(key)) {
+            return Collections.emptyEnumeration();
+        }
+        List<URL> urls = new ArrayList<>();
+        for (Root root : this.roots) {
+            if (root.contains(key)) {
+                urls.add(toUrl(root, key));
+            }
+        }
+        return Collections.enumeration(urls);
+    }
+
+    URL toUrl(Root root, String name) {
+        String entryName = root.prefix() + name;
+        if (root.directories().contains(name)) {
+            entryName = entryName + "/";
+        }
+        return new NestedLocation(this.file, root.nestedJar(), entryName).toUrl();
+    }
+
+    static String removeTrailingSlash(String name) {
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    @Override
+    public String toString() {
+        return "NestedJarClassLoader(" + this.file + ", " + this.roots.size() + " roots)";
+    }
+}
@@ -0,0 +1,95 @@
+package com.kaiyikang.winter.boot.loader;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+
+import com.kaiyikang.winter.boot.loader.nested.Handler;
+
+/**
+ * Launch WinterApplication from an executable war without extracting it.
+ * Classes are loaded by NestedJarClassLoader, and the war itself is the web
+ * directory of Tomcat.
+ *
+ * The launcher is unpacked into the root of the war, so it is loaded by the
+ * system class loader from "java -jar app.war", while the application and
+ * Winter are loaded by the nested class loader.
+ *
+ * Classes of the nested class loader are also archived by a dynamic AppCDS
+ * archive, see ClassDataSharing of winter-boot for the training run.
+ */
+public class WarLauncher {
+
+    static final Logger logger = System.getLogger(WarLauncher.class.getName());
+
+    static final String WINTER_APPLICATION = "com.kaiyikang.winter.boot.WinterApplication";
+
+    /**
+     * Get the archive containing the class, or null if it is loaded from a
+     * directory, e.g. in IDE.
+     */
+    public static Path getArchive(Class<?> clazz) throws URISyntaxException {
+        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            return null;
+        }
+        URL location = codeSource.getLocation();
+        if (location == null || !"file".equals(location.getProtocol())) {
+            return null;
+        }
+        Path path = Path.of(location.toURI());
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Get the default AppCDS archive of the war, e.g. "app.jsa" for "app.war".
+     */
+    public static Path getDefaultArchive(Path war) {
+        String name = war.getFileName().toString();
+        int n = name.lastIndexOf('.');
+        return war.resolveSibling((n > 0 ? name.substring(0, n) : name) + ".jsa");
+    }
+
+    public static void launch(Path war, String configClassName, String[] args) throws Exception {
+        checkArchive(war);
+        Handler.register();
+        NestedJarClassLoader classLoader = NestedJarClassLoader.forWar(war, ClassLoader.getPlatformClassLoader());
+        Thread.currentThread().setContextClassLoader(classLoader);
+
+        Class<?> winterClass = classLoader.loadClass(WINTER_APPLICATION);
+        Class<?> configClass = classLoader.loadClass(configClassName);
+        Method runMethod = winterClass.getMethod("run", String.class, String.class, Class.class, String[].class);
+        String webDir = war.toAbsolutePath().toString();
+        try {
+            runMethod.invoke(null, webDir, webDir, configClass, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+
+    /**
+     * The archive must be given by JVM option, so only a hint is logged if the
+     * archive of a training run is not used.
+     */
+    static void checkArchive(Path war) {
+        Path archive = getDefaultArchive(war);
+        if (!Files.isRegularFile(archive)) {
+            return;
+        }
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        boolean archiveOption = runtime.getInputArguments().stream().anyMatch(
+                arg -> arg.startsWith("-XX:SharedArchiveFile=") || arg.startsWith("-XX:ArchiveClassesAtExit="));
+        if (!archiveOption) {
+            logger.log(Level.INFO, "CDS archive {0} is not used, start with: java -XX:SharedArchiveFile={0} -jar {1}",
+                    archive, war);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.kaiyikang.winter.boot.loader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A read-only zip archive over a ByteBuffer, which is a memory-mapped file or a
+ * slice of the outer archive for a nested jar.
+ *
+ * Only the central directory is parsed on open. Data of a stored entry is a
+ * slice of the buffer without copy, and a deflated entry is inflated on read.
+ * Nested jars should be stored in the outer archive, a deflated one is inflated
+ * into heap once. Zip64 is not supported.
+ *
+ * All methods are thread-safe.
+ */
+public final class ZipArchive {
+
+    static final int EOCD_SIGNATURE = 0x06054b50;
+    static final int CEN_SIGNATURE = 0x02014b50;
+    static final int LOC_SIGNATURE = 0x04034b50;
+    static final int EOCD_SIZE = 22;
+    static final int CEN_SIZE = 46;
+    static final int LOC_SIZE = 30;
+
+    public static final int STORED = 0;
+    public static final int DEFLATED = 8;
+
+    // Memory-mapped archives by absolute path
+    static final Map<Path, ZipArchive> archives = new ConcurrentHashMap<>();
+
+    public record Entry(String name, int method, long compressedSize, long size, long localHeaderOffset) {
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    final String displayName;
+    final ByteBuffer buffer;
+    final Map<String, Entry> entries;
+    final Map<String, ZipArchive> nestedArchives = new ConcurrentHashMap<>();
+
+    /**
+     * Get the memory-mapped archive of the file, which is opened once and kept
+     * until the JVM exits.
+     */
+    public static ZipArchive open(Path path) throws IOException {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        ZipArchive archive = archives.get(absolutePath);
+        if (archive == null) {
+            archive = new ZipArchive(absolutePath.toString(), map(absolutePath));
+            ZipArchive exist = archives.putIfAbsent(absolutePath, archive);
+            if (exist != null) {
+                archive = exist;
+            }
+        }
+        return archive;
+    }
+
+    static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ZipException("Archive is too large: " + path);
+            }
+            // The mapping is still valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    public ZipArchive(String displayName, ByteBuffer buffer) throws IOException {
+        this.displayName = displayName;
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.entries = Collections.unmodifiableMap(readCentralDirectory());
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public Entry getEntry(String name) {
+        return this.entries.get(name);
+    }
+
+    /**
+     * Entries in the order of the central directory.
+     */
+    public Collection<Entry> getEntries() {
+        return this.entries.values();
+    }
+
+    /**
+     * Get data of the entry as a read-only buffer positioned at 0.
+     */
+    public ByteBuffer getData(Entry entry) throws IOException {
+        ByteBuffer raw = this.buffer.slice(getDataOffset(entry), toInt(entry.compressedSize()));
+        return switch (entry.method()) {
+            case STORED -> raw.asReadOnlyBuffer();
+            case DEFLATED -> ByteBuffer.wrap(inflate(entry, raw)).asReadOnlyBuffer();
+            default -> throw new ZipException("Unsupported compression method " + entry.method() + " of entry "
+                    + entry.name() + " in " + this.displayName);
+        };
+    }
+
+    public byte[] getBytes(Entry entry) throws IOException {
+        if (entry.method() == DEFLATED) {
+            return inflate(entry, this.buffer.slice(getDataOffset(entry), toInt(entry.compressedSize())));
+        }
+        ByteBuffer data = getData(entry);
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get the archive of a nested jar, which is opened once.
+     */
+    public ZipArchive getNestedArchive(String name) throws IOException {
+        ZipArchive nested = this.nestedArchives.get(name);
+        if (nested == null) {
+            Entry entry = getEntry(name);
+            if (entry == null || entry.isDirectory()) {
+                throw new ZipException("Nested archive not found: " + name + " in " + this.displayName);
+            }
+            nested = new ZipArchive(this.displayName + "!/" + name, getData(entry));
+            ZipArchive exist = this.nestedArchives.putIfAbsent(name, nested);
+            if (exist != null) {
+                nested = exist;
+            }
+        }
+        return nested;
+    }
+
+    Map<String, Entry> readCentralDirectory() throws IOException {
+        int eocd = findEndOfCentralDirectory();
+        int count = Short.toUnsignedInt(this.buffer.getShort(eocd + 10));
+        long cenSize = Integer.toUnsignedLong(this.buffer.getInt(eocd + 12));
+        long cenOffset = Integer.toUnsignedLong(this.buffer.getInt(eocd + 16));
+        if (count == 0xffff || cenOffset == 0xffffffffL || cenOffset + cenSize > eocd) {
+            throw new ZipException("Zip64 or invalid central directory: " + this.displayName);
+        }
+        Map<String, Entry> map = new LinkedHashMap<>(count * 4 / 3 + 1);
+        int pos = (int) cenOffset;
+        byte[] nameBytes = new byte[256];
+        for (int i = 0; i < count; i++) {
+            if (this.buffer.getInt(pos) != CEN_SIGNATURE) {
+                throw new ZipException("Invalid central directory header at " + pos + ": " + this.displayName);
+            }
+            int method = Short.toUnsignedInt(this.buffer.getShort(pos + 10));
+            long compressedSize = Integer.toUnsignedLong(this.buffer.getInt(pos + 20));
+            long size = Integer.toUnsignedLong(this.buffer.getInt(pos + 24));
+            int nameLength = Short.toUnsignedInt(this.buffer.getShort(pos + 28));
+            int extraLength = Short.toUnsignedInt(this.buffer.getShort(pos + 30));
+            int commentLength = Short.toUnsignedInt(this.buffer.getShort(pos + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(this.buffer.getInt(pos + 42));
+            if (nameBytes.length < nameLength) {
+                nameBytes = new byte[nameLength];
+            }
+            this.buffer.get(pos + CEN_SIZE, nameBytes, 0, nameLength);
+            String name = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+            // The first one wins like java.util.zip
+            map.putIfAbsent(name, new Entry(name, method, compressedSize, size, localHeaderOffset));
+            pos += CEN_SIZE + nameLength + extraLength + commentLength;
+        }
+        return map;
+    }
+
+    int findEndOfCentralDirectory() throws IOException {
+        int limit = this.buffer.limit();
+        // Comment is at most 65535 bytes
+        int min = Math.max(0, limit - EOCD_SIZE - 0xffff);
+        for (int pos = limit - EOCD_SIZE; pos >= min; pos--) {
+            if (this.buffer.getInt(pos) == EOCD_SIGNATURE) {
+                return pos;
+            }
+        }
+        throw new ZipException("End of central directory not found: " + this.displayName);
+    }
+
+    int getDataOffset(Entry entry) throws IOException {
+        int pos = toInt(entry.localHeaderOffset());
+        if (this.buffer.getInt(pos) != LOC_SIGNATURE) {
+            throw new ZipException("Invalid local header of entry " + entry.name() + " in " + this.displayName);
+        }
+        // Extra of local header may be different from central directory
+        return pos + LOC_SIZE + Short.toUnsignedInt(this.buffer.getShort(pos + 26))
+                + Short.toUnsignedInt(this.buffer.getShort(pos + 28));
+    }
+
+    byte[] inflate(Entry entry, ByteBuffer raw) throws IOException {
+        byte[] bytes = new byte[toInt(entry.size())];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(raw);
+            int n = 0;
+            while (n < bytes.length && !inflater.finished()) {
+                int r = inflater.inflate(bytes, n, bytes.length - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += r;
+            }
+            if (n != bytes.length) {
+                throw new ZipException("Truncated entry " + entry.name() + " in " + this.displayName);
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid data of entry " + entry.name() + " in " + this.displayName + ": "
+                    + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static int toInt(long value) throws ZipException {
+        if (value > Integer.MAX_VALUE) {
+            throw new ZipException("Entry is too large: " + value);
+        }
+        return (int) value;
+    }
+
+    @Override
+    public String toString() {
+        return "ZipArchive(" + this.displayName + ", " + this.entries.size() + " entries)";
+    }
+}
@@ -0,0 +1,34 @@
+package com.kaiyikang.winter.boot.loader.nested;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+/**
+ * URLStreamHandler of "nested:" URL, which is found by the JDK when
+ * "com.kaiyikang.winter.boot.loader" is in system property
+ * "java.protocol.handler.pkgs".
+ */
+public class Handler extends URLStreamHandler {
+
+    public static final String HANDLER_PACKAGE = "com.kaiyikang.winter.boot.loader";
+
+    /**
+     * Register the protocol for URLs created from string, e.g. by
+     * URI.toURL().
+     */
+    public static void register() {
+        String pkgs = System.getProperty("java.protocol.handler.pkgs");
+        if (pkgs == null || pkgs.isEmpty()) {
+            System.setProperty("java.protocol.handler.pkgs", HANDLER_PACKAGE);
+        } else if (!("|" + pkgs + "|").contains("|" + HANDLER_PACKAGE + "|")) {
+            System.setProperty("java.protocol.handler.pkgs", pkgs + "|" + HANDLER_PACKAGE);
+        }
+    }
+
+    @Override
+    protected URLConnection openConnection(URL url) throws IOException {
+        return new NestedURLConnection(url);
+    }
+}
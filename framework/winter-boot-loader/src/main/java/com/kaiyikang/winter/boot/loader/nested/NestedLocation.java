@@ -0,0 +1,82 @@
+package com.kaiyikang.winter.boot.loader.nested;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * Location of a "nested:" URL, like:
+ * 
+ * nested:/path/to/app.war!/WEB-INF/classes/logback.xml
+ * 
+ * nested:/path/to/app.war!/WEB-INF/lib/foo.jar!/com/example/Foo.class
+ *
+ * @param file      The outer archive.
+ * @param nestedJar Entry name of the nested jar in the outer archive, or null.
+ * @param entryName Entry name in the nested jar or the outer archive, ends with
+ *                  "/" or is empty for a directory.
+ */
+public record NestedLocation(Path file, String nestedJar, String entryName) {
+
+    public static final String PROTOCOL = "nested";
+    public static final String SEPARATOR = "!/";
+
+    static final Handler HANDLER = new Handler();
+
+    public static NestedLocation parse(URL url) throws IOException {
+        if (!PROTOCOL.equals(url.getProtocol())) {
+            throw new MalformedURLException("Not a nested URL: " + url);
+        }
+        String spec;
+        try {
+            spec = url.toURI().getSchemeSpecificPart();
+        } catch (URISyntaxException e) {
+            throw new MalformedURLException("Invalid nested URL: " + url);
+        }
+        int first = spec.indexOf(SEPARATOR);
+        if (first < 0) {
+            throw new MalformedURLException("Invalid nested URL: " + url);
+        }
+        Path file = Path.of(spec.substring(0, first));
+        String rest = spec.substring(first + SEPARATOR.length());
+        int second = rest.indexOf(SEPARATOR);
+        if (second < 0) {
+            return new NestedLocation(file, null, rest);
+        }
+        return new NestedLocation(file, rest.substring(0, second), rest.substring(second + SEPARATOR.length()));
+    }
+
+    public boolean isDirectory() {
+        return entryName.isEmpty() || entryName.endsWith("/");
+    }
+
+    /**
+     * Create the URL with the handler, so it works without registering the
+     * protocol.
+     */
+    public URL toUrl() {
+        StringBuilder sb = new StringBuilder(file.toAbsolutePath().toString().replace('\\', '/'));
+        if (sb.charAt(0) != '/') {
+            sb.insert(0, '/');
+        }
+        sb.append(SEPARATOR);
+        if (nestedJar != null) {
+            sb.append(nestedJar).append(SEPARATOR);
+        }
+        sb.append(entryName);
+        try {
+            // Illegal characters are quoted
+            return URL.of(new URI(PROTOCOL, sb.toString(), null), HANDLER);
+        } catch (URISyntaxException | MalformedURLException e) {
+            throw new IllegalArgumentException("Cannot create nested URL of " + sb, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toUrl().toString();
+    }
+}
@@ -0,0 +1,142 @@
+package com.kaiyikang.winter.boot.loader.nested;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.kaiyikang.winter.boot.loader.ZipArchive;
+
+/**
+ * Connection of a "nested:" URL. Stream of a file entry is read from the
+ * memory-mapped archive. Stream of a directory lists paths of all files under
+ * it, relative to the directory, one per line, like:
+ * 
+ * Foo.class
+ * 
+ * sub/Bar.class
+ */
+class NestedURLConnection extends URLConnection {
+
+    NestedLocation location;
+    ZipArchive archive;
+    // Null for directory
+    ZipArchive.Entry entry;
+
+    NestedURLConnection(URL url) {
+        super(url);
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (this.connected) {
+            return;
+        }
+        NestedLocation location = NestedLocation.parse(this.url);
+        ZipArchive archive = ZipArchive.open(location.file());
+        if (location.nestedJar() != null) {
+            archive = archive.getNestedArchive(location.nestedJar());
+        }
+        ZipArchive.Entry entry = null;
+        if (!location.isDirectory()) {
+            entry = archive.getEntry(location.entryName());
+            if (entry == null) {
+                throw new FileNotFoundException(this.url.toString());
+            }
+        }
+        this.location = location;
+        this.archive = archive;
+        this.entry = entry;
+        this.connected = true;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        connect();
+        if (this.entry != null) {
+            return new ByteBufferInputStream(this.archive.getData(this.entry));
+        }
+        return new ByteArrayInputStream(listDirectory().getBytes(StandardCharsets.UTF_8));
+    }
+
+    String listDirectory() {
+        String prefix = this.location.entryName();
+        StringBuilder sb = new StringBuilder();
+        for (ZipArchive.Entry e : this.archive.getEntries()) {
+            if (!e.isDirectory() && e.name().startsWith(prefix)) {
+                sb.append(e.name(), prefix.length(), e.name().length()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        try {
+            connect();
+            return this.entry == null ? -1 : this.entry.size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        String type = guessContentTypeFromName(this.url.getPath());
+        return type != null ? type : "content/unknown";
+    }
+
+    @Override
+    public long getLastModified() {
+        try {
+            // Entries are not modified without the archive
+            return Files.getLastModifiedTime(NestedLocation.parse(this.url).file()).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    static class ByteBufferInputStream extends InputStream {
+
+        final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? Byte.toUnsignedInt(this.buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int n = Math.min(len, this.buffer.remaining());
+            if (n == 0) {
+                return -1;
+            }
+            this.buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+            this.buffer.position(this.buffer.position() + k);
+            return k;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.kaiyikang.loader;
+
+import java.util.function.Function;
+
+public class Greeter implements Function<String, String> {
+
+    @Override
+    public String apply(String name) {
+        return "Hello, " + name + "!";
+    }
+}
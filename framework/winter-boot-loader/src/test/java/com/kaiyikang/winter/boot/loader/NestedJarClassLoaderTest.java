@@ -0,0 +1,167 @@
+package com.kaiyikang.winter.boot.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.kaiyikang.winter.boot.loader.nested.NestedLocation;
+
+public class NestedJarClassLoaderTest {
+
+    static final String GREETER = "com.kaiyikang.loader.Greeter";
+
+    @TempDir
+    Path tempDir;
+
+    Path war;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        byte[] greeterClass;
+        try (InputStream input = getClass().getResourceAsStream("/com/kaiyikang/loader/Greeter.class")) {
+            greeterClass = input.readAllBytes();
+        }
+        byte[] greeterJar = zip(Map.of("com/kaiyikang/loader/Greeter.class", greeterClass,
+                "META-INF/greeting.txt", bytes("from greeter")), Set.of());
+        byte[] dataJar = zip(Map.of("data/a.txt", bytes("a in jar"), "META-INF/greeting.txt", bytes("from data")),
+                Set.of());
+        this.war = tempDir.resolve("app.war");
+        Files.write(this.war, zip(Map.of(
+                "index.html", bytes("<html></html>"),
+                "WEB-INF/classes/data/a.txt", bytes("a in classes"),
+                "WEB-INF/classes/data/sub/b.txt", bytes("b in classes"),
+                // stored jar is read from the mapped war, deflated one is inflated
+                "WEB-INF/lib/greeter.jar", greeterJar,
+                "WEB-INF/lib/data.jar", dataJar), Set.of("WEB-INF/lib/greeter.jar")));
+    }
+
+    @Test
+    void loadClassFromNestedJar() throws Exception {
+        NestedJarClassLoader loader = NestedJarClassLoader.forWar(war, ClassLoader.getPlatformClassLoader());
+        Class<?> clazz = loader.loadClass(GREETER);
+        assertSame(loader, clazz.getClassLoader());
+        assertSame(clazz, loader.loadClass(GREETER));
+        assertNotNull(clazz.getPackage());
+        assertTrue(clazz.getProtectionDomain().getCodeSource().getLocation().toString()
+                .endsWith("app.war!/WEB-INF/lib/greeter.jar!/"));
+
+        @SuppressWarnings("unchecked")
+        Function<String, String> greeter = (Function<String, String>) clazz.getConstructor().newInstance();
+        assertEquals("Hello, Bob!", greeter.apply("Bob"));
+        assertThrows(ClassNotFoundException.class, () -> loader.loadClass("com.kaiyikang.loader.NotExist"));
+    }
+
+    @Test
+    void loadClassConcurrently() throws Exception {
+        NestedJarClassLoader loader = NestedJarClassLoader.forWar(war, ClassLoader.getPlatformClassLoader());
+        List<Callable<Class<?>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            tasks.add(() -> loader.loadClass(GREETER));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Set<Class<?>> classes = new HashSet<>();
+            for (Future<Class<?>> future : executor.invokeAll(tasks)) {
+                classes.add(future.get());
+            }
+            assertEquals(1, classes.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void getResources() throws Exception {
+        NestedJarClassLoader loader = NestedJarClassLoader.forWar(war, ClassLoader.getPlatformClassLoader());
+        // classes first
+        assertEquals("a in classes", read(loader.getResource("data/a.txt")));
+        assertEquals("a in classes", new String(loader.getResourceAsStream("data/a.txt").readAllBytes(),
+                StandardCharsets.UTF_8));
+        assertEquals("b in classes", read(loader.getResource("data/sub/b.txt")));
+        assertNull(loader.getResource("index.html"));
+        assertNull(loader.getResource("data/c.txt"));
+
+        // jars in order of name
+        List<URL> greetings = Collections.list(loader.getResources("META-INF/greeting.txt"));
+        assertEquals(2, greetings.size());
+        assertEquals("from data", read(greetings.get(0)));
+        assertEquals("from greeter", read(greetings.get(1)));
+
+        // directory lists files under it
+        List<URL> dirs = Collections.list(loader.getResources("data"));
+        assertEquals(2, dirs.size());
+        assertEquals("a.txt\nsub/b.txt\n", read(dirs.get(0)));
+        assertEquals("a.txt\n", read(dirs.get(1)));
+    }
+
+    @Test
+    void parseLocation() throws Exception {
+        NestedLocation location = new NestedLocation(tempDir.resolve("my app.war"), "WEB-INF/lib/a b.jar",
+                "com/example/Foo.class");
+        URL url = location.toUrl();
+        assertTrue(url.toString().startsWith("nested:/"));
+        assertEquals(location.file().toAbsolutePath(), NestedLocation.parse(url).file());
+        assertEquals(location, NestedLocation.parse(url));
+    }
+
+    static String read(URL url) throws IOException {
+        try (InputStream input = url.openStream()) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] zip(Map<String, byte[]> entries, Set<String> storedEntries) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            for (String name : entries.keySet().stream().sorted().toList()) {
+                byte[] data = entries.get(name);
+                ZipEntry entry = new ZipEntry(name);
+                if (storedEntries.contains(name)) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(data.length);
+                    entry.setCompressedSize(data.length);
+                    entry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(entry);
+                zip.write(data);
+                zip.closeEntry();
+            }
+        }
+        return output.toByteArray();
+    }
+}
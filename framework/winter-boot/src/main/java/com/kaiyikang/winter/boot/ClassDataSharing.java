@@ -0,0 +1,104 @@
+package com.kaiyikang.winter.boot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.VMOption;
+
+/**
+ * Training run for Application Class Data Sharing (AppCDS).
+ *
+ * A training run is started by system property "winter.cds.training=true"
+ * with a JVM option to dump a dynamic archive at exit:
+ *
+ * java -XX:ArchiveClassesAtExit=app.jsa -Dwinter.cds.training=true -jar app.war
+ *
+ * It starts the application, sends GET requests of "winter.cds.warmup-urls"
+ * (comma separated paths like "/,/api/users") to load the classes used by
+ * requests, then stops the server and exits, so all loaded framework, Tomcat
+ * and application classes are dumped. Later starts use the archive by:
+ *
+ * java -XX:SharedArchiveFile=app.jsa -jar app.war
+ *
+ * Or both by "-XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=app.jsa",
+ * which dumps the archive if it is missing or out of date.
+ */
+public class ClassDataSharing {
+
+    public static final String TRAINING = "winter.cds.training";
+
+    static final Logger logger = LoggerFactory.getLogger(ClassDataSharing.class);
+
+    public static boolean isTraining() {
+        return Boolean.getBoolean(TRAINING);
+    }
+
+    /**
+     * Get the archive to dump at exit, or null if not set.
+     */
+    public static String getArchiveAtExit() {
+        String archive = getVMOption("ArchiveClassesAtExit");
+        if (archive == null && "true".equals(getVMOption("AutoCreateSharedArchive"))) {
+            archive = getVMOption("SharedArchiveFile");
+        }
+        return archive;
+    }
+
+    /**
+     * Get the archive mapped by the JVM, or null if CDS is not used or only the
+     * default archive of JDK is used.
+     */
+    public static String getSharedArchive() {
+        String archive = getVMOption("SharedArchiveFile");
+        if (archive == null || !System.getProperty("java.vm.info", "").contains("sharing")) {
+            return null;
+        }
+        return archive;
+    }
+
+    static String getVMOption(String name) {
+        try {
+            VMOption option = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name);
+            String value = option.getValue();
+            return value == null || value.isEmpty() ? null : value;
+        } catch (RuntimeException e) {
+            // Not a HotSpot JVM, or option not exist
+            return null;
+        }
+    }
+
+    /**
+     * Send warmup requests to the started server. A failed request is logged
+     * and skipped, since classes are loaded anyway.
+     */
+    public void warmup(int port, List<String> paths) {
+        for (String path : paths) {
+            String url = "http://localhost:" + port + (path.startsWith("/") ? path : "/" + path);
+            try {
+                HttpURLConnection conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
+                conn.setConnectTimeout(5000);
+                conn.setReadTimeout(30000);
+                int status = conn.getResponseCode();
+                InputStream input = status < 400 ? conn.getInputStream() : conn.getErrorStream();
+                if (input != null) {
+                    try (input) {
+                        input.transferTo(OutputStream.nullOutputStream());
+                    }
+                }
+                conn.disconnect();
+                logger.info("warmup request {}: {}", url, status);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("warmup request {} failed: {}", url, e.toString());
+            }
+        }
+    }
+}
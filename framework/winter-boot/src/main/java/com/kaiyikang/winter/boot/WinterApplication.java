@@ -3,14 +3,19 @@ package com.kaiyikang.winter.boot;
 import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.catalina.Context;
 import org.apache.catalina.Server;
 import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.core.StandardContext;
+import org.apache.catalina.loader.WebappLoader;
 import org.apache.catalina.startup.Tomcat;
 import org.apache.catalina.webresources.DirResourceSet;
 import org.apache.catalina.webresources.StandardRoot;
+import org.apache.tomcat.util.scan.StandardJarScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,9 +32,9 @@ public class WinterApplication {
     final Logger logger = LoggerFactory.getLogger(getClass());
 
     public static void run(String webDir, String baseDir, Class<?> configClass, String... args) throws Exception {
-        // webDir - 静态文件根目录，使用ide开发在src/main/webapp，使用jar在tmp-webpp中
+        // webDir - 静态文件根目录，使用ide开发在src/main/webapp，使用war时是war文件本身
         // baseDir - java文件路径:
-        // ide开发在target/classes中，只用jar在tmp-webapp/WEB-INF/classes对应的是baseDir路径
+        // ide开发在target/classes中，使用war时与webDir相同
         new WinterApplication().start(webDir, baseDir, configClass, args);
     }
 
@@ -44,9 +49,14 @@ public class WinterApplication {
         final String pwd = Paths.get("").toAbsolutePath().toString();
         logger.info("Starting {} using Java {} with PID {} (started by {} in {})", configClass.getSimpleName(),
                 javaVersion, pid, user, pwd);
+        String sharedArchive = ClassDataSharing.getSharedArchive();
+        if (sharedArchive != null) {
+            logger.info("Using CDS archive {}", sharedArchive);
+        }
 
         // Start the server
         var propertyResolver = WebUtils.createPropertyResolver();
+        var propertyReloader = WebUtils.createPropertyReloader(propertyResolver);
         var server = startTomcat(webDir, baseDir, configClass, propertyResolver);
 
         // Print start info
@@ -55,7 +65,38 @@ public class WinterApplication {
         final String jvmTime = String.format("%.3f", ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
         logger.info("Started {} in {} seconds (process running for {})", configClass.getSimpleName(), appTime, jvmTime);
 
+        if (ClassDataSharing.isTraining()) {
+            train(server, propertyResolver);
+            if (propertyReloader != null) {
+                propertyReloader.close();
+            }
+            // Exit even if a non-daemon thread is left, so the archive is dumped
+            System.exit(0);
+        }
+
         server.await();
+        if (propertyReloader != null) {
+            propertyReloader.close();
+        }
+    }
+
+    /**
+     * Training run of AppCDS: send warmup requests then stop the server.
+     */
+    protected void train(Server server, PropertyResolver propertyResolver) throws Exception {
+        String archive = ClassDataSharing.getArchiveAtExit();
+        if (archive == null) {
+            logger.warn("CDS training run without archive to dump, start JVM with -XX:ArchiveClassesAtExit=app.jsa");
+        } else {
+            logger.info("CDS training run, archive will be dumped to {} at exit.", archive);
+        }
+        int port = propertyResolver.getProperty("${server.port:8080}", int.class);
+        String urls = propertyResolver.getProperty("winter.cds.warmup-urls", "");
+        List<String> paths = Arrays.stream(urls.split(",")).map(String::strip).filter(s -> !s.isEmpty()).toList();
+        new ClassDataSharing().warmup(port, paths);
+        server.stop();
+        server.destroy();
+        logger.info("CDS training run finished.");
     }
 
     protected Server startTomcat(String webDir, String baseDir, Class<?> configClass, PropertyResolver propertyResolver)
@@ -68,7 +109,20 @@ public class WinterApplication {
         Context ctx = tomcat.addWebapp("", new File(webDir).getAbsolutePath());
         ctx.setParentClassLoader(Thread.currentThread().getContextClassLoader());
 
-        if (!new File(webDir).getAbsolutePath().equals(new File(baseDir).getAbsolutePath())) {
+        if (new File(webDir).isFile()) {
+            // if WAR: serve static files and templates from the war without extracting it
+            ((StandardContext) ctx).setUnpackWAR(false);
+            // Classes are loaded by the parent (nested jar class loader) first, so Tomcat does
+            // not read nested jars of WEB-INF/lib again
+            WebappLoader loader = new WebappLoader();
+            loader.setDelegate(true);
+            ctx.setLoader(loader);
+            // No TLD or web-fragment to scan
+            StandardJarScanner jarScanner = new StandardJarScanner();
+            jarScanner.setScanManifest(false);
+            jarScanner.setJarScanFilter((jarScanType, jarName) -> false);
+            ctx.setJarScanner(jarScanner);
+        } else if (!new File(webDir).getAbsolutePath().equals(new File(baseDir).getAbsolutePath())) {
             // if IDE
             WebResourceRoot resources = new StandardRoot(ctx);
             // not /WEB-INF/classes, but baseDir = target/classes
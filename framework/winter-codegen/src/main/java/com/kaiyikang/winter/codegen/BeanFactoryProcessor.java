@@ -0,0 +1,435 @@
+package com.kaiyikang.winter.codegen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import com.kaiyikang.winter.context.GeneratedBeanFactory;
+
+/**
+ * Annotation processor which generates a GeneratedBeanFactory for each
+ * component class, so the context creates and injects the bean without
+ * reflection.
+ *
+ * The generated factory lives in the same package as the component, so it can
+ * only access non-private members declared in that package or public members.
+ * A private injection point is set by a VarHandle (field) or MethodHandle
+ * (setter) from a private lookup, created once by the factory, and all other
+ * members are called directly. A class with any other inaccessible
+ * constructor, @Bean method or injection point is skipped and still handled
+ * by reflection.
+ */
+@SupportedAnnotationTypes("*")
+public class BeanFactoryProcessor extends AbstractProcessor {
+
+    static final String COMPONENT_ANNOTATION = "com.kaiyikang.winter.annotation.Component";
+    static final String BEAN_ANNOTATION = "com.kaiyikang.winter.annotation.Bean";
+    static final String AUTOWIRED_ANNOTATION = "com.kaiyikang.winter.annotation.Autowired";
+    static final String VALUE_ANNOTATION = "com.kaiyikang.winter.annotation.Value";
+
+    // Static final handle of a private member in the factory
+    record Handle(String type, String name, String initializer) {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        // Never claim the annotations, other processors may need them
+        return false;
+    }
+
+    void collect(Element element) {
+        if (!(element instanceof TypeElement type)) {
+            return;
+        }
+        if (type.getKind() == ElementKind.CLASS && isComponent(type, new HashSet<>())) {
+            String source = generate(type);
+            if (source != null) {
+                write(type, source);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Skip generating bean factory for " + type.getQualifiedName());
+            }
+        }
+        // Nested classes are not root elements
+        for (Element enclosed : type.getEnclosedElements()) {
+            collect(enclosed);
+        }
+    }
+
+    boolean isComponent(Element element, Set<String> visited) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String annoName = annoType.getQualifiedName().toString();
+            if (annoName.equals(COMPONENT_ANNOTATION)) {
+                return true;
+            }
+            if (annoName.startsWith("java.lang.annotation.")) {
+                continue;
+            }
+            // Search meta-annotations, e.g. @Configuration -> @Component
+            if (visited.add(annoName) && isComponent(annoType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generate source of factory, return null if the class cannot be handled.
+     */
+    String generate(TypeElement type) {
+        String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !isAccessibleType(type, pkg)) {
+            return null;
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            return null;
+        }
+        String typeName = type.getQualifiedName().toString();
+
+        // --- Same constructor as AnnotationConfigApplicationContext.getSuitableConstructor ---
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        List<ExecutableElement> publicConstructors = constructors.stream()
+                .filter(c -> c.getModifiers().contains(Modifier.PUBLIC)).toList();
+        ExecutableElement constructor;
+        if (publicConstructors.size() == 1) {
+            constructor = publicConstructors.get(0);
+        } else if (publicConstructors.isEmpty() && constructors.size() == 1) {
+            constructor = constructors.get(0);
+        } else {
+            return null;
+        }
+        if (!isAccessible(constructor, pkg) || !isAccessibleParameters(constructor, pkg)) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            sb.append("package ").append(pkg).append(";\n\n");
+        }
+        sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        sb.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        sb.append("public final class ").append(getFactorySimpleName(type, pkg)).append(" implements ")
+                .append(GeneratedBeanFactory.class.getCanonicalName()).append(" {\n\n");
+
+        // --- newInstance ---
+        sb.append("    @Override\n");
+        sb.append("    public Object newInstance(Object[] args) throws Exception {\n");
+        sb.append("        return new ").append(typeName).append("(").append(arguments(constructor))
+                .append(");\n");
+        sb.append("    }\n\n");
+
+        // --- invokeFactoryMethod ---
+        sb.append("    @Override\n");
+        sb.append("    public Object invokeFactoryMethod(Object configuration, String methodName, Object[] args)"
+                + " throws Exception {\n");
+        Set<String> beanMethodNames = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (getAnnotation(method, BEAN_ANNOTATION) == null) {
+                continue;
+            }
+            // Method is called by name, so overloaded @Bean methods are not supported
+            if (!beanMethodNames.add(method.getSimpleName().toString()) || !isAccessible(method, pkg)
+                    || !isAccessibleParameters(method, pkg) || method.getModifiers().contains(Modifier.STATIC)) {
+                return null;
+            }
+            sb.append("        if (methodName.equals(\"").append(method.getSimpleName()).append("\")) {\n");
+            sb.append("            return ((").append(typeName).append(") configuration).")
+                    .append(method.getSimpleName()).append("(").append(arguments(method)).append(");\n");
+            sb.append("        }\n");
+        }
+        sb.append("        throw new IllegalArgumentException(\"No @Bean method \" + methodName + \" in ")
+                .append(typeName).append(".\");\n");
+        sb.append("    }\n\n");
+
+        // --- inject ---
+        sb.append("    @Override\n");
+        sb.append("    public void inject(Object bean, InjectionResolver resolver) throws Exception {\n");
+        sb.append("        ").append(typeName).append(" target = (").append(typeName).append(") bean;\n");
+        sb.append("        Object value;\n");
+        // Handles of private members, initialized by the static block
+        List<Handle> handles = new ArrayList<>();
+        // Fields then methods, from the class to its superclasses
+        for (TypeElement clazz = type; clazz != null; clazz = getSuperclass(clazz)) {
+            List<Element> members = new ArrayList<>();
+            members.addAll(ElementFilter.fieldsIn(clazz.getEnclosedElements()));
+            members.addAll(ElementFilter.methodsIn(clazz.getEnclosedElements()));
+            for (Element member : members) {
+                if (!appendInjection(sb, type, clazz, member, pkg, handles)) {
+                    return null;
+                }
+            }
+        }
+        sb.append("    }\n");
+        appendHandles(sb, handles);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Append injection code of field or setter, return false if it cannot be
+     * injected by generated code.
+     */
+    boolean appendInjection(StringBuilder sb, TypeElement beanType, TypeElement clazz, Element member, String pkg,
+            List<Handle> handles) {
+        AnnotationMirror value = getAnnotation(member, VALUE_ANNOTATION);
+        AnnotationMirror autowired = getAnnotation(member, AUTOWIRED_ANNOTATION);
+        if (value == null && autowired == null) {
+            return true;
+        }
+        boolean isPrivate = member.getModifiers().contains(Modifier.PRIVATE);
+        if ((value != null && autowired != null) || member.getModifiers().contains(Modifier.STATIC)
+                || !(isPrivate || isAccessible(member, pkg))) {
+            return false;
+        }
+
+        // Cast to the superclass in case the field is hidden by subclass
+        String targetRef = "target";
+        if (clazz != beanType) {
+            if (!isAccessibleType(clazz, pkg)) {
+                return false;
+            }
+            targetRef = "((" + clazz.getQualifiedName() + ") target)";
+        }
+
+        TypeMirror type;
+        String assignment;
+        String castType;
+        String handle = "HANDLE_" + handles.size();
+        if (member instanceof VariableElement field) {
+            if (field.getModifiers().contains(Modifier.FINAL)) {
+                return false;
+            }
+            type = field.asType();
+            castType = getTypeName(type);
+            if (isPrivate) {
+                assignment = handle + ".set(" + targetRef + ", (" + castType + ") value);";
+                handles.add(new Handle("java.lang.invoke.VarHandle", handle,
+                        "java.lang.invoke.MethodHandles.privateLookupIn(" + clazz.getQualifiedName()
+                                + ".class, java.lang.invoke.MethodHandles.lookup()).findVarHandle("
+                                + clazz.getQualifiedName() + ".class, " + literal(field.getSimpleName().toString())
+                                + ", " + castType + ".class)"));
+            } else {
+                assignment = targetRef + "." + field.getSimpleName() + " = (" + castType + ") value;";
+            }
+        } else {
+            ExecutableElement method = (ExecutableElement) member;
+            if (method.getParameters().size() != 1) {
+                return false;
+            }
+            type = method.getParameters().get(0).asType();
+            castType = getTypeName(type);
+            if (isPrivate) {
+                TypeMirror returnType = method.getReturnType();
+                if (returnType.getKind() != TypeKind.VOID && !isAccessibleType(returnType, pkg)) {
+                    return false;
+                }
+                // inject() throws Exception only
+                assignment = "try {\n                " + handle + ".invoke(" + targetRef + ", (" + castType
+                        + ") value);\n            } catch (Exception | Error e) {\n                throw e;\n"
+                        + "            } catch (Throwable t) {\n"
+                        + "                throw new java.lang.reflect.UndeclaredThrowableException(t);\n"
+                        + "            }";
+                handles.add(new Handle("java.lang.invoke.MethodHandle", handle,
+                        "java.lang.invoke.MethodHandles.privateLookupIn(" + clazz.getQualifiedName()
+                                + ".class, java.lang.invoke.MethodHandles.lookup()).findVirtual("
+                                + clazz.getQualifiedName() + ".class, " + literal(method.getSimpleName().toString())
+                                + ", java.lang.invoke.MethodType.methodType(" + getTypeName(returnType) + ".class, "
+                                + castType + ".class))"));
+            } else {
+                assignment = targetRef + "." + method.getSimpleName() + "((" + castType + ") value);";
+            }
+        }
+        if (!isAccessibleType(type, pkg)) {
+            return false;
+        }
+
+        String propertyExpr = value == null ? "null" : literal((String) getValue(value, "value"));
+        String autowiredName = autowired == null ? "null" : literal((String) getValue(autowired, "name"));
+        boolean required = autowired != null && (Boolean) getValue(autowired, "value");
+        String target = clazz.getQualifiedName() + "." + member.getSimpleName();
+
+        sb.append("        value = resolver.resolve(").append(castType).append(".class, ").append(propertyExpr)
+                .append(", ").append(autowiredName).append(", ").append(required).append(", ")
+                .append(literal(target)).append(");\n");
+        sb.append("        if (value != null) {\n");
+        sb.append("            ").append(assignment).append("\n");
+        sb.append("        }\n");
+        return true;
+    }
+
+    /**
+     * Append static final handles of private members and their initializer.
+     */
+    void appendHandles(StringBuilder sb, List<Handle> handles) {
+        if (handles.isEmpty()) {
+            return;
+        }
+        sb.append("\n");
+        for (Handle handle : handles) {
+            sb.append("    static final ").append(handle.type()).append(" ").append(handle.name()).append(";\n");
+        }
+        sb.append("\n    static {\n");
+        sb.append("        try {\n");
+        for (Handle handle : handles) {
+            sb.append("            ").append(handle.name()).append(" = ").append(handle.initializer())
+                    .append(";\n");
+        }
+        sb.append("        } catch (ReflectiveOperationException e) {\n");
+        sb.append("            throw new ExceptionInInitializerError(e);\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+    }
+
+    void write(TypeElement type, String source) {
+        String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String name = (pkg.isEmpty() ? "" : pkg + ".") + getFactorySimpleName(type, pkg);
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(name, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + name + ": " + e);
+        }
+    }
+
+    // Helpers
+    // -------
+
+    // Binary name without package, e.g. OuterBean$NestedBean$$WinterFactory
+    String getFactorySimpleName(TypeElement type, String pkg) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return (pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1))
+                + GeneratedBeanFactory.CLASS_NAME_SUFFIX;
+    }
+
+    TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    String arguments(ExecutableElement executable) {
+        List<String> args = new ArrayList<>();
+        List<? extends VariableElement> params = executable.getParameters();
+        for (int i = 0; i < params.size(); i++) {
+            args.add("(" + getTypeName(params.get(i).asType()) + ") args[" + i + "]");
+        }
+        return String.join(", ", args);
+    }
+
+    // Erased type name in source, e.g. java.util.List, int, java.lang.String[]
+    String getTypeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    boolean isAccessibleParameters(ExecutableElement executable, String pkg) {
+        return executable.getParameters().stream().allMatch(p -> isAccessibleType(p.asType(), pkg));
+    }
+
+    boolean isAccessibleType(TypeMirror type, String pkg) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased instanceof ArrayType arrayType) {
+            return isAccessibleType(arrayType.getComponentType(), pkg);
+        }
+        if (erased instanceof DeclaredType declaredType) {
+            return isAccessibleType((TypeElement) declaredType.asElement(), pkg);
+        }
+        return erased.getKind().isPrimitive();
+    }
+
+    // The type and all enclosing types are accessible from the package
+    boolean isAccessibleType(TypeElement type, String pkg) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (!isAccessible(e, pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Public, or non-private and declared in the same package
+    boolean isAccessible(Element element, String pkg) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().contentEquals(pkg);
+    }
+
+    AnnotationMirror getAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    Object getValue(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils()
+                .getElementValuesWithDefaults(mirror);
+        for (var entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    static String literal(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.kaiyikang.codegen;
+
+import com.kaiyikang.winter.annotation.Value;
+
+public abstract class BaseGreeting {
+
+    @Value("${app.version}")
+    public String version;
+}
@@ -0,0 +1,26 @@
+package com.kaiyikang.codegen;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Bean;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.annotation.Value;
+
+@Configuration
+public class ClockConfiguration {
+
+    public Class<?> clockCreatedBy;
+
+    @Bean
+    ZoneId zoneId(@Value("${app.zone}") String zone) {
+        return ZoneId.of(zone);
+    }
+
+    @Bean
+    Clock clock(@Autowired ZoneId zoneId) {
+        this.clockCreatedBy = GreetingService.WALKER.getCallerClass();
+        return Clock.system(zoneId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.kaiyikang.codegen;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class CodegenApplication {
+
+}
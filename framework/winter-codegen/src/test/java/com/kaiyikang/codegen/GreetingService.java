@@ -0,0 +1,36 @@
+package com.kaiyikang.codegen;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Value;
+
+@Component
+public class GreetingService extends BaseGreeting {
+
+    static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    @Value("${app.title}")
+    public String title;
+
+    @Autowired
+    public ZoneId zoneId;
+
+    public Clock clock;
+
+    // Caller of the constructor and setter
+    public final Class<?> createdBy;
+    public Class<?> injectedBy;
+
+    public GreetingService() {
+        this.createdBy = WALKER.getCallerClass();
+    }
+
+    @Autowired
+    void setClock(Clock clock) {
+        this.clock = clock;
+        this.injectedBy = WALKER.getCallerClass();
+    }
+}
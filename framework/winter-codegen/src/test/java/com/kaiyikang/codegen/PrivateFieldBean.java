@@ -0,0 +1,32 @@
+package com.kaiyikang.codegen;
+
+import java.time.ZoneId;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Value;
+
+/**
+ * Private field and setter are injected by handles of generated code.
+ */
+@Component
+public class PrivateFieldBean {
+
+    @Autowired
+    private ZoneId zoneId;
+
+    private String title;
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    @Value("${app.title}")
+    private void setTitle(String title) {
+        this.title = title;
+    }
+}
@@ -0,0 +1,76 @@
+package com.kaiyikang.winter.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.ZoneId;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.codegen.ClockConfiguration;
+import com.kaiyikang.codegen.CodegenApplication;
+import com.kaiyikang.codegen.GreetingService;
+import com.kaiyikang.codegen.PrivateFieldBean;
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.context.GeneratedBeanFactory;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class BeanFactoryProcessorTest {
+
+    @Test
+    public void generatedFactories() throws Exception {
+        Class<?> factoryClass = Class.forName(GreetingService.class.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX);
+        var factory = (GeneratedBeanFactory) factoryClass.getConstructor().newInstance();
+        assertSame(factoryClass, ((GreetingService) factory.newInstance(new Object[0])).createdBy);
+
+        // Private injection point is set by handle
+        Class.forName(PrivateFieldBean.class.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX);
+    }
+
+    @Test
+    public void createBeansByGeneratedFactory() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(CodegenApplication.class, createPropertyResolver(false))) {
+            GreetingService service = ctx.getBean(GreetingService.class);
+            Class<?> factoryClass = Class
+                    .forName(GreetingService.class.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX);
+            assertSame(factoryClass, service.createdBy);
+            assertSame(factoryClass, service.injectedBy);
+            assertSame(Class.forName(ClockConfiguration.class.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX),
+                    ctx.getBean(ClockConfiguration.class).clockCreatedBy);
+            assertInjected(ctx);
+        }
+    }
+
+    @Test
+    public void createBeansByReflection() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(CodegenApplication.class, createPropertyResolver(true))) {
+            GreetingService service = ctx.getBean(GreetingService.class);
+            Class<?> factoryClass = Class
+                    .forName(GreetingService.class.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX);
+            assertNotSame(factoryClass, service.createdBy);
+            assertNotSame(factoryClass, service.injectedBy);
+            assertInjected(ctx);
+        }
+    }
+
+    void assertInjected(AnnotationConfigApplicationContext ctx) {
+        GreetingService service = ctx.getBean(GreetingService.class);
+        assertEquals("Codegen App", service.title);
+        assertEquals("v1.0", service.version);
+        assertEquals(ZoneId.of("Asia/Shanghai"), service.zoneId);
+        assertEquals(ZoneId.of("Asia/Shanghai"), service.clock.getZone());
+        assertEquals(ZoneId.of("Asia/Shanghai"), ctx.getBean(PrivateFieldBean.class).getZoneId());
+        assertEquals("Codegen App", ctx.getBean(PrivateFieldBean.class).getTitle());
+    }
+
+    PropertyResolver createPropertyResolver(boolean ignoreCodegen) {
+        var ps = new Properties();
+        ps.put("app.title", "Codegen App");
+        ps.put("app.version", "v1.0");
+        ps.put("app.zone", "Asia/Shanghai");
+        ps.put("winter.codegen.ignore", String.valueOf(ignoreCodegen));
+        return new PropertyResolver(ps);
+    }
+}
@@ -0,0 +1,34 @@
+package com.kaiyikang.winter.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Method of a bean to receive published events of its parameter type. With
+ * batchSize > 1 the parameter is a List of events, and async must be true.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventListener {
+
+    /**
+     * Deliver events on a virtual thread through a bounded queue, instead of
+     * the publisher thread.
+     */
+    boolean async() default false;
+
+    /**
+     * Max number of events drained from the queue for one call.
+     */
+    int batchSize() default 1;
+
+    /**
+     * Capacity of the queue, the publisher is blocked when it is full.
+     */
+    int queueCapacity() default 1024;
+
+}
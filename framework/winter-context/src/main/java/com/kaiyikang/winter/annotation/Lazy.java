@@ -0,0 +1,20 @@
+package com.kaiyikang.winter.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Create the bean on first use instead of at startup. Use @Lazy(false) to keep
+ * the bean eager when "winter.context.lazy-init" is enabled.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+
+    boolean value() default true;
+
+}
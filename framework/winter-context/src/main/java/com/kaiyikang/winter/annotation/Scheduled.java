@@ -0,0 +1,37 @@
+package com.kaiyikang.winter.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run the no-arg method of a bean periodically. Exactly one of fixedRate,
+ * fixedDelay and cron must be set. Cron has 6 fields: second, minute, hour,
+ * day of month, month and day of week, and could be a placeholder like
+ * ${job.cron}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scheduled {
+
+    /**
+     * Period between the start times, an execution is skipped if the previous
+     * one is still running.
+     */
+    long fixedRate() default -1;
+
+    /**
+     * Delay between the end of an execution and the start of the next.
+     */
+    long fixedDelay() default -1;
+
+    String cron() default "";
+
+    long initialDelay() default 0;
+
+    TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+}
@@ -1,22 +1,39 @@
 package com.kaiyikang.winter.context;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,18 +44,25 @@ import com.kaiyikang.winter.annotation.Component;
 import com.kaiyikang.winter.annotation.ComponentScan;
 import com.kaiyikang.winter.annotation.Configuration;
 import com.kaiyikang.winter.annotation.Import;
+import com.kaiyikang.winter.annotation.Lazy;
 import com.kaiyikang.winter.annotation.Order;
 import com.kaiyikang.winter.annotation.Primary;
 import com.kaiyikang.winter.annotation.Value;
+import com.kaiyikang.winter.context.InjectionMetadata.InjectionPoint;
 import com.kaiyikang.winter.exception.BeanCreationException;
 import com.kaiyikang.winter.exception.BeanDefinitionException;
 import com.kaiyikang.winter.exception.BeanNotOfRequiredTypeException;
 import com.kaiyikang.winter.exception.NoSuchBeanDefinitionException;
-import com.kaiyikang.winter.exception.NoUniqueBeanDefinitionException;
 import com.kaiyikang.winter.exception.UnsatisfiedDependencyException;
+import com.kaiyikang.winter.index.ComponentIndex;
+import com.kaiyikang.winter.io.ClassMetadata;
+import com.kaiyikang.winter.io.ClassMetadataReader;
+import com.kaiyikang.winter.io.PropertyChangeListener;
 import com.kaiyikang.winter.io.PropertyResolver;
 import com.kaiyikang.winter.io.ResourceResolver;
+import com.kaiyikang.winter.scheduling.ScheduledTaskMetrics;
 import com.kaiyikang.winter.utils.ClassUtils;
+import com.kaiyikang.winter.utils.MergedAnnotations;
 
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PostConstruct;
@@ -52,29 +76,77 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
     private List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
     private Set<String> creatingBeanNames;
+    private boolean parallelRefresh;
+    private BeanTypeIndex typeIndex = BeanTypeIndex.EMPTY;
+    private boolean useGeneratedFactory;
+    private boolean lazyInit;
+    private List<LazyBeanProxyFactory> lazyProxyFactories = List.of();
+    // Lazy beans created, injected and initialized
+    private final Set<String> lazyInitializedBeanNames = ConcurrentHashMap.newKeySet();
+    // Lazy bean name -> creation on first use
+    private final Map<String, LazyCreation> lazyCreations = new ConcurrentHashMap<>();
+    // Thread -> lazy bean name it waits for, to detect deadlock
+    private final Map<Thread, String> lazyWaitingBeanNames = new ConcurrentHashMap<>();
+    private final List<PropertyChangeListener> propertyChangeListeners = new CopyOnWriteArrayList<>();
+    private final ApplicationStartup startup = new ApplicationStartup();
+    private ApplicationEventBus eventBus;
+    private ScheduledTaskRegistrar scheduledTaskRegistrar;
 
     public AnnotationConfigApplicationContext(Class<?> configClass, PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+        this.beans = new HashMap<>();
         ApplicationContextUtils.setApplicationContext(this);
+        // Beans created by refresh on this thread see this context
+        try (var binding = ApplicationContextUtils.bind(this)) {
+            refresh(configClass);
+        }
+    }
 
-        this.propertyResolver = propertyResolver;
+    private void refresh(Class<?> configClass) {
+        this.useGeneratedFactory = !getConfigProperty("winter.codegen.ignore", boolean.class, false);
+        this.lazyInit = getConfigProperty("winter.context.lazy-init", boolean.class, false);
 
         // Scan to obtain the Class type of all Beans
+        ApplicationStartup.StartupStep step = this.startup.start("scan");
         final Set<String> beanClassNames = scanForClassNames(configClass);
+        step.end();
 
         // Create Map for name:beanDef
-        this.beans = createBeanDefinitions(beanClassNames);
+        step = this.startup.start("definitions");
+        this.beans.putAll(createBeanDefinitions(beanClassNames));
+
+        // Definitions are frozen, index them by type and annotation
+        this.typeIndex = new BeanTypeIndex(this.beans.values());
+
+        // Find @EventListener methods of all beans
+        List<BeanDefinition> sortedDefs = this.beans.values().stream().sorted().toList();
+        this.eventBus = new ApplicationEventBus(sortedDefs, this::getBeanIfCreated, this::getBeanTargetIfCreated);
+
+        // Find @Scheduled methods of all beans
+        this.scheduledTaskRegistrar = new ScheduledTaskRegistrar(sortedDefs, this::getBeanIfCreated,
+                this::getBeanTargetIfCreated, this.propertyResolver);
+        step.end();
+
+        // Normal beans can be created concurrently if enabled
+        this.parallelRefresh = getConfigProperty("winter.context.refresh.parallel", boolean.class, false);
 
         // Create a set to detect the circular dependency
-        this.creatingBeanNames = new HashSet<>();
+        this.creatingBeanNames = this.parallelRefresh ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+
+        // BeanPostProcessor may depend on lazy beans, so load proxy factories first
+        loadLazyProxyFactories();
 
         // Instance Beans with @Configuration (should be first due to factory)
+        step = this.startup.start("configurations");
         this.beans.values().stream()
                 .filter(this::isConfigurationDefinition).sorted().map(def -> {
                     createBeanAsEarlySingleton(def);
                     return def.getName();
                 }).toList();
+        step.end();
 
         // Create BeanPostProcessor Bean
+        step = this.startup.start("postProcessors");
         List<BeanPostProcessor> processors = this.beans.values().stream()
                 .filter(this::isBeanPostProcessorDefinition)
                 .sorted()
@@ -82,19 +154,41 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     return (BeanPostProcessor) createBeanAsEarlySingleton(def);
                 }).toList();
         this.beanPostProcessors.addAll(processors);
+        step.end();
 
-        // Instance other normal beans
-        createNormalBeans();
+        // Lazy beans injected into eager beans must be proxied or created eagerly
+        resolveLazyBeans();
 
-        // Inject dependency by field and setter
-        this.beans.values().forEach(def -> {
-            injectBean(def);
-        });
+        if (this.parallelRefresh) {
+            refreshNormalBeansInParallel();
+        } else {
+            // Instance other normal beans
+            step = this.startup.start("beans");
+            createNormalBeans();
+            step.end();
+
+            // Inject dependency by field and setter
+            step = this.startup.start("injection");
+            this.beans.values().stream().filter(def -> !def.isLazy()).forEach(def -> {
+                injectBean(def);
+            });
+            step.end();
 
-        // Call init method
-        this.beans.values().forEach(def -> {
-            initBean(def);
-        });
+            // Call init method
+            step = this.startup.start("init");
+            this.beans.values().stream().filter(def -> !def.isLazy()).forEach(def -> {
+                initBean(def);
+            });
+            step.end();
+        }
+        this.eventBus.start();
+        this.scheduledTaskRegistrar.start(getConfigProperty("winter.scheduling.pool-size", int.class, 0),
+                getConfigProperty("winter.scheduling.tick-millis", long.class, 10L),
+                getConfigProperty("winter.scheduling.ticks-per-wheel", int.class, 512));
+        this.startup.refreshEnded();
+        this.startup.setDependenciesSupplier(
+                () -> new BeanDependencyGraph(this, this.beans.values()).getAllDependencies());
+        logger.atDebug().log("context refreshed in {} ms.", this.startup.getRefreshNanos() / 1_000_000);
 
         if (logger.isDebugEnabled()) {
             this.beans.values().stream().sorted().forEach(def -> {
@@ -102,8 +196,14 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
             });
         }
 
-        // Clean up
-        this.creatingBeanNames = null;
+        // Clean up, but lazy beans still need to detect circular dependency
+        if (this.beans.values().stream().anyMatch(BeanDefinition::isLazy)) {
+            Set<String> names = ConcurrentHashMap.newKeySet();
+            names.addAll(this.creatingBeanNames);
+            this.creatingBeanNames = names;
+        } else {
+            this.creatingBeanNames = null;
+        }
     }
 
     /// Bean Definition
@@ -124,11 +224,15 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                 : scan.value();
         logger.atInfo().log("component scan in packages: {}", Arrays.toString(scanPackages));
 
+        // Prefer the index generated at compile time to walking the classpath
+        final ComponentIndex index = loadComponentIndex();
+
         // Do the scan
         Set<String> classNameSet = new HashSet<>();
         for (String pkg : scanPackages) {
             // scan
             logger.atDebug().log("scan package: {}", pkg);
+            // Roots without index, e.g. compiled without the processor, are still scanned
             var resolver = new ResourceResolver(pkg);
             List<String> classList = resolver.scan(res -> {
                 String name = res.name();
@@ -136,7 +240,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     return name.substring(0, name.length() - 6).replace("/", ".").replace("\\", ".");
                 }
                 return null;
-            });
+            }, rootUrl -> index == null ? null : index.getCandidateClassNames(rootUrl, pkg));
             // log
             if (logger.isDebugEnabled()) {
                 classList.forEach((className) -> {
@@ -147,7 +251,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
 
         // Import specific class, like: @Import(Xyz.class):
-        Import importConfig = configClass.getAnnotation(Import.class);
+        Import importConfig = MergedAnnotations.from(configClass).get(Import.class);
         if (importConfig == null) {
             return classNameSet;
         }
@@ -165,18 +269,62 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         return classNameSet;
     }
 
+    /**
+     * Load META-INF/winter.components, return null if it is not present or
+     * disabled by "winter.index.ignore".
+     */
+    @Nullable
+    ComponentIndex loadComponentIndex() {
+        if (getConfigProperty("winter.index.ignore", boolean.class, false)) {
+            return null;
+        }
+        ComponentIndex index = ComponentIndex.load(getClassLoader());
+        if (index == null) {
+            logger.atDebug().log("component index not found, fallback to classpath scan.");
+        } else {
+            logger.atDebug().log("component index found, skip classpath scan of indexed roots.");
+        }
+        return index;
+    }
+
+    /**
+     * Get context class loader, or class loader of the context class.
+     */
+    ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = getClass().getClassLoader();
+        }
+        return classLoader;
+    }
+
     /**
      * Create BeanDefinition based on the scanned ClassName
      * 
      */
     Map<String, BeanDefinition> createBeanDefinitions(Set<String> classNameSet) {
         Map<String, BeanDefinition> definitions = new HashMap<>();
+        // Same class loader as ResourceResolver, which scanned the class names
+        final ClassLoader classLoader = getClassLoader();
+        final ClassMetadataReader metadataReader = new ClassMetadataReader(classLoader);
 
         for (final String className : classNameSet) {
-            // Load class
+            // Check @Component by .class file, so non-component class is never loaded
+            ClassMetadata metadata = metadataReader.read(className);
+            if (metadata != null) {
+                if (metadata.isAnnotation() || metadata.isEnum() || metadata.isInterface() || metadata.isRecord()) {
+                    continue;
+                }
+                if (!metadataReader.isAnnotated(metadata, Component.class.getName())) {
+                    continue;
+                }
+            }
+
+            // Load class without static initialization, which is delayed until the bean is
+            // created
             Class<?> clazz = null;
             try {
-                clazz = Class.forName(className);
+                clazz = Class.forName(className, false, classLoader);
             } catch (ClassNotFoundException e) {
                 throw new BeanCreationException(e);
             }
@@ -202,9 +350,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
             String beanName = ClassUtils.getBeanName(clazz);
             var definition = new BeanDefinition(beanName, clazz, getSuitableConstructor(clazz), getOrder(clazz),
-                    clazz.isAnnotationPresent(Primary.class), null, null,
+                    MergedAnnotations.from(clazz).isPresent(Primary.class), null, null,
                     ClassUtils.findAnnotationMethod(clazz, PostConstruct.class),
                     ClassUtils.findAnnotationMethod(clazz, PreDestroy.class));
+            definition.setLazy(isLazy(MergedAnnotations.from(clazz).get(Lazy.class), clazz));
 
             // Add bean from class
             addBeanDefinitions(definitions, definition);
@@ -252,13 +401,13 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     int getOrder(Class<?> clazz) {
-        Order order = clazz.getAnnotation(Order.class);
+        Order order = MergedAnnotations.from(clazz).get(Order.class);
         return order == null ? Integer.MAX_VALUE : order.value();
 
     }
 
     int getOrder(Method method) {
-        Order order = method.getAnnotation(Order.class);
+        Order order = MergedAnnotations.from(method).get(Order.class);
         return order == null ? Integer.MAX_VALUE : order.value();
     }
 
@@ -284,7 +433,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     void scanFactoryMethods(String factoryBeanName, Class<?> clazz, Map<String, BeanDefinition> definitions) {
         for (Method method : clazz.getDeclaredMethods()) {
-            Bean bean = method.getAnnotation(Bean.class);
+            Bean bean = MergedAnnotations.from(method).get(Bean.class);
             if (bean == null) {
                 continue;
             }
@@ -319,10 +468,11 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                     factoryBeanName,
                     method,
                     getOrder(method),
-                    method.isAnnotationPresent(Primary.class),
+                    MergedAnnotations.from(method).isPresent(Primary.class),
                     bean.initMethod().isEmpty() ? null : bean.initMethod(),
                     bean.destroyMethod().isEmpty() ? null : bean.destroyMethod(),
                     null, null);
+            definition.setLazy(isLazy(MergedAnnotations.from(method).get(Lazy.class), beanClass));
 
             // Add bean from method initialization
             addBeanDefinitions(definitions, definition);
@@ -330,6 +480,17 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    /**
+     * @Configuration and BeanPostProcessor are always created eagerly.
+     */
+    boolean isLazy(Lazy lazy, Class<?> beanClass) {
+        if (ClassUtils.findAnnotation(beanClass, Configuration.class) != null
+                || BeanPostProcessor.class.isAssignableFrom(beanClass)) {
+            return false;
+        }
+        return lazy == null ? this.lazyInit : lazy.value();
+    }
+
     boolean isConfigurationDefinition(BeanDefinition def) {
         return ClassUtils.findAnnotation(def.getBeanClass(), Configuration.class) != null;
     }
@@ -366,8 +527,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     @Override
     public List<BeanDefinition> findBeanDefinitions(Class<?> type) {
-        return this.beans.values().stream().filter(def -> type.isAssignableFrom(def.getBeanClass()))
-                .sorted().toList();
+        return this.typeIndex.getDefinitions(type);
     }
 
     /**
@@ -376,25 +536,15 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     @Nullable
     @Override
     public BeanDefinition findBeanDefinition(Class<?> type) {
-        List<BeanDefinition> defs = findBeanDefinitions(type);
-        if (defs.isEmpty()) {
-            return null;
-        }
-        if (defs.size() == 1) {
-            return defs.get(0);
-        }
+        return this.typeIndex.getCandidate(type);
+    }
 
-        List<BeanDefinition> primaryDefs = defs.stream().filter(def -> def.isPrimary()).toList();
-        if (primaryDefs.size() == 1) {
-            return primaryDefs.get(0);
-        }
-        if (primaryDefs.isEmpty()) {
-            throw new NoUniqueBeanDefinitionException(
-                    String.format("Multiple bean with type '%s' found, but no @Primary specified.", type.getName()));
-        } else {
-            throw new NoUniqueBeanDefinitionException(String
-                    .format("Multiple bean with type '%s' found, and multiple @Primary specified.", type.getName()));
-        }
+    /**
+     * Find beans whose class is annotated by the annotation
+     */
+    @Override
+    public List<BeanDefinition> findBeanDefinitionsByAnnotation(Class<? extends Annotation> annoClass) {
+        return this.typeIndex.getAnnotatedDefinitions(annoClass);
     }
 
     // Bean Initialization
@@ -410,6 +560,29 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
      */
     @Override
     public Object createBeanAsEarlySingleton(BeanDefinition def) {
+        if (!this.parallelRefresh) {
+            return createBeanWithStartup(def);
+        }
+        // The bean may be created by another thread at the same time, e.g. the
+        // handler bean created by a BeanPostProcessor
+        synchronized (def) {
+            if (def.getInstance() != null) {
+                return def.getInstance();
+            }
+            return createBeanWithStartup(def);
+        }
+    }
+
+    Object createBeanWithStartup(BeanDefinition def) {
+        this.startup.beanCreationStarted(def.getName());
+        try {
+            return doCreateBeanAsEarlySingleton(def);
+        } finally {
+            this.startup.beanCreationEnded();
+        }
+    }
+
+    Object doCreateBeanAsEarlySingleton(BeanDefinition def) {
         logger.atDebug().log("Try create bean '{}' as early singleton: {}", def.getName(),
                 def.getBeanClass().getName());
 
@@ -429,7 +602,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
 
         // -- 3. Prepare Parameters --
         final Parameter[] parameters = createFn.getParameters(); // all params
-        final Annotation[][] parametersAnnos = createFn.getParameterAnnotations(); // annotation for each param
+        // annotation for each param
+        final Annotation[][] parametersAnnos = MergedAnnotations.getParameterAnnotations(createFn);
         Object[] args = new Object[parameters.length];
 
         for (int i = 0; i < parameters.length; i++) {
@@ -490,7 +664,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
                 }
 
                 // Find the dependency
-                Object autowiredBeanInstance = dependsOnDef.getInstance();
+                Object autowiredBeanInstance = dependsOnDef.isLazy() ? getDependencyInstance(dependsOnDef)
+                        : dependsOnDef.getInstance();
                 if (autowiredBeanInstance == null && !isConfiguration && !isBeanPostProcessor) {
                     autowiredBeanInstance = createBeanAsEarlySingleton(dependsOnDef);
                 }
@@ -501,9 +676,10 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         // -- 4. Create Bean Instance --
         Object instance = null;
         if (def.getFactoryName() == null) {
-            // Constrictor
+            // Constrictor, by the generated factory if present
+            GeneratedBeanFactory factory = findGeneratedFactory(def.getBeanClass());
             try {
-                instance = def.getConstructor().newInstance(args);
+                instance = factory != null ? factory.newInstance(args) : def.getConstructor().newInstance(args);
             } catch (Exception e) {
                 throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(),
                         def.getBeanClass().getName()), e);
@@ -511,9 +687,12 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         } else {
             // Factory - to get factory bean instance @Configuration first
             Object configInstance = getBean(def.getFactoryName());
+            GeneratedBeanFactory factory = findGeneratedFactory(def.getFactoryMethod().getDeclaringClass());
             try {
-                // invoke the method by reflection
-                instance = def.getFactoryMethod().invoke(configInstance, args);
+                // invoke the method by the generated factory or reflection
+                instance = factory != null
+                        ? factory.invokeFactoryMethod(configInstance, def.getFactoryMethod().getName(), args)
+                        : def.getFactoryMethod().invoke(configInstance, args);
             } catch (Exception e) {
                 throw new BeanCreationException(String.format("Exception when create bean '%s': %s", def.getName(),
                         def.getBeanClass().getName()), e);
@@ -542,8 +721,8 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     }
 
     void createNormalBeans() {
-        List<BeanDefinition> defs = this.beans.values().stream().filter(def -> def.getInstance() == null).sorted()
-                .toList();
+        List<BeanDefinition> defs = this.beans.values().stream()
+                .filter(def -> def.getInstance() == null && !def.isLazy()).sorted().toList();
 
         defs.forEach(def -> {
             if (def.getInstance() == null) {
@@ -552,6 +731,86 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         });
     }
 
+    /**
+     * Create, inject and init normal beans on a ForkJoinPool. Beans are processed
+     * in topological layers of the dependency graph, so a bean is only created or
+     * initialized after the beans it depends on. Beans of a layer are submitted
+     * in @Order.
+     */
+    void refreshNormalBeansInParallel() {
+        List<BeanDefinition> allDefs = this.beans.values().stream().sorted().toList();
+        BeanDependencyGraph graph = new BeanDependencyGraph(this, allDefs);
+        allDefs = allDefs.stream().filter(def -> !def.isLazy()).toList();
+        List<BeanDefinition> normalDefs = allDefs.stream().filter(def -> def.getInstance() == null).toList();
+
+        int parallelism = getConfigProperty("winter.context.refresh.parallelism", int.class,
+                Runtime.getRuntime().availableProcessors());
+        ForkJoinPool pool = createRefreshPool(parallelism);
+        try {
+            // Constructor and factory method only need strong dependencies
+            ApplicationStartup.StartupStep step = this.startup.start("beans");
+            runInLayers(pool, graph.layers(normalDefs, false), def -> {
+                if (def.getInstance() == null) {
+                    createBeanAsEarlySingleton(def);
+                }
+            });
+
+            step.end();
+
+            // Inject dependency by field and setter, all beans are created now
+            step = this.startup.start("injection");
+            runInLayers(pool, List.of(allDefs), this::injectBean);
+            step.end();
+
+            // Call init method after the init of all dependencies
+            step = this.startup.start("init");
+            runInLayers(pool, graph.layers(allDefs, true), this::initBean);
+            step.end();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    ForkJoinPool createRefreshPool(int parallelism) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("winter-refresh-" + thread.getPoolIndex());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+    }
+
+    void runInLayers(ForkJoinPool pool, List<List<BeanDefinition>> layers, Consumer<BeanDefinition> action) {
+        for (List<BeanDefinition> layer : layers) {
+            if (layer.size() == 1) {
+                action.accept(layer.get(0));
+                continue;
+            }
+            List<ForkJoinTask<?>> tasks = layer.stream()
+                    .<ForkJoinTask<?>>map(def -> pool.submit(() -> {
+                        // Pool threads do not inherit the binding of the refreshing thread
+                        try (var binding = ApplicationContextUtils.bind(this)) {
+                            action.accept(def);
+                        }
+                    })).toList();
+            // Wait the whole layer, rethrow the first exception
+            RuntimeException error = null;
+            for (ForkJoinTask<?> task : tasks) {
+                try {
+                    task.join();
+                } catch (RuntimeException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T getBean(String name) {
@@ -559,7 +818,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with name '%s'.", name));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @SuppressWarnings("unchecked")
@@ -569,7 +828,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             throw new NoSuchBeanDefinitionException(String.format("No bean defined with type '%s'.", requiredType));
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Override
@@ -585,7 +844,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
     @SuppressWarnings("unchecked")
     @Override
     public <T> List<T> getBeans(Class<T> requiredType) {
-        return findBeanDefinitions(requiredType).stream().map(def -> (T) def.getRequiredInstance()).toList();
+        return findBeanDefinitions(requiredType).stream().map(def -> (T) getBeanInstance(def)).toList();
     }
 
     @Override
@@ -601,7 +860,7 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Nullable
@@ -611,257 +870,278 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         if (def == null) {
             return null;
         }
-        return (T) def.getRequiredInstance();
+        return (T) getBeanInstance(def);
     }
 
     @Nullable
     @SuppressWarnings("unchecked")
     protected <T> List<T> findBeans(Class<T> requiredType) {
-        return findBeanDefinitions(requiredType).stream().map(def -> (T) def.getRequiredInstance())
+        return findBeanDefinitions(requiredType).stream().map(def -> (T) getBeanInstance(def))
                 .toList();
     }
 
-    // Bean Injection
-    // --------------
+    // Lazy Bean
+    // ---------
+
+    // Completed by the creator thread, normally or with the creation error
+    record LazyCreation(Thread creator, CompletableFuture<Void> done) {
+    }
 
     /**
-     * Inject Bean without init calling
+     * Get bean instance, the lazy bean is created, injected and initialized on
+     * first call. The first thread claims the creation, other threads wait for
+     * it unless they would wait for each other, and fail if the creation fails.
      */
-    void injectBean(BeanDefinition def) {
-
-        final Object originBeanInstance = getOriginInstance(def);
-        try {
-            injectProperties(def, def.getBeanClass(), originBeanInstance);
-        } catch (ReflectiveOperationException e) {
-            throw new BeanCreationException(e);
+    Object getBeanInstance(BeanDefinition def) {
+        final String name = def.getName();
+        final Thread current = Thread.currentThread();
+        while (def.isLazy() && !this.lazyInitializedBeanNames.contains(name)) {
+            LazyCreation creation = new LazyCreation(current, new CompletableFuture<>());
+            LazyCreation existing = this.lazyCreations.putIfAbsent(name, creation);
+            if (existing == null) {
+                try {
+                    if (!this.lazyInitializedBeanNames.contains(name)) {
+                        createLazyBean(def);
+                    }
+                    creation.done().complete(null);
+                } catch (RuntimeException | Error e) {
+                    creation.done().completeExceptionally(e);
+                    throw e;
+                } finally {
+                    this.lazyCreations.remove(name);
+                }
+            } else if (existing.creator() == current) {
+                // Required by its own dependencies, inject the early instance as eager beans do
+                if (def.getInstance() == null) {
+                    throw new UnsatisfiedDependencyException(
+                            String.format("Circular dependency detected when create lazy bean '%s'", name));
+                }
+                return def.getInstance();
+            } else {
+                awaitLazyBean(name, existing);
+            }
         }
+        return def.getRequiredInstance();
     }
 
-    void initBean(BeanDefinition def) {
-        final Object beanInstance = getOriginInstance(def);
-
-        // call init method
-        callMethod(beanInstance, def.getInitMethod(), def.getInitMethodName());
+    void createLazyBean(BeanDefinition def) {
+        logger.atDebug().log("create lazy bean '{}' on first use.", def.getName());
+        if (def.getInstance() == null) {
+            createBeanWithStartup(def);
+        }
+        injectBean(def);
+        initBean(def);
+        this.lazyInitializedBeanNames.add(def.getName());
+    }
 
-        beanPostProcessors.forEach(beanPostProcessor -> {
-            Object processedInstance = beanPostProcessor.postProcessAfterInitialization(def.getInstance(),
-                    def.getName());
-            if (processedInstance != def.getInstance()) {
-                logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.",
-                        beanPostProcessor.getClass().getSimpleName(),
-                        def.getInstance().getClass().getName(), processedInstance.getClass().getName());
-                def.setInstance(processedInstance);
+    void awaitLazyBean(String name, LazyCreation creation) {
+        final Thread current = Thread.currentThread();
+        final Thread creator = creation.creator();
+        // Registered before the check, so one of two threads waiting for each other sees the other
+        this.lazyWaitingBeanNames.put(current, name);
+        try {
+            // Fail if the creator waits, directly or not, for a bean created by this thread
+            Thread t = creator;
+            for (int i = 0; t != null && i <= this.lazyWaitingBeanNames.size(); i++) {
+                String waiting = this.lazyWaitingBeanNames.get(t);
+                LazyCreation next = waiting == null ? null : this.lazyCreations.get(waiting);
+                t = next == null ? null : next.creator();
+                if (t == current) {
+                    throw new UnsatisfiedDependencyException(String.format(
+                            "Circular dependency detected when create lazy bean '%s' in threads %s and %s", name,
+                            current.getName(), creator.getName()));
+                }
             }
-        });
+            creation.done().get();
+        } catch (ExecutionException e) {
+            throw new BeanCreationException(String.format("Failed to create lazy bean '%s' in thread %s", name,
+                    creator.getName()), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanCreationException(String.format("Interrupted when wait for lazy bean '%s'", name), e);
+        } finally {
+            this.lazyWaitingBeanNames.remove(current);
+        }
     }
 
-    private void injectProperties(BeanDefinition def, Class<?> clazz, Object bean) throws ReflectiveOperationException {
-        for (Field f : clazz.getDeclaredFields()) {
-            tryInjectProperties(def, clazz, bean, f);
-        }
-        for (Method m : clazz.getDeclaredMethods()) {
-            tryInjectProperties(def, clazz, bean, m);
+    /**
+     * Get bean instance to inject into another bean. Lazy bean is injected as
+     * proxy if possible, so it is still created on first call.
+     */
+    Object getDependencyInstance(BeanDefinition def) {
+        if (!def.isLazy() || this.lazyInitializedBeanNames.contains(def.getName())) {
+            return def.getRequiredInstance();
         }
-
-        Class<?> superClazz = clazz.getSuperclass();
-        if (superClazz != null) {
-            injectProperties(def, superClazz, bean);
+        LazyBeanProxyFactory factory = findLazyProxyFactory(def.getBeanClass());
+        if (factory == null) {
+            return getBeanInstance(def);
         }
+        logger.atDebug().log("inject lazy proxy of bean '{}'.", def.getName());
+        return factory.createLazyProxy(def.getBeanClass(), () -> getBeanInstance(def));
     }
 
     /**
-     * Inject properties
+     * A lazy bean injected into an eager bean is created eagerly if it cannot be
+     * proxied, and so are its dependencies.
      */
-    void tryInjectPropertiesOrg(BeanDefinition def, Class<?> clazz, Object bean,
-            AccessibleObject acc)
-            throws ReflectiveOperationException {
-
-        Value value = acc.getAnnotation(Value.class);
-        Autowired autowired = acc.getAnnotation(Autowired.class);
-
-        if (value == null && autowired == null) {
+    void resolveLazyBeans() {
+        if (this.beans.values().stream().noneMatch(BeanDefinition::isLazy)) {
             return;
         }
-
-        Field field = null;
-        Method method = null;
-
-        if (acc instanceof Field f) {
-            checkFieldOrMethod(f);
-            f.setAccessible(true);
-            field = f;
-        }
-
-        if (acc instanceof Method m) {
-            checkFieldOrMethod(m);
-            if (m.getParameters().length != 1) {
-                throw new BeanDefinitionException(
-                        String.format("Cannot inject a non-setter method %s for bean '%s': %s",
-                                m.getName(),
-                                def.getName(), def.getBeanClass().getName()));
-            }
-            m.setAccessible(true);
-            method = m;
-        }
-
-        String accessibleName = field != null ? field.getName() : method.getName();
-        Class<?> accessibleType = field != null ? field.getType() : method.getParameterTypes()[0];
-
-        // Validate value and autowired
-        if (value != null && autowired != null) {
-            throw new BeanCreationException(
-                    String.format("Cannot specify both @Autowired and @Value when inject %s.%s for bean '%s': %s",
-                            clazz.getSimpleName(), accessibleName, def.getName(),
-                            def.getBeanClass().getName()));
-        }
-
-        // Inject value
-        if (value != null) {
-            Object propValue = this.propertyResolver.getRequiredProperty(value.value(), accessibleType);
-            if (field != null) {
-                logger.atDebug().log("Field injection: {}.{} = {}",
-                        def.getBeanClass().getName(), accessibleName,
-                        propValue);
-                field.set(bean, propValue);
-            }
-            if (method != null) {
-                // 这部分我不知道发生了什么，意思是我对method调用了bean？
-                logger.atDebug().log("Method injection: {}.{} ({})",
-                        def.getBeanClass().getName(), accessibleName,
-                        propValue);
-                method.invoke(bean, propValue);
-            }
-        }
-        // Q: 似乎代码都是用field和method是否为null区分的，这是否能够做一些优化？
-
-        // Inject autowired
-        if (autowired != null) {
-            String name = autowired.name();
-            boolean required = autowired.value();
-            // Q: 这里的depends是说类似于
-            // @Autowired
-            // void hello(Dependency depend);之类的样子么？
-            Object depends = name.isEmpty() ? findBean(accessibleType)
-                    : findBean(name,
-                            accessibleType);
-            if (required && depends == null) {
-                throw new UnsatisfiedDependencyException(String.format(
-                        "Dependency bean not found when inject %s.%s for bean '%s': %s",
-                        clazz.getSimpleName(),
-                        accessibleName, def.getName(), def.getBeanClass().getName()));
-            }
-            if (depends != null) {
-                if (field != null) {
-                    logger.atDebug().log("Field injection: {}.{} = {}",
-                            def.getBeanClass().getName(), accessibleName,
-                            depends);
-                    field.set(bean, depends);
+        BeanDependencyGraph graph = new BeanDependencyGraph(this, this.beans.values());
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BeanDefinition def : this.beans.values()) {
+                if (def.isLazy()) {
+                    continue;
                 }
-                if (method != null) {
-                    logger.atDebug().log("Method injection: {}.{} ({})",
-                            def.getBeanClass().getName(), accessibleName,
-                            depends);
-                    method.invoke(bean, depends);
+                for (String dependsOn : graph.getDependencies(def.getName(), true)) {
+                    BeanDefinition dependsOnDef = this.beans.get(dependsOn);
+                    if (dependsOnDef.isLazy() && findLazyProxyFactory(dependsOnDef.getBeanClass()) == null) {
+                        logger.atDebug().log("lazy bean '{}' is created eagerly for it is injected into '{}'.",
+                                dependsOn, def.getName());
+                        dependsOnDef.setLazy(false);
+                        changed = true;
+                    }
                 }
             }
         }
     }
 
-    /**
-     * Inject the bean
-     * 
-     * @param def   deprecated
-     * @param clazz for logging
-     * @param bean  need the dependencies
-     * @param acc   is the dependency
-     * @throws ReflectiveOperationException
-     */
-    void tryInjectProperties(BeanDefinition def, Class<?> clazz, Object bean,
-            AccessibleObject acc)
-            throws ReflectiveOperationException {
-
-        // --- 1. Prepare ---
-        Value value = acc.getAnnotation(Value.class);
-        Autowired autowired = acc.getAnnotation(Autowired.class);
-        if (value == null && autowired == null) {
+    void loadLazyProxyFactories() {
+        if (this.beans.values().stream().noneMatch(BeanDefinition::isLazy)) {
             return;
         }
+        this.lazyProxyFactories = ServiceLoader
+                .load(LazyBeanProxyFactory.class, AnnotationConfigApplicationContext.class.getClassLoader()).stream()
+                .map(ServiceLoader.Provider::get).toList();
+    }
 
-        // Validate: @Value and @Autowired
-        if (value != null && autowired != null) {
-            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value on %s", acc));
+    @Nullable
+    LazyBeanProxyFactory findLazyProxyFactory(Class<?> beanClass) {
+        for (LazyBeanProxyFactory factory : this.lazyProxyFactories) {
+            if (factory.isProxyable(beanClass)) {
+                return factory;
+            }
         }
+        return null;
+    }
 
-        Field field = null;
-        Method method = null;
-        Class<?> accessibleType; // Field type or method parameter type
+    // Bean Injection
+    // --------------
+
+    /**
+     * Inject Bean without init calling
+     */
+    void injectBean(BeanDefinition def) {
+        final long start = System.nanoTime();
+        try {
+            doInjectBean(def);
+        } finally {
+            this.startup.beanInjected(def.getName(), System.nanoTime() - start);
+        }
+    }
 
-        // --- 2. Detect and validate
-        if (acc instanceof Field f) {
-            checkFieldOrMethod(f);
-            f.setAccessible(true);
-            field = f;
-            accessibleType = f.getType();
-        } else if (acc instanceof Method m) {
-            checkFieldOrMethod(m); // 假设这个方法检查 private, static 等修饰符
-            if (m.getParameterCount() != 1) {
-                throw new BeanDefinitionException("Cannot inject a non-setter method with " + m.getParameterCount()
-                        + " parameters: " + m.getName());
+    void doInjectBean(BeanDefinition def) {
+        final Object originBeanInstance = getOriginInstance(def);
+        GeneratedBeanFactory factory = findGeneratedFactory(def.getBeanClass());
+        if (factory != null) {
+            try {
+                factory.inject(originBeanInstance, this::resolveInjectionValue);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new BeanCreationException(e);
             }
-            m.setAccessible(true);
-            method = m;
-            accessibleType = m.getParameterTypes()[0];
-        } else {
             return;
         }
+        for (InjectionPoint point : InjectionMetadata.forClass(def.getBeanClass()).injectionPoints) {
+            injectProperty(originBeanInstance, point);
+        }
+    }
 
-        // 3. --- get value to inject ---
-        Object valueToInject;
-        if (value != null) {
-            // Handle @Value
-            valueToInject = this.propertyResolver.getRequiredProperty(value.value(), accessibleType);
-        } else {
-            // Handle @Autowired
-            String name = autowired.name();
-            boolean required = autowired.value();
-            // find beanInstance
-            valueToInject = name.isEmpty() ? findBean(accessibleType) : findBean(name, accessibleType);
+    void initBean(BeanDefinition def) {
+        final long start = System.nanoTime();
+        try {
+            doInitBean(def);
+        } finally {
+            this.startup.beanInitialized(def.getName(), System.nanoTime() - start);
+        }
+    }
 
-            if (required && valueToInject == null) {
-                throw new UnsatisfiedDependencyException(String.format("Dependency bean of type '%s' not found for %s",
-                        accessibleType.getSimpleName(), acc));
+    void doInitBean(BeanDefinition def) {
+        final Object beanInstance = getOriginInstance(def);
+
+        // call init method
+        callMethod(beanInstance, def.getInitMethod(), def.getInitMethodName());
+
+        beanPostProcessors.forEach(beanPostProcessor -> {
+            Object processedInstance = beanPostProcessor.postProcessAfterInitialization(def.getInstance(),
+                    def.getName());
+            if (processedInstance != def.getInstance()) {
+                logger.atDebug().log("BeanPostProcessor {} return different bean from {} to {}.",
+                        beanPostProcessor.getClass().getSimpleName(),
+                        def.getInstance().getClass().getName(), processedInstance.getClass().getName());
+                def.setInstance(processedInstance);
             }
+        });
+
+        // Bean can re-bind its values after properties are reloaded
+        if (def.getInstance() instanceof PropertyChangeListener listener && this.propertyResolver != null) {
+            this.propertyResolver.addPropertyChangeListener(listener);
+            this.propertyChangeListeners.add(listener);
         }
+    }
 
-        // 4. --- Execute the injection
+    /**
+     * Inject the bean by the cached injection point
+     * 
+     * @param bean  need the dependencies
+     * @param point is the dependency
+     */
+    void injectProperty(Object bean, InjectionPoint point) {
+        // --- 1. get value to inject ---
+        Object valueToInject = resolveInjectionValue(point.type(), point.propertyExpr(), point.autowiredName(),
+                point.required(), point.member().toString());
+
+        // --- 2. Execute the injection ---
         if (valueToInject != null) {
-            if (field != null) {
-                logger.atDebug().log("Field injection: {}.{} = {}", clazz.getSimpleName(), field.getName(),
-                        valueToInject);
-                field.set(bean, valueToInject);
+            if (point.member() instanceof Field) {
+                logger.atDebug().log("Field injection: {}.{} = {}", point.declaringClass().getSimpleName(),
+                        point.member().getName(), valueToInject);
             } else {
-                logger.atDebug().log("Method injection: {}.{} ({})", clazz.getSimpleName(), method.getName(),
-                        valueToInject);
-                method.invoke(bean, valueToInject);
+                logger.atDebug().log("Method injection: {}.{} ({})", point.declaringClass().getSimpleName(),
+                        point.member().getName(), valueToInject);
+            }
+            try {
+                point.setter().invokeExact(bean, valueToInject);
+            } catch (Throwable e) {
+                throw new BeanCreationException(e);
             }
         }
     }
 
-    private void checkFieldOrMethod(Member m) {
-        int mod = m.getModifiers();
-        if (Modifier.isStatic(mod)) {
-            throw new BeanDefinitionException("Cannot inject static field: " + m);
+    /**
+     * Resolve value of @Value if propertyExpr is not null, otherwise @Autowired
+     * bean. Return null if the bean is not required and not found.
+     */
+    @Nullable
+    Object resolveInjectionValue(Class<?> type, @Nullable String propertyExpr, @Nullable String autowiredName,
+            boolean required, String target) {
+        if (propertyExpr != null) {
+            // Handle @Value
+            return this.propertyResolver.getRequiredProperty(propertyExpr, type);
         }
-        if (Modifier.isFinal(mod)) {
-            if (m instanceof Field field) {
-                throw new BeanDefinitionException("Cannot inject final field: " + field);
-            }
-            if (m instanceof Method) {
-                logger.warn(
-                        "Inject final method should be careful because it is not called on target bean when bean is proxied and may cause NullPointerException.");
-
-            }
+        // Handle @Autowired
+        BeanDefinition def = autowiredName.isEmpty() ? findBeanDefinition(type)
+                : findBeanDefinition(autowiredName, type);
+        Object value = def == null ? null : getDependencyInstance(def);
+        if (required && value == null) {
+            throw new UnsatisfiedDependencyException(
+                    String.format("Dependency bean of type '%s' not found for %s", type.getSimpleName(), target));
         }
+        return value;
     }
 
     private void callMethod(Object beanInstance, Method method, String methodName) {
@@ -883,6 +1163,74 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         }
     }
 
+    // Destroy
+    // -------
+
+    /**
+     * Call destroy methods in reverse dependency order, so a bean is destroyed
+     * after all beans depending on it. Beans of the same layer are destroyed in
+     * parallel. A bean not destroyed in time is interrupted and skipped, and
+     * beans left when the whole shutdown times out are not destroyed.
+     */
+    void destroyBeans() {
+        final long beanTimeoutNanos = TimeUnit.MILLISECONDS
+                .toNanos(getConfigProperty("winter.context.shutdown.bean-timeout-millis", long.class, 10_000L));
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS
+                .toNanos(getConfigProperty("winter.context.shutdown.timeout-millis", long.class, 30_000L));
+
+        List<BeanDefinition> createdDefs = this.beans.values().stream().filter(def -> def.getInstance() != null)
+                .sorted().toList();
+        List<List<BeanDefinition>> layers = new ArrayList<>(
+                new BeanDependencyGraph(this, createdDefs).layers(createdDefs, true));
+        Collections.reverse(layers);
+
+        ExecutorService executor = Executors
+                .newThreadPerTaskExecutor(Thread.ofVirtual().name("winter-destroy-", 0).factory());
+        try {
+            for (List<BeanDefinition> layer : layers) {
+                List<BeanDefinition> defs = layer.stream()
+                        .filter(def -> def.getDestroyMethod() != null || def.getDestroyMethodName() != null)
+                        .toList();
+                if (defs.isEmpty()) {
+                    continue;
+                }
+                if (System.nanoTime() >= deadline) {
+                    logger.warn("shutdown timeout, beans not destroyed: {}",
+                            defs.stream().map(BeanDefinition::getName).toList());
+                    continue;
+                }
+                final long layerStart = System.nanoTime();
+                Map<BeanDefinition, Future<?>> futures = new LinkedHashMap<>();
+                defs.forEach(def -> futures.put(def, executor.submit(() -> destroyBean(def))));
+                for (var entry : futures.entrySet()) {
+                    String name = entry.getKey().getName();
+                    long wait = Math.min(layerStart + beanTimeoutNanos, deadline) - System.nanoTime();
+                    try {
+                        entry.getValue().get(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        logger.warn("bean '{}' is not destroyed in time, interrupt it.", name);
+                        entry.getValue().cancel(true);
+                    } catch (ExecutionException e) {
+                        logger.error("Exception when destroy bean '" + name + "'.", e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        logger.warn("interrupted when destroy bean '{}'.", name);
+                        return;
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    void destroyBean(BeanDefinition def) {
+        final long start = System.nanoTime();
+        final Object beanInstance = getOriginInstance(def);
+        callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
+        logger.info("bean '{}' destroyed in {} ms.", def.getName(), (System.nanoTime() - start) / 1_000_000);
+    }
+
     // BeanPostProcessor
     // -----------------
     boolean isBeanPostProcessorDefinition(BeanDefinition def) {
@@ -910,19 +1258,180 @@ public class AnnotationConfigApplicationContext implements ConfigurableApplicati
         return beanInstance;
     }
 
+    // Generated Factory
+    // -----------------
+
+    static final ClassValue<Optional<GeneratedBeanFactory>> GENERATED_FACTORIES = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedBeanFactory> computeValue(Class<?> type) {
+            try {
+                Class<?> factoryClass = Class.forName(type.getName() + GeneratedBeanFactory.CLASS_NAME_SUFFIX, true,
+                        type.getClassLoader());
+                if (!GeneratedBeanFactory.class.isAssignableFrom(factoryClass)) {
+                    return Optional.empty();
+                }
+                return Optional.of((GeneratedBeanFactory) factoryClass.getConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                return Optional.empty();
+            } catch (ReflectiveOperationException e) {
+                throw new BeanCreationException(e);
+            }
+        }
+    };
+
+    /**
+     * Find the factory generated by winter-codegen for the class, return null if
+     * not found or disabled by "winter.codegen.ignore".
+     */
+    @Nullable
+    GeneratedBeanFactory findGeneratedFactory(Class<?> clazz) {
+        if (!this.useGeneratedFactory) {
+            return null;
+        }
+        return GENERATED_FACTORIES.get(clazz).orElse(null);
+    }
+
+    // Event and Scheduling
+    // --------------------
+
+    @Override
+    public void publishEvent(Object event) {
+        this.eventBus.publishEvent(event);
+    }
+
+    @Override
+    public List<EventListenerMetrics> getEventListenerMetrics() {
+        return this.eventBus.getMetrics();
+    }
+
+    @Override
+    public List<ScheduledTaskMetrics> getScheduledTaskMetrics() {
+        return this.scheduledTaskRegistrar.getMetrics();
+    }
+
+    /**
+     * Bean of event listener or scheduled task, lazy bean is created on first
+     * use. Return null if the bean is not created yet or the context is closed.
+     */
+    @Nullable
+    Object getBeanIfCreated(String name) {
+        BeanDefinition def = this.beans.get(name);
+        if (def == null) {
+            return null;
+        }
+        return def.isLazy() ? getBeanInstance(def) : def.getInstance();
+    }
+
+    /**
+     * Like getBeanIfCreated, but return the instance before proxied by
+     * BeanPostProcessor.
+     */
+    @Nullable
+    Object getBeanTargetIfCreated(String name) {
+        return getBeanIfCreated(name) == null ? null : getOriginInstance(this.beans.get(name));
+    }
+
+    // Startup
+    // -------
+
+    @Override
+    public ApplicationStartup getApplicationStartup() {
+        return this.startup;
+    }
+
+    /**
+     * Write startup report to the file of "winter.context.startup.report": JSON
+     * if the file name ends with .json, otherwise folded stacks for flame graph.
+     */
+    void writeStartupReport() {
+        String file = getConfigProperty("winter.context.startup.report", String.class, null);
+        if (file == null || file.isEmpty() || this.startup.getRefreshNanos() < 0) {
+            return;
+        }
+        ApplicationStartup.CriticalPath criticalPath = this.startup.getCriticalPath();
+        logger.info("startup critical path ({} ms): {}", criticalPath.nanos() / 1_000_000,
+                String.join(" -> ", criticalPath.beanNames()));
+        String report = file.endsWith(".json") ? this.startup.toJson() : this.startup.toFoldedStacks();
+        try {
+            Files.writeString(Path.of(file), report);
+            logger.info("startup report written to {}.", file);
+        } catch (IOException e) {
+            logger.warn("cannot write startup report to " + file, e);
+        }
+    }
+
+    // Footprint
+    // ---------
+
+    @Override
+    public BeanFootprintReport analyzeBeanFootprint() {
+        Map<String, Object> instances = new LinkedHashMap<>();
+        Set<Object> stops = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BeanDefinition def : this.beans.values()) {
+            if (def.getInstance() != null) {
+                Object origin = getOriginInstance(def);
+                instances.put(def.getName(), origin);
+                stops.add(def.getInstance());
+                stops.add(origin);
+            }
+        }
+        long start = System.nanoTime();
+        BeanFootprintReport report = new BeanFootprintAnalyzer().analyze(instances, stops);
+        logger.atDebug().log("analyzed footprint of {} beans in {} ms.", instances.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * Write footprint report to the file of "winter.context.footprint.report":
+     * JSON if the file name ends with .json, otherwise text table. Write to log
+     * if the value is "log".
+     */
+    void writeFootprintReport() {
+        String file = getConfigProperty("winter.context.footprint.report", String.class, null);
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        BeanFootprintReport report = analyzeBeanFootprint();
+        if (file.equals("log")) {
+            logger.info("{}", report);
+            return;
+        }
+        try {
+            Files.writeString(Path.of(file), file.endsWith(".json") ? report.toJson() : report.toString());
+            logger.info("footprint report written to {}.", file);
+        } catch (IOException e) {
+            logger.warn("cannot write footprint report to " + file, e);
+        }
+    }
+
     // Other
     // ----
 
+    /**
+     * Read a config property of the context itself. The PropertyResolver may be
+     * null if the context is created without any properties.
+     */
+    <T> T getConfigProperty(String key, Class<T> targetType, T defaultValue) {
+        if (this.propertyResolver == null) {
+            return defaultValue;
+        }
+        return this.propertyResolver.getProperty(key, targetType, defaultValue);
+    }
+
     @Override
     public void close() {
         logger.info("Closing {}...", this.getClass().getName());
-        this.beans.values().forEach(def -> {
-            final Object beanInstance = getOriginInstance(def);
-            callMethod(beanInstance, def.getDestroyMethod(), def.getDestroyMethodName());
-        });
+        writeStartupReport();
+        writeFootprintReport();
+        this.scheduledTaskRegistrar.close();
+        this.eventBus.close();
+        this.propertyChangeListeners.forEach(listener -> this.propertyResolver.removePropertyChangeListener(listener));
+        this.propertyChangeListeners.clear();
+        destroyBeans();
         this.beans.clear();
-        ;
+        this.typeIndex = BeanTypeIndex.EMPTY;
         logger.info("{} closed.", this.getClass().getName());
-        ApplicationContextUtils.setApplicationContext(null);
+        ApplicationContextUtils.clearApplicationContext(this);
     }
 }
@@ -2,7 +2,7 @@ package com.kaiyikang.winter.context;
 
 import java.util.List;
 
-public interface ApplicationContext extends AutoCloseable {
+public interface ApplicationContext extends AutoCloseable, ApplicationEventPublisher {
 
     boolean containsBean(String name);
 
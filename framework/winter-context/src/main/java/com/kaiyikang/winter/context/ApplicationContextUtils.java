@@ -5,8 +5,29 @@ import java.util.Objects;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
+/**
+ * Holder of the current ApplicationContext. A context bound to the current
+ * thread takes precedence over the global one, so several contexts can be used
+ * at the same time, e.g. by tests running in parallel. The binding is not
+ * inherited, threads started by a bound thread must bind the context
+ * themselves.
+ */
 public class ApplicationContextUtils {
-    private static ApplicationContext applicationContext = null;
+
+    /**
+     * Restore the previous binding of the thread on close.
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    // The last created context
+    private static volatile ApplicationContext applicationContext = null;
+
+    private static final ThreadLocal<ApplicationContext> boundContext = new ThreadLocal<>();
 
     @Nonnull
     public static ApplicationContext getRequiredApplicationContext() {
@@ -15,10 +36,40 @@ public class ApplicationContextUtils {
 
     @Nullable
     public static ApplicationContext getApplicationContext() {
-        return applicationContext;
+        ApplicationContext ctx = boundContext.get();
+        return ctx != null ? ctx : applicationContext;
+    }
+
+    /**
+     * Bind the context to current thread until the returned binding is closed.
+     */
+    public static Binding bind(ApplicationContext ctx) {
+        Objects.requireNonNull(ctx, "ApplicationContext is null.");
+        final ApplicationContext previous = boundContext.get();
+        boundContext.set(ctx);
+        return () -> {
+            if (previous == null) {
+                boundContext.remove();
+            } else {
+                boundContext.set(previous);
+            }
+        };
     }
 
     static void setApplicationContext(ApplicationContext ctx) {
         applicationContext = ctx;
     }
+
+    /**
+     * Clear the context on close, the global one is kept if it is another
+     * context.
+     */
+    static synchronized void clearApplicationContext(ApplicationContext ctx) {
+        if (applicationContext == ctx) {
+            applicationContext = null;
+        }
+        if (boundContext.get() == ctx) {
+            boundContext.remove();
+        }
+    }
 }
@@ -0,0 +1,328 @@
+package com.kaiyikang.winter.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kaiyikang.winter.annotation.EventListener;
+import com.kaiyikang.winter.exception.BeanDefinitionException;
+import com.kaiyikang.winter.exception.NestedRuntimeException;
+
+/**
+ * Dispatch published events to the @EventListener methods found on bean
+ * definitions. A synchronous listener is called on the publisher thread, an
+ * async listener has its own bounded queue drained by a virtual thread.
+ *
+ * Events published during refresh are kept until the context is refreshed: a
+ * sync event whose listener bean is not created yet is delivered by start(),
+ * async events wait in the queue, and a full queue fails the publisher as no
+ * thread drains it yet.
+ */
+class ApplicationEventBus implements ApplicationEventPublisher {
+
+    static final Logger logger = LoggerFactory.getLogger(ApplicationEventBus.class);
+
+    static final MethodType LISTENER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    // Max time to deliver queued events on close
+    static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    static final long POLL_MILLIS = 100;
+
+    class Listener {
+
+        final String name;
+        final String beanName;
+        // Non-public method is not forwarded by proxy, call it on the target bean
+        final boolean onTarget;
+        final MethodHandle handle;
+        final Class<?> eventType;
+        final int batchSize;
+        final BlockingQueue<Object> queue;
+        Thread thread;
+        // Sync events published before the bean is created
+        final List<Object> deferred = new ArrayList<>();
+
+        final LongAdder published = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder blockedPublishes = new LongAdder();
+        final LongAdder blockedNanos = new LongAdder();
+
+        Listener(String beanName, Method method, Class<?> eventType, EventListener anno, MethodHandle handle) {
+            this.name = beanName + "#" + method.getName();
+            this.beanName = beanName;
+            this.onTarget = !Modifier.isPublic(method.getModifiers());
+            this.handle = handle;
+            this.eventType = eventType;
+            this.batchSize = anno.batchSize();
+            this.queue = anno.async() ? new ArrayBlockingQueue<>(anno.queueCapacity()) : null;
+        }
+
+        void publish(Object event) {
+            this.published.increment();
+            if (this.queue == null) {
+                invoke(event, true);
+                return;
+            }
+            if (!this.queue.offer(event)) {
+                if (!started) {
+                    this.failed.increment();
+                    throw new NestedRuntimeException(String.format(
+                            "Queue of event listener %s is full before the context is refreshed.", this.name));
+                }
+                // Queue is full, block the publisher until the listener catches up
+                this.blockedPublishes.increment();
+                long start = System.nanoTime();
+                try {
+                    this.queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new NestedRuntimeException("Interrupted when publish event to " + this.name, e);
+                } finally {
+                    this.blockedNanos.add(System.nanoTime() - start);
+                }
+            }
+        }
+
+        void drain() {
+            List<Object> batch = new ArrayList<>(Math.min(this.batchSize, 256));
+            try {
+                while (true) {
+                    Object first = this.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closed) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (this.batchSize > 1) {
+                        batch.add(first);
+                        this.queue.drainTo(batch, this.batchSize - 1);
+                        invoke(List.copyOf(batch), false);
+                        batch.clear();
+                    } else {
+                        invoke(first, false);
+                    }
+                }
+            } catch (InterruptedException e) {
+                logger.warn("listener {} is interrupted with {} events not delivered.", this.name, this.queue.size());
+            }
+        }
+
+        void invoke(Object arg, boolean rethrow) {
+            int count = arg instanceof List<?> list && this.batchSize > 1 ? list.size() : 1;
+            Object bean = (this.onTarget ? targetLookup : beanLookup).apply(this.beanName);
+            if (bean == null) {
+                if (rethrow && defer(arg)) {
+                    return;
+                }
+                logger.warn("bean '{}' is not ready, skip event of listener {}.", this.beanName, this.name);
+                this.failed.add(count);
+                return;
+            }
+            try {
+                this.handle.invokeExact(bean, arg);
+                this.delivered.add(count);
+            } catch (Throwable t) {
+                this.failed.add(count);
+                if (rethrow) {
+                    if (t instanceof RuntimeException re) {
+                        throw re;
+                    }
+                    if (t instanceof Error err) {
+                        throw err;
+                    }
+                    throw new NestedRuntimeException("Exception in event listener " + this.name, t);
+                }
+                logger.warn("Exception in event listener " + this.name, t);
+            }
+        }
+
+        boolean defer(Object event) {
+            synchronized (this.deferred) {
+                if (started) {
+                    return false;
+                }
+                logger.atDebug().log("bean '{}' is not created, defer event of listener {}.", this.beanName,
+                        this.name);
+                this.deferred.add(event);
+                return true;
+            }
+        }
+
+        void deliverDeferred() {
+            List<Object> events;
+            synchronized (this.deferred) {
+                events = List.copyOf(this.deferred);
+                this.deferred.clear();
+            }
+            // The publisher is gone, exception is only logged
+            events.forEach(event -> invoke(event, false));
+        }
+
+        EventListenerMetrics getMetrics() {
+            return new EventListenerMetrics(this.name, this.queue != null,
+                    this.queue == null ? 0 : this.queue.size() + this.queue.remainingCapacity(),
+                    this.queue == null ? 0 : this.queue.size(), this.published.sum(), this.delivered.sum(),
+                    this.failed.sum(), this.blockedPublishes.sum(), this.blockedNanos.sum());
+        }
+    }
+
+    // Bean name -> instance, or null if the bean is not created
+    final Function<String, Object> beanLookup;
+    // Bean name -> instance before proxied, or null if the bean is not created
+    final Function<String, Object> targetLookup;
+    final List<Listener> listeners = new ArrayList<>();
+    // Publishers hold the read lock, so no event is queued after close
+    final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    volatile boolean started = false;
+    volatile boolean closed = false;
+
+    ApplicationEventBus(Collection<BeanDefinition> sortedDefs, Function<String, Object> beanLookup,
+            Function<String, Object> targetLookup) {
+        this.beanLookup = beanLookup;
+        this.targetLookup = targetLookup;
+        for (BeanDefinition def : sortedDefs) {
+            addListeners(def);
+        }
+    }
+
+    void addListeners(BeanDefinition def) {
+        Set<String> signatures = new HashSet<>();
+        for (Class<?> clazz = def.getBeanClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            for (Method m : clazz.getDeclaredMethods()) {
+                // Overridden method is found in subclass already
+                if (!signatures.add(m.getName() + Arrays.toString(m.getParameterTypes()))) {
+                    continue;
+                }
+                EventListener anno = m.getAnnotation(EventListener.class);
+                if (anno != null) {
+                    this.listeners.add(createListener(def, m, anno));
+                }
+            }
+        }
+    }
+
+    Listener createListener(BeanDefinition def, Method m, EventListener anno) {
+        if (Modifier.isStatic(m.getModifiers())) {
+            throw new BeanDefinitionException("Cannot use static method as event listener: " + m);
+        }
+        if (m.getParameterCount() != 1) {
+            throw new BeanDefinitionException("Event listener must have exactly one parameter: " + m);
+        }
+        if (anno.batchSize() < 1 || anno.queueCapacity() < 1) {
+            throw new BeanDefinitionException("Invalid batchSize or queueCapacity of event listener: " + m);
+        }
+        Class<?> eventType = m.getParameterTypes()[0];
+        if (anno.batchSize() > 1) {
+            if (!anno.async()) {
+                throw new BeanDefinitionException("Batch event listener must be async: " + m);
+            }
+            // List<E> -> E
+            Type paramType = m.getGenericParameterTypes()[0];
+            if (eventType != List.class || !(paramType instanceof ParameterizedType pt)
+                    || !(pt.getActualTypeArguments()[0] instanceof Class<?> elementType)) {
+                throw new BeanDefinitionException("Batch event listener must accept List<EventType>: " + m);
+            }
+            eventType = elementType;
+        }
+        try {
+            m.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(m).asType(LISTENER_TYPE);
+            logger.atDebug().log("found event listener: {}", m);
+            return new Listener(def.getName(), m, eventType, anno, handle);
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException("Cannot access event listener: " + m, e);
+        }
+    }
+
+    /**
+     * Start threads of async listeners and deliver deferred sync events, called
+     * after refresh.
+     */
+    void start() {
+        for (Listener listener : this.listeners) {
+            if (listener.queue != null) {
+                listener.thread = Thread.ofVirtual().name("winter-event-" + listener.name).start(listener::drain);
+            }
+        }
+        this.started = true;
+        for (Listener listener : this.listeners) {
+            if (listener.queue == null) {
+                listener.deliverDeferred();
+            }
+        }
+    }
+
+    @Override
+    public void publishEvent(Object event) {
+        this.closeLock.readLock().lock();
+        try {
+            if (this.closed) {
+                logger.warn("event bus is closed, drop event: {}", event);
+                return;
+            }
+            for (Listener listener : this.listeners) {
+                if (listener.eventType.isInstance(event)) {
+                    listener.publish(event);
+                }
+            }
+        } finally {
+            this.closeLock.readLock().unlock();
+        }
+    }
+
+    List<EventListenerMetrics> getMetrics() {
+        return this.listeners.stream().map(Listener::getMetrics).toList();
+    }
+
+    /**
+     * Deliver queued events and stop the threads.
+     */
+    void close() {
+        // Wait publishers in progress, the workers then drain all queued events
+        this.closeLock.writeLock().lock();
+        try {
+            this.closed = true;
+        } finally {
+            this.closeLock.writeLock().unlock();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        for (Listener listener : this.listeners) {
+            if (listener.thread == null) {
+                continue;
+            }
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !listener.thread.join(Duration.ofNanos(remaining))) {
+                    listener.thread.interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                listener.thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.kaiyikang.winter.context;
+
+public interface ApplicationEventPublisher {
+
+    /**
+     * Publish the event to all @EventListener methods accepting its type.
+     */
+    void publishEvent(Object event);
+}
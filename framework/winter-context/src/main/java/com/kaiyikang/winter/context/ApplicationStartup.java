@@ -0,0 +1,341 @@
+package com.kaiyikang.winter.context;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Timeline of context startup: duration of each phase, and time spent on each
+ * bean for creation, injection and init.
+ *
+ * Creation time of a bean is recorded in total (including the dependencies
+ * created by it) and self. The critical path is the dependency chain with the
+ * largest sum of self time.
+ */
+public class ApplicationStartup {
+
+    public record Phase(String name, long startNanos, long durationNanos) {
+    }
+
+    public record CriticalPath(List<String> beanNames, long nanos) {
+    }
+
+    public static class BeanStartup {
+
+        final String name;
+        // Phase in which the bean is created
+        String phase;
+        // Bean names of the creation stack, like: a;b;c
+        String path;
+        String thread;
+        long createNanos;
+        long createSelfNanos;
+        // Added by the workers of parallel refresh
+        final LongAdder injectNanos = new LongAdder();
+        final LongAdder initNanos = new LongAdder();
+
+        BeanStartup(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long getCreateNanos() {
+            return createNanos;
+        }
+
+        public long getCreateSelfNanos() {
+            return createSelfNanos;
+        }
+
+        public long getInjectNanos() {
+            return injectNanos.sum();
+        }
+
+        public long getInitNanos() {
+            return initNanos.sum();
+        }
+
+        /**
+         * Time spent on the bean itself, without its dependencies.
+         */
+        public long getSelfNanos() {
+            return createSelfNanos + getInjectNanos() + getInitNanos();
+        }
+    }
+
+    /**
+     * A running phase.
+     */
+    public class StartupStep {
+
+        final String name;
+        final long startNanos = System.nanoTime();
+
+        StartupStep(String name) {
+            this.name = name;
+            currentPhase = name;
+        }
+
+        public void end() {
+            phases.add(new Phase(name, startNanos - ApplicationStartup.this.startNanos,
+                    System.nanoTime() - startNanos));
+        }
+    }
+
+    // A bean being created on current thread
+    static class Frame {
+        final BeanStartup bean;
+        final long startNanos = System.nanoTime();
+        long childNanos = 0;
+
+        Frame(BeanStartup bean) {
+            this.bean = bean;
+        }
+    }
+
+    final long startNanos = System.nanoTime();
+    volatile long refreshNanos = -1;
+    volatile String currentPhase = "refresh";
+
+    final List<Phase> phases = new CopyOnWriteArrayList<>();
+    final Map<String, BeanStartup> beans = new ConcurrentHashMap<>();
+    final ThreadLocal<Deque<Frame>> creatingFrames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // Bean name -> names of the beans it depends on, supplied by the context
+    Supplier<Map<String, Set<String>>> dependenciesSupplier = Map::of;
+
+    public StartupStep start(String phase) {
+        return new StartupStep(phase);
+    }
+
+    void refreshEnded() {
+        this.refreshNanos = System.nanoTime() - this.startNanos;
+        this.currentPhase = "runtime";
+    }
+
+    void setDependenciesSupplier(Supplier<Map<String, Set<String>>> dependenciesSupplier) {
+        this.dependenciesSupplier = dependenciesSupplier;
+    }
+
+    void beanCreationStarted(String beanName) {
+        BeanStartup bean = this.beans.computeIfAbsent(beanName, BeanStartup::new);
+        Deque<Frame> frames = this.creatingFrames.get();
+        bean.phase = this.currentPhase;
+        bean.thread = Thread.currentThread().getName();
+        bean.path = frames.isEmpty() ? beanName : frames.peek().bean.path + ";" + beanName;
+        frames.push(new Frame(bean));
+    }
+
+    void beanCreationEnded() {
+        Deque<Frame> frames = this.creatingFrames.get();
+        Frame frame = frames.pop();
+        long total = System.nanoTime() - frame.startNanos;
+        frame.bean.createNanos = total;
+        frame.bean.createSelfNanos = total - frame.childNanos;
+        if (!frames.isEmpty()) {
+            frames.peek().childNanos += total;
+        }
+    }
+
+    void beanInjected(String beanName, long nanos) {
+        this.beans.computeIfAbsent(beanName, BeanStartup::new).injectNanos.add(nanos);
+    }
+
+    void beanInitialized(String beanName, long nanos) {
+        this.beans.computeIfAbsent(beanName, BeanStartup::new).initNanos.add(nanos);
+    }
+
+    /**
+     * Duration of refresh, or -1 if it is not finished.
+     */
+    public long getRefreshNanos() {
+        return this.refreshNanos;
+    }
+
+    public List<Phase> getPhases() {
+        return List.copyOf(this.phases);
+    }
+
+    /**
+     * Beans sorted by self time, the slowest first.
+     */
+    public List<BeanStartup> getBeans() {
+        return this.beans.values().stream().sorted(Comparator.comparingLong(BeanStartup::getSelfNanos).reversed())
+                .toList();
+    }
+
+    public CriticalPath getCriticalPath() {
+        Map<String, Set<String>> dependencies = this.dependenciesSupplier.get();
+        Map<String, CriticalPath> memo = new HashMap<>();
+        CriticalPath longest = new CriticalPath(List.of(), 0);
+        for (String name : this.beans.keySet()) {
+            CriticalPath path = getCriticalPath(name, dependencies, memo, new HashSet<>());
+            if (path.nanos() > longest.nanos()) {
+                longest = path;
+            }
+        }
+        return longest;
+    }
+
+    CriticalPath getCriticalPath(String name, Map<String, Set<String>> dependencies, Map<String, CriticalPath> memo,
+            Set<String> visiting) {
+        CriticalPath cached = memo.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        visiting.add(name);
+        CriticalPath longestDependency = new CriticalPath(List.of(), 0);
+        for (String dependsOn : dependencies.getOrDefault(name, Set.of())) {
+            // Ignore dependency cycle of fields and setters
+            if (visiting.contains(dependsOn)) {
+                continue;
+            }
+            CriticalPath path = getCriticalPath(dependsOn, dependencies, memo, visiting);
+            if (path.nanos() > longestDependency.nanos()) {
+                longestDependency = path;
+            }
+        }
+        visiting.remove(name);
+
+        BeanStartup bean = this.beans.get(name);
+        List<String> names = new ArrayList<>();
+        names.add(name);
+        names.addAll(longestDependency.beanNames());
+        CriticalPath path = new CriticalPath(List.copyOf(names),
+                (bean == null ? 0 : bean.getSelfNanos()) + longestDependency.nanos());
+        memo.put(name, path);
+        return path;
+    }
+
+    // Report
+    // ------
+
+    public String toJson() {
+        Map<String, Set<String>> dependencies = this.dependenciesSupplier.get();
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\n");
+        sb.append("  \"refreshMicros\": ").append(micros(this.refreshNanos)).append(",\n");
+        sb.append("  \"phases\": [");
+        List<Phase> phases = getPhases();
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"name\": ").append(quote(phase.name())).append(", \"startMicros\": ")
+                    .append(micros(phase.startNanos())).append(", \"durationMicros\": ")
+                    .append(micros(phase.durationNanos())).append("}");
+        }
+        sb.append("\n  ],\n");
+        sb.append("  \"beans\": [");
+        List<BeanStartup> beans = getBeans();
+        for (int i = 0; i < beans.size(); i++) {
+            BeanStartup bean = beans.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"name\": ").append(quote(bean.name)).append(", \"phase\": ").append(quote(bean.phase))
+                    .append(", \"thread\": ").append(quote(bean.thread)).append(", \"selfMicros\": ")
+                    .append(micros(bean.getSelfNanos())).append(", \"createMicros\": ")
+                    .append(micros(bean.createNanos)).append(", \"createSelfMicros\": ")
+                    .append(micros(bean.createSelfNanos)).append(", \"injectMicros\": ")
+                    .append(micros(bean.getInjectNanos())).append(", \"initMicros\": ")
+                    .append(micros(bean.getInitNanos()))
+                    .append(", \"dependencies\": [")
+                    .append(dependencies.getOrDefault(bean.name, Set.of()).stream().sorted()
+                            .map(ApplicationStartup::quote).collect(Collectors.joining(", ")))
+                    .append("]}");
+        }
+        sb.append("\n  ],\n");
+        CriticalPath criticalPath = getCriticalPath();
+        sb.append("  \"criticalPath\": {\"micros\": ").append(micros(criticalPath.nanos())).append(", \"beans\": [")
+                .append(criticalPath.beanNames().stream().map(ApplicationStartup::quote)
+                        .collect(Collectors.joining(", ")))
+                .append("]}\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Folded stacks for flame graph, one line per stack with value in
+     * microseconds, like: refresh;beans;a;b 1234
+     */
+    public String toFoldedStacks() {
+        StringBuilder sb = new StringBuilder(4096);
+        Set<String> beanPhases = new HashSet<>();
+        for (BeanStartup bean : getBeans()) {
+            if (bean.path != null) {
+                beanPhases.add(bean.phase);
+                sb.append("refresh;").append(bean.phase).append(';').append(bean.path).append(' ')
+                        .append(micros(bean.createSelfNanos)).append('\n');
+            }
+            if (bean.getInjectNanos() > 0) {
+                sb.append("refresh;injection;").append(bean.name).append(' ').append(micros(bean.getInjectNanos()))
+                        .append('\n');
+            }
+            if (bean.getInitNanos() > 0) {
+                sb.append("refresh;init;").append(bean.name).append(' ').append(micros(bean.getInitNanos()))
+                        .append('\n');
+            }
+        }
+        // Phases without bean, e.g. scan
+        for (Phase phase : getPhases()) {
+            if (!beanPhases.contains(phase.name()) && !phase.name().equals("injection")
+                    && !phase.name().equals("init")) {
+                sb.append("refresh;").append(phase.name()).append(' ').append(micros(phase.durationNanos()))
+                        .append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    static long micros(long nanos) {
+        return nanos < 0 ? nanos : nanos / 1000;
+    }
+
+    static String quote(String s) {
+        if (s == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -35,6 +35,9 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
     // Primary annotation
     private final boolean primary;
 
+    // Create on first use
+    private boolean lazy = false;
+
     private String initMethodName;
     private String destroyMethodName;
 
@@ -160,13 +163,21 @@ public class BeanDefinition implements Comparable<BeanDefinition> {
         return this.primary;
     }
 
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     @Override
     public String toString() {
         return "BeanDefinition [name=" + name + ", beanClass=" + beanClass.getName() + ", factory=" + getCreateDetail()
                 + ", init-method="
                 + (initMethod == null ? "null" : initMethod.getName()) + ", destroy-method="
                 + (destroyMethod == null ? "null" : destroyMethod.getName())
-                + ", primary=" + primary + ", instance=" + instance + "]";
+                + ", primary=" + primary + ", lazy=" + lazy + ", instance=" + instance + "]";
     }
 
     String getCreateDetail() {
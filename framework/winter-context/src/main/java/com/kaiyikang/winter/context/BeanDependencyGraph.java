@@ -0,0 +1,137 @@
+package com.kaiyikang.winter.context;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Executable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.context.InjectionMetadata.InjectionPoint;
+import com.kaiyikang.winter.exception.BeansException;
+import com.kaiyikang.winter.utils.ClassUtils;
+import com.kaiyikang.winter.utils.MergedAnnotations;
+
+/**
+ * Dependency graph of bean definitions.
+ *
+ * Strong dependencies come from the parameters of constructor or factory
+ * method, and the factory bean itself. Weak dependencies come from @Autowired
+ * fields and setters.
+ */
+class BeanDependencyGraph {
+
+    // Bean name -> names of the beans it depends on
+    final Map<String, Set<String>> strongDependencies = new HashMap<>();
+    final Map<String, Set<String>> weakDependencies = new HashMap<>();
+
+    BeanDependencyGraph(AnnotationConfigApplicationContext ctx, Collection<BeanDefinition> defs) {
+        for (BeanDefinition def : defs) {
+            Set<String> strong = new LinkedHashSet<>();
+            if (def.getFactoryName() != null) {
+                strong.add(def.getFactoryName());
+            }
+            Executable createFn = def.getFactoryMethod() == null ? def.getConstructor() : def.getFactoryMethod();
+            Class<?>[] paramTypes = createFn.getParameterTypes();
+            Annotation[][] paramsAnnos = MergedAnnotations.getParameterAnnotations(createFn);
+            for (int i = 0; i < paramTypes.length; i++) {
+                Autowired autowired = ClassUtils.getAnnotation(paramsAnnos[i], Autowired.class);
+                if (autowired != null) {
+                    addDependency(ctx, strong, autowired.name(), paramTypes[i]);
+                }
+            }
+            this.strongDependencies.put(def.getName(), strong);
+
+            Set<String> weak = new LinkedHashSet<>();
+            for (InjectionPoint point : InjectionMetadata.forClass(def.getBeanClass()).injectionPoints) {
+                if (point.autowiredName() != null) {
+                    addDependency(ctx, weak, point.autowiredName(), point.type());
+                }
+            }
+            this.weakDependencies.put(def.getName(), weak);
+        }
+    }
+
+    void addDependency(AnnotationConfigApplicationContext ctx, Set<String> names, String name, Class<?> type) {
+        try {
+            BeanDefinition dependsOnDef = name.isEmpty() ? ctx.findBeanDefinition(type)
+                    : ctx.findBeanDefinition(name, type);
+            if (dependsOnDef != null) {
+                names.add(dependsOnDef.getName());
+            }
+        } catch (BeansException e) {
+            // Unresolvable dependency is reported when the bean is created
+        }
+    }
+
+    /**
+     * Names of the beans that the bean depends on.
+     */
+    Set<String> getDependencies(String name, boolean includeWeak) {
+        Set<String> strong = this.strongDependencies.getOrDefault(name, Set.of());
+        if (!includeWeak) {
+            return strong;
+        }
+        Set<String> all = new LinkedHashSet<>(strong);
+        all.addAll(this.weakDependencies.getOrDefault(name, Set.of()));
+        return all;
+    }
+
+    /**
+     * All dependencies of all beans.
+     */
+    Map<String, Set<String>> getAllDependencies() {
+        Map<String, Set<String>> all = new HashMap<>();
+        this.strongDependencies.keySet().forEach(name -> all.put(name, getDependencies(name, true)));
+        return all;
+    }
+
+    /**
+     * Split sorted definitions into topological layers: every bean only depends
+     * on beans of previous layers. Dependencies out of the definitions are
+     * ignored. Beans in a dependency cycle are appended as single-bean layers in
+     * the original order.
+     */
+    List<List<BeanDefinition>> layers(List<BeanDefinition> defs, boolean includeWeak) {
+        Map<String, BeanDefinition> pending = new HashMap<>();
+        defs.forEach(def -> pending.put(def.getName(), def));
+
+        // Number of pending dependencies and reversed edges
+        Map<String, Integer> inDegrees = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (BeanDefinition def : defs) {
+            int inDegree = 0;
+            for (String dependsOn : getDependencies(def.getName(), includeWeak)) {
+                if (pending.containsKey(dependsOn) && !dependsOn.equals(def.getName())) {
+                    inDegree++;
+                    dependents.computeIfAbsent(dependsOn, k -> new ArrayList<>()).add(def.getName());
+                }
+            }
+            inDegrees.put(def.getName(), inDegree);
+        }
+
+        List<List<BeanDefinition>> layers = new ArrayList<>();
+        List<BeanDefinition> current = defs.stream().filter(def -> inDegrees.get(def.getName()) == 0).toList();
+        while (!current.isEmpty()) {
+            layers.add(current);
+            current.forEach(def -> pending.remove(def.getName()));
+            List<BeanDefinition> next = new ArrayList<>();
+            for (BeanDefinition def : current) {
+                for (String dependent : dependents.getOrDefault(def.getName(), List.of())) {
+                    if (inDegrees.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(pending.get(dependent));
+                    }
+                }
+            }
+            current = next.stream().sorted().toList();
+        }
+
+        // Cycle found, leave it to the circular dependency detection
+        defs.stream().filter(def -> pending.containsKey(def.getName())).forEach(def -> layers.add(List.of(def)));
+        return layers;
+    }
+}
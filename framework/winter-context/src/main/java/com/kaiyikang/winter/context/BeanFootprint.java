@@ -0,0 +1,11 @@
+package com.kaiyikang.winter.context;
+
+/**
+ * Estimated heap footprint of a bean. Shallow size is the bean instance
+ * itself; retained size includes all objects only reachable from this bean,
+ * objects shared with other beans are not included. Other beans referenced by
+ * this bean are never included.
+ */
+public record BeanFootprint(String name, String beanClass, long shallowBytes, long retainedBytes, long objectCount,
+        boolean truncated) {
+}
@@ -0,0 +1,252 @@
+package com.kaiyikang.winter.context;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimate heap footprint of beans by walking the object graph from each bean
+ * instance. The size of an object is estimated by a typical HotSpot layout
+ * (compressed class pointers, compressed oops when max heap is less than 32GB,
+ * 8 bytes alignment) without any agent.
+ *
+ * Fields of JDK classes are not accessible, so String, Collection and Map are
+ * walked by their public API and the internal nodes are estimated. Other beans,
+ * bean definitions, classes, class loaders and threads are never walked.
+ */
+final class BeanFootprintAnalyzer {
+
+    static final Logger logger = LoggerFactory.getLogger(BeanFootprintAnalyzer.class);
+
+    static final boolean COMPRESSED_OOPS = Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024;
+    static final int REFERENCE_SIZE = COMPRESSED_OOPS ? 4 : 8;
+    static final int OBJECT_HEADER_SIZE = 12;
+    static final int ARRAY_HEADER_SIZE = 16;
+    // Estimated node of HashMap, LinkedList, TreeMap...
+    static final int NODE_SIZE = 32;
+
+    // Walk at most objects for a bean
+    static final int DEFAULT_MAX_OBJECTS = 1_000_000;
+
+    static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected ClassLayout computeValue(Class<?> type) {
+            return new ClassLayout(type);
+        }
+    };
+
+    /**
+     * Shallow size and reference fields of a class, computed once per class.
+     * Reference fields are empty if the class is not accessible.
+     */
+    static final class ClassLayout {
+
+        final long shallowSize;
+        final List<Field> referenceFields;
+
+        ClassLayout(Class<?> type) {
+            long size = OBJECT_HEADER_SIZE;
+            List<Field> fields = new ArrayList<>();
+            boolean accessible = !type.getModule().isNamed();
+            for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+                for (Field f : clazz.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers())) {
+                        continue;
+                    }
+                    size += fieldSize(f.getType());
+                    if (accessible && !f.getType().isPrimitive() && f.trySetAccessible()) {
+                        fields.add(f);
+                    }
+                }
+            }
+            this.shallowSize = align(size);
+            this.referenceFields = List.copyOf(fields);
+        }
+    }
+
+    final int maxObjects;
+
+    BeanFootprintAnalyzer() {
+        this(DEFAULT_MAX_OBJECTS);
+    }
+
+    BeanFootprintAnalyzer(int maxObjects) {
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * Analyze footprint of created beans.
+     *
+     * @param beans Bean name -> instance to walk.
+     * @param stops Instances not to walk, e.g. all beans and proxies.
+     */
+    BeanFootprintReport analyze(Map<String, Object> beans, Set<Object> stops) {
+        // Object -> index of the only bean reaching it, or -1 if shared
+        Map<Object, Integer> owners = new IdentityHashMap<>();
+        List<String> names = new ArrayList<>(beans.keySet());
+        boolean[] truncated = new boolean[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            truncated[i] = walk(beans.get(names.get(i)), i, stops, owners);
+        }
+
+        long[] retained = new long[names.size()];
+        long[] counts = new long[names.size()];
+        long sharedBytes = 0;
+        long sharedObjectCount = 0;
+        for (Map.Entry<Object, Integer> entry : owners.entrySet()) {
+            long size = sizeOf(entry.getKey());
+            int owner = entry.getValue();
+            if (owner < 0) {
+                sharedBytes += size;
+                sharedObjectCount++;
+            } else {
+                retained[owner] += size;
+                counts[owner]++;
+            }
+        }
+
+        List<BeanFootprint> footprints = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            Object bean = beans.get(names.get(i));
+            footprints.add(new BeanFootprint(names.get(i), bean.getClass().getName(), sizeOf(bean), retained[i],
+                    counts[i], truncated[i]));
+        }
+        footprints.sort(Comparator.comparingLong(BeanFootprint::retainedBytes).reversed()
+                .thenComparing(BeanFootprint::name));
+        return new BeanFootprintReport(footprints, sharedBytes, sharedObjectCount);
+    }
+
+    /**
+     * Walk the graph of a bean and record owner of each reached object. Return
+     * true if walk is truncated by maxObjects.
+     */
+    boolean walk(Object bean, int index, Set<Object> stops, Map<Object, Integer> owners) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(bean);
+        visited.add(bean);
+        while (!stack.isEmpty()) {
+            if (visited.size() > this.maxObjects) {
+                logger.warn("footprint of bean {} is truncated at {} objects.", bean.getClass().getName(),
+                        this.maxObjects);
+                return true;
+            }
+            Object obj = stack.pop();
+            Integer owner = owners.get(obj);
+            owners.put(obj, owner == null || owner == index ? index : -1);
+            for (Object child : children(obj)) {
+                if (child != null && !stops.contains(child) && !isExcluded(child) && visited.add(child)) {
+                    stack.push(child);
+                }
+            }
+        }
+        return false;
+    }
+
+    List<Object> children(Object obj) {
+        Class<?> clazz = obj.getClass();
+        if (clazz.isArray()) {
+            if (clazz.getComponentType().isPrimitive()) {
+                return List.of();
+            }
+            return Arrays.asList((Object[]) obj);
+        }
+        if (clazz.getModule().isNamed()) {
+            // JDK classes: walk by public API
+            try {
+                if (obj instanceof Collection<?> c) {
+                    return new ArrayList<>(c);
+                }
+                if (obj instanceof Map<?, ?> m) {
+                    List<Object> list = new ArrayList<>(m.size() * 2);
+                    for (Map.Entry<?, ?> e : m.entrySet()) {
+                        list.add(e.getKey());
+                        list.add(e.getValue());
+                    }
+                    return list;
+                }
+            } catch (RuntimeException e) {
+                // Concurrent modification or unsupported view
+                logger.atDebug().log("cannot walk {}: {}", clazz.getName(), e.toString());
+            }
+            return List.of();
+        }
+        List<Field> fields = LAYOUTS.get(clazz).referenceFields;
+        List<Object> list = new ArrayList<>(fields.size());
+        for (Field f : fields) {
+            try {
+                list.add(f.get(obj));
+            } catch (IllegalAccessException e) {
+                // Skip inaccessible field
+            }
+        }
+        return list;
+    }
+
+    static boolean isExcluded(Object obj) {
+        return obj instanceof Class || obj instanceof ClassLoader || obj instanceof Thread
+                || obj instanceof ApplicationContext || obj instanceof BeanDefinition || obj instanceof Enum;
+    }
+
+    static long sizeOf(Object obj) {
+        Class<?> clazz = obj.getClass();
+        if (clazz.isArray()) {
+            Class<?> componentType = clazz.getComponentType();
+            return align(ARRAY_HEADER_SIZE + (long) Array.getLength(obj) * fieldSize(componentType));
+        }
+        long size = LAYOUTS.get(clazz).shallowSize;
+        if (obj instanceof String s) {
+            // Value array: latin1 or utf16
+            boolean latin1 = s.chars().allMatch(c -> c < 0x100);
+            size += align(ARRAY_HEADER_SIZE + (long) s.length() * (latin1 ? 1 : 2));
+        } else if (clazz.getModule().isNamed()) {
+            // Internal table and nodes
+            if (obj instanceof Map<?, ?> m) {
+                size += estimateTable(m.size()) + (long) m.size() * NODE_SIZE;
+            } else if (obj instanceof Collection<?> c) {
+                size += obj instanceof RandomAccess ? estimateTable(c.size())
+                        : estimateTable(c.size()) + (long) c.size() * NODE_SIZE;
+            }
+        }
+        return size;
+    }
+
+    static long estimateTable(int size) {
+        return size == 0 ? 0 : align(ARRAY_HEADER_SIZE + (long) Integer.highestOneBit(size) * 2 * REFERENCE_SIZE);
+    }
+
+    static int fieldSize(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return REFERENCE_SIZE;
+        }
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,77 @@
+package com.kaiyikang.winter.context;
+
+import java.util.List;
+
+/**
+ * Beans ranked by retained size, the largest first. Objects reachable from
+ * more than one bean are counted once in sharedBytes.
+ *
+ * All sizes are lower bounds: an object of a class in a named module, e.g. of
+ * the JDK other than String, Collection and Map, is counted by its shallow
+ * size only, since its fields are not accessible.
+ */
+public class BeanFootprintReport {
+
+    final List<BeanFootprint> beans;
+    final long sharedBytes;
+    final long sharedObjectCount;
+
+    BeanFootprintReport(List<BeanFootprint> beans, long sharedBytes, long sharedObjectCount) {
+        this.beans = List.copyOf(beans);
+        this.sharedBytes = sharedBytes;
+        this.sharedObjectCount = sharedObjectCount;
+    }
+
+    public List<BeanFootprint> getBeans() {
+        return beans;
+    }
+
+    public long getSharedBytes() {
+        return sharedBytes;
+    }
+
+    public long getSharedObjectCount() {
+        return sharedObjectCount;
+    }
+
+    public long getTotalBytes() {
+        return this.sharedBytes + this.beans.stream().mapToLong(BeanFootprint::retainedBytes).sum();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\n");
+        sb.append("  \"totalBytes\": ").append(getTotalBytes()).append(",\n");
+        sb.append("  \"sharedBytes\": ").append(this.sharedBytes).append(",\n");
+        sb.append("  \"sharedObjectCount\": ").append(this.sharedObjectCount).append(",\n");
+        sb.append("  \"beans\": [");
+        for (int i = 0; i < this.beans.size(); i++) {
+            BeanFootprint bean = this.beans.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"name\": ").append(ApplicationStartup.quote(bean.name())).append(", \"class\": ")
+                    .append(ApplicationStartup.quote(bean.beanClass())).append(", \"shallowBytes\": ")
+                    .append(bean.shallowBytes()).append(", \"retainedBytes\": ").append(bean.retainedBytes())
+                    .append(", \"objectCount\": ").append(bean.objectCount()).append(", \"truncated\": ")
+                    .append(bean.truncated()).append("}");
+        }
+        sb.append("\n  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Text table for log.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append(String.format("Bean footprint: total >= %d bytes, shared %d bytes in %d objects%n", getTotalBytes(),
+                this.sharedBytes, this.sharedObjectCount));
+        sb.append(String.format("%14s %10s %10s  %s%n", "retained", "shallow", "objects", "bean"));
+        for (BeanFootprint bean : this.beans) {
+            sb.append(String.format("%14d %10d %10d  %s (%s)%s%n", bean.retainedBytes(), bean.shallowBytes(),
+                    bean.objectCount(), bean.name(), bean.beanClass(), bean.truncated() ? " truncated" : ""));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.kaiyikang.winter.context;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.kaiyikang.winter.exception.NoUniqueBeanDefinitionException;
+import com.kaiyikang.winter.utils.MergedAnnotations;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Immutable index of bean definitions, built once the definitions are frozen.
+ *
+ * Every class, superclass and interface of a bean maps to the sorted
+ * definitions assignable to it, and its unique candidate is resolved in
+ * advance. Annotations on the bean class map to the sorted definitions.
+ */
+class BeanTypeIndex {
+
+    static final BeanTypeIndex EMPTY = new BeanTypeIndex(List.of());
+
+    /**
+     * Definitions of a type, and the candidate when autowired by type. If it is
+     * ambiguous, the candidate is null and the message is set.
+     */
+    record TypeEntry(List<BeanDefinition> definitions, BeanDefinition candidate, String ambiguity) {
+    }
+
+    final Map<Class<?>, TypeEntry> types;
+    final Map<Class<? extends Annotation>, List<BeanDefinition>> annotations;
+
+    BeanTypeIndex(Collection<BeanDefinition> defs) {
+        List<BeanDefinition> sorted = defs.stream().sorted().toList();
+
+        Map<Class<?>, List<BeanDefinition>> typeDefs = new HashMap<>();
+        Map<Class<? extends Annotation>, List<BeanDefinition>> annoDefs = new HashMap<>();
+        for (BeanDefinition def : sorted) {
+            for (Class<?> type : getAllTypes(def.getBeanClass())) {
+                typeDefs.computeIfAbsent(type, k -> new ArrayList<>()).add(def);
+            }
+            for (Annotation anno : MergedAnnotations.from(def.getBeanClass()).getAnnotations()) {
+                annoDefs.computeIfAbsent(anno.annotationType(), k -> new ArrayList<>()).add(def);
+            }
+        }
+
+        Map<Class<?>, TypeEntry> types = new HashMap<>();
+        typeDefs.forEach((type, list) -> types.put(type, createEntry(type, list)));
+        Map<Class<? extends Annotation>, List<BeanDefinition>> annotations = new HashMap<>();
+        annoDefs.forEach((annoType, list) -> annotations.put(annoType, List.copyOf(list)));
+
+        this.types = Map.copyOf(types);
+        this.annotations = Map.copyOf(annotations);
+    }
+
+    /**
+     * Sorted definitions assignable to the type.
+     */
+    List<BeanDefinition> getDefinitions(Class<?> type) {
+        TypeEntry entry = this.types.get(type);
+        return entry == null ? List.of() : entry.definitions();
+    }
+
+    /**
+     * The only definition or the @Primary one of the type, null if not found.
+     */
+    @Nullable
+    BeanDefinition getCandidate(Class<?> type) {
+        TypeEntry entry = this.types.get(type);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.ambiguity() != null) {
+            throw new NoUniqueBeanDefinitionException(entry.ambiguity());
+        }
+        return entry.candidate();
+    }
+
+    /**
+     * Sorted definitions whose bean class is annotated by the annotation.
+     */
+    List<BeanDefinition> getAnnotatedDefinitions(Class<? extends Annotation> annoClass) {
+        return this.annotations.getOrDefault(annoClass, List.of());
+    }
+
+    static TypeEntry createEntry(Class<?> type, List<BeanDefinition> defs) {
+        List<BeanDefinition> definitions = List.copyOf(defs);
+        if (definitions.size() == 1) {
+            return new TypeEntry(definitions, definitions.get(0), null);
+        }
+        List<BeanDefinition> primaryDefs = definitions.stream().filter(def -> def.isPrimary()).toList();
+        if (primaryDefs.size() == 1) {
+            return new TypeEntry(definitions, primaryDefs.get(0), null);
+        }
+        if (primaryDefs.isEmpty()) {
+            return new TypeEntry(definitions, null,
+                    String.format("Multiple bean with type '%s' found, but no @Primary specified.", type.getName()));
+        } else {
+            return new TypeEntry(definitions, null, String
+                    .format("Multiple bean with type '%s' found, and multiple @Primary specified.", type.getName()));
+        }
+    }
+
+    /**
+     * The class itself, all superclasses and all interfaces.
+     */
+    static Set<Class<?>> getAllTypes(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        addTypes(clazz, types);
+        // Every bean is assignable to Object, including interface types
+        types.add(Object.class);
+        return types;
+    }
+
+    static void addTypes(Class<?> clazz, Set<Class<?>> types) {
+        if (clazz == null || !types.add(clazz)) {
+            return;
+        }
+        addTypes(clazz.getSuperclass(), types);
+        for (Class<?> interfaceClass : clazz.getInterfaces()) {
+            addTypes(interfaceClass, types);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.kaiyikang.winter.context;
 
+import java.lang.annotation.Annotation;
 import java.util.List;
 
+import com.kaiyikang.winter.scheduling.ScheduledTaskMetrics;
+
 import jakarta.annotation.Nullable;
 
 public interface ConfigurableApplicationContext extends ApplicationContext {
@@ -17,5 +20,19 @@ public interface ConfigurableApplicationContext extends ApplicationContext {
     @Nullable
     BeanDefinition findBeanDefinition(String name, Class<?> requiredType);
 
+    List<BeanDefinition> findBeanDefinitionsByAnnotation(Class<? extends Annotation> annoClass);
+
     Object createBeanAsEarlySingleton(BeanDefinition def);
+
+    ApplicationStartup getApplicationStartup();
+
+    List<EventListenerMetrics> getEventListenerMetrics();
+
+    List<ScheduledTaskMetrics> getScheduledTaskMetrics();
+
+    /**
+     * Walk the object graph of each created bean and estimate its shallow and
+     * retained size. Lazy beans not created yet are skipped.
+     */
+    BeanFootprintReport analyzeBeanFootprint();
 }
@@ -0,0 +1,10 @@
+package com.kaiyikang.winter.context;
+
+/**
+ * Statistics of an @EventListener method. The queue fields are 0 for a
+ * synchronous listener; blockedPublishes and blockedNanos show the
+ * back-pressure of a full queue on publishers.
+ */
+public record EventListenerMetrics(String name, boolean async, int queueCapacity, int queueSize, long published,
+        long delivered, long failed, long blockedPublishes, long blockedNanos) {
+}
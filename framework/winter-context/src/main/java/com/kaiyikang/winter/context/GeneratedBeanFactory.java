@@ -0,0 +1,43 @@
+package com.kaiyikang.winter.context;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Factory of a component class generated at compile time by winter-codegen,
+ * which creates and injects the bean by plain Java code instead of reflection.
+ *
+ * The factory class is named by the binary class name of the component and the
+ * suffix, like: com.example.HelloService$$WinterFactory
+ */
+public interface GeneratedBeanFactory {
+
+    String CLASS_NAME_SUFFIX = "$$WinterFactory";
+
+    /**
+     * Create instance by the constructor with resolved arguments.
+     */
+    Object newInstance(Object[] args) throws Exception;
+
+    /**
+     * Call the @Bean method of configuration with resolved arguments.
+     */
+    Object invokeFactoryMethod(Object configuration, String methodName, Object[] args) throws Exception;
+
+    /**
+     * Inject @Value and @Autowired fields and setters, from the class to its
+     * superclasses.
+     */
+    void inject(Object bean, InjectionResolver resolver) throws Exception;
+
+    @FunctionalInterface
+    interface InjectionResolver {
+
+        /**
+         * Resolve the value of @Value (propertyExpr is not null) or @Autowired,
+         * return null to skip the injection.
+         */
+        @Nullable
+        Object resolve(Class<?> type, @Nullable String propertyExpr, @Nullable String autowiredName, boolean required,
+                String target);
+    }
+}
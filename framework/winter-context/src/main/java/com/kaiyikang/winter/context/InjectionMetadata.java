@@ -0,0 +1,127 @@
+package com.kaiyikang.winter.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Value;
+import com.kaiyikang.winter.exception.BeanCreationException;
+import com.kaiyikang.winter.exception.BeanDefinitionException;
+
+/**
+ * Injection points of a class: @Value and @Autowired fields and setters of the
+ * class and its superclasses, computed once per class.
+ */
+final class InjectionMetadata {
+
+    static final Logger logger = LoggerFactory.getLogger(InjectionMetadata.class);
+
+    static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    static final ClassValue<InjectionMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected InjectionMetadata computeValue(Class<?> type) {
+            return new InjectionMetadata(type);
+        }
+    };
+
+    /**
+     * A field or setter to inject. The property expression is set for @Value,
+     * otherwise the autowired bean name (may be empty) and required are set. The
+     * setter has type (Object, Object)void.
+     */
+    record InjectionPoint(Class<?> declaringClass, Member member, Class<?> type, String propertyExpr,
+            String autowiredName, boolean required, MethodHandle setter) {
+    }
+
+    final List<InjectionPoint> injectionPoints;
+
+    static InjectionMetadata forClass(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    private InjectionMetadata(Class<?> beanClass) {
+        List<InjectionPoint> points = new ArrayList<>();
+        // Fields then methods, from the class to its superclasses
+        for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field f : clazz.getDeclaredFields()) {
+                addInjectionPoint(points, clazz, f);
+            }
+            for (Method m : clazz.getDeclaredMethods()) {
+                addInjectionPoint(points, clazz, m);
+            }
+        }
+        this.injectionPoints = List.copyOf(points);
+    }
+
+    void addInjectionPoint(List<InjectionPoint> points, Class<?> clazz, AccessibleObject acc) {
+        Value value = acc.getAnnotation(Value.class);
+        Autowired autowired = acc.getAnnotation(Autowired.class);
+        if (value == null && autowired == null) {
+            return;
+        }
+
+        // Validate: @Value and @Autowired
+        if (value != null && autowired != null) {
+            throw new BeanCreationException(String.format("Cannot specify both @Autowired and @Value on %s", acc));
+        }
+
+        Member member;
+        Class<?> type; // Field type or method parameter type
+        MethodHandle setter;
+        try {
+            if (acc instanceof Field f) {
+                checkFieldOrMethod(f);
+                f.setAccessible(true);
+                member = f;
+                type = f.getType();
+                setter = MethodHandles.lookup().unreflectSetter(f);
+            } else if (acc instanceof Method m) {
+                checkFieldOrMethod(m);
+                if (m.getParameterCount() != 1) {
+                    throw new BeanDefinitionException("Cannot inject a non-setter method with "
+                            + m.getParameterCount() + " parameters: " + m.getName());
+                }
+                m.setAccessible(true);
+                member = m;
+                type = m.getParameterTypes()[0];
+                setter = MethodHandles.lookup().unreflect(m);
+            } else {
+                return;
+            }
+        } catch (IllegalAccessException e) {
+            throw new BeanCreationException(e);
+        }
+
+        points.add(new InjectionPoint(clazz, member, type, value == null ? null : value.value(),
+                autowired == null ? null : autowired.name(), autowired != null && autowired.value(),
+                setter.asType(SETTER_TYPE)));
+    }
+
+    static void checkFieldOrMethod(Member m) {
+        int mod = m.getModifiers();
+        if (Modifier.isStatic(mod)) {
+            throw new BeanDefinitionException("Cannot inject static field: " + m);
+        }
+        if (Modifier.isFinal(mod)) {
+            if (m instanceof Field field) {
+                throw new BeanDefinitionException("Cannot inject final field: " + field);
+            }
+            if (m instanceof Method) {
+                logger.warn(
+                        "Inject final method should be careful because it is not called on target bean when bean is proxied and may cause NullPointerException.");
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.kaiyikang.winter.context;
+
+import java.util.function.Supplier;
+
+/**
+ * Create proxy for lazy bean which is injected into other beans, so the target
+ * is created on first call. Implementations are loaded by ServiceLoader.
+ */
+public interface LazyBeanProxyFactory {
+
+    /**
+     * Check if the proxy of bean class can be created.
+     */
+    boolean isProxyable(Class<?> beanClass);
+
+    /**
+     * Create proxy of bean class which calls the target from supplier.
+     */
+    Object createLazyProxy(Class<?> beanClass, Supplier<Object> targetSupplier);
+}
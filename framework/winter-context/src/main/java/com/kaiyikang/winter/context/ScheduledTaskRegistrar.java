@@ -0,0 +1,166 @@
+package com.kaiyikang.winter.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kaiyikang.winter.annotation.Scheduled;
+import com.kaiyikang.winter.exception.BeanDefinitionException;
+import com.kaiyikang.winter.exception.NestedRuntimeException;
+import com.kaiyikang.winter.io.PropertyResolver;
+import com.kaiyikang.winter.scheduling.CronExpression;
+import com.kaiyikang.winter.scheduling.ScheduledTaskMetrics;
+import com.kaiyikang.winter.scheduling.TaskScheduler;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Find @Scheduled methods on bean definitions, and schedule them on a shared
+ * TaskScheduler after refresh. No scheduler thread is created if there is no
+ * @Scheduled method.
+ */
+class ScheduledTaskRegistrar {
+
+    static final Logger logger = LoggerFactory.getLogger(ScheduledTaskRegistrar.class);
+
+    static final MethodType TASK_TYPE = MethodType.methodType(void.class, Object.class);
+
+    /**
+     * @param onTarget Non-public or final method is not forwarded by proxy, so
+     *                 it is called on the target bean.
+     */
+    record ScheduledMethod(String beanName, Method method, MethodHandle handle, Scheduled scheduled,
+            CronExpression cron, boolean onTarget) {
+    }
+
+    // Bean name -> instance, or null if the bean is not created
+    final Function<String, Object> beanLookup;
+    // Bean name -> target instance of proxy, or null if the bean is not created
+    final Function<String, Object> targetLookup;
+    final List<ScheduledMethod> scheduledMethods = new ArrayList<>();
+    TaskScheduler scheduler;
+
+    ScheduledTaskRegistrar(Collection<BeanDefinition> sortedDefs, Function<String, Object> beanLookup,
+            Function<String, Object> targetLookup, @Nullable PropertyResolver propertyResolver) {
+        this.beanLookup = beanLookup;
+        this.targetLookup = targetLookup;
+        for (BeanDefinition def : sortedDefs) {
+            Set<String> signatures = new HashSet<>();
+            for (Class<?> clazz = def.getBeanClass(); clazz != null; clazz = clazz.getSuperclass()) {
+                for (Method m : clazz.getDeclaredMethods()) {
+                    // Overridden method is found in subclass already
+                    if (!signatures.add(m.getName() + Arrays.toString(m.getParameterTypes()))) {
+                        continue;
+                    }
+                    Scheduled scheduled = m.getAnnotation(Scheduled.class);
+                    if (scheduled != null) {
+                        this.scheduledMethods.add(createScheduledMethod(def, m, scheduled, propertyResolver));
+                    }
+                }
+            }
+        }
+    }
+
+    ScheduledMethod createScheduledMethod(BeanDefinition def, Method m, Scheduled scheduled,
+            @Nullable PropertyResolver propertyResolver) {
+        if (Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 0) {
+            throw new BeanDefinitionException("@Scheduled method must be non-static without parameter: " + m);
+        }
+        int triggers = (scheduled.fixedRate() > 0 ? 1 : 0) + (scheduled.fixedDelay() > 0 ? 1 : 0)
+                + (scheduled.cron().isEmpty() ? 0 : 1);
+        if (triggers != 1) {
+            throw new BeanDefinitionException(
+                    "@Scheduled method must have exactly one of positive fixedRate, fixedDelay or cron: " + m);
+        }
+        CronExpression cron = null;
+        if (!scheduled.cron().isEmpty()) {
+            String expression = scheduled.cron();
+            if (propertyResolver != null && expression.contains("${")) {
+                expression = propertyResolver.getRequiredProperty(expression);
+            }
+            try {
+                cron = CronExpression.parse(expression);
+            } catch (IllegalArgumentException e) {
+                throw new BeanDefinitionException("Invalid cron of @Scheduled method: " + m, e);
+            }
+        }
+        try {
+            m.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(m).asType(TASK_TYPE);
+            logger.atDebug().log("found scheduled method: {}", m);
+            int mod = m.getModifiers();
+            return new ScheduledMethod(def.getName(), m, handle, scheduled, cron,
+                    !Modifier.isPublic(mod) || Modifier.isFinal(mod));
+        } catch (IllegalAccessException e) {
+            throw new BeanDefinitionException("Cannot access scheduled method: " + m, e);
+        }
+    }
+
+    /**
+     * Create the scheduler and schedule all methods, called after refresh. Use
+     * virtual thread per task if poolSize is 0.
+     */
+    void start(int poolSize, long tickMillis, int ticksPerWheel) {
+        if (this.scheduledMethods.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = poolSize > 0
+                ? Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("winter-scheduler-", 0).factory())
+                : Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("winter-scheduler-", 0).factory());
+        this.scheduler = new TaskScheduler(executor, tickMillis, TimeUnit.MILLISECONDS, ticksPerWheel);
+        for (ScheduledMethod sm : this.scheduledMethods) {
+            String name = sm.beanName() + "#" + sm.method().getName();
+            Runnable task = () -> invoke(sm);
+            Scheduled scheduled = sm.scheduled();
+            if (sm.cron() != null) {
+                this.scheduler.schedule(name, task, sm.cron());
+            } else if (scheduled.fixedRate() > 0) {
+                this.scheduler.scheduleAtFixedRate(name, task, scheduled.initialDelay(), scheduled.fixedRate(),
+                        scheduled.timeUnit());
+            } else {
+                this.scheduler.scheduleWithFixedDelay(name, task, scheduled.initialDelay(), scheduled.fixedDelay(),
+                        scheduled.timeUnit());
+            }
+        }
+        logger.info("{} scheduled tasks started.", this.scheduledMethods.size());
+    }
+
+    void invoke(ScheduledMethod sm) {
+        Object bean = (sm.onTarget() ? this.targetLookup : this.beanLookup).apply(sm.beanName());
+        if (bean == null) {
+            throw new NestedRuntimeException("Bean '" + sm.beanName() + "' is not ready.");
+        }
+        try {
+            sm.handle().invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new NestedRuntimeException(t);
+        }
+    }
+
+    List<ScheduledTaskMetrics> getMetrics() {
+        return this.scheduler == null ? List.of() : this.scheduler.getMetrics();
+    }
+
+    void close() {
+        if (this.scheduler != null) {
+            this.scheduler.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.kaiyikang.winter.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Component index generated by {@link ComponentIndexProcessor} at compile
+ * time.
+ *
+ * Indexes are kept by the classpath root containing them, e.g. a jar or a
+ * classes directory. A root without index, e.g. compiled without the
+ * processor, is still scanned on the classpath. Set property
+ * "winter.index.ignore" to true to disable the index.
+ */
+public class ComponentIndex {
+
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/winter.components";
+
+    static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+    // Root URL -> class names indexed in the root
+    final Map<String, Set<String>> roots;
+
+    ComponentIndex(Map<String, Set<String>> roots) {
+        this.roots = roots;
+    }
+
+    /**
+     * Load all indexes on the classpath, return null if no index is found.
+     */
+    @Nullable
+    public static ComponentIndex load(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            Map<String, Set<String>> roots = new LinkedHashMap<>();
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                logger.atDebug().log("load component index: {}", url);
+                Set<String> classNames = roots.computeIfAbsent(getRootUrl(url), k -> new LinkedHashSet<>());
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.strip();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            classNames.add(line);
+                        }
+                    }
+                }
+            }
+            return new ComponentIndex(roots);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get root URL of the index, e.g. "jar:file:/app.jar!/" for
+     * "jar:file:/app.jar!/META-INF/winter.components".
+     */
+    static String getRootUrl(URL indexUrl) {
+        String url = indexUrl.toString();
+        return url.substring(0, url.length() - COMPONENTS_RESOURCE_LOCATION.length());
+    }
+
+    /**
+     * Get class names of indexed components of the root in the package and
+     * its sub-packages, or null if the root has no index.
+     *
+     * @param rootUrl Root URL in the form of ResourceResolver.getRootUrl().
+     */
+    @Nullable
+    public List<String> getCandidateClassNames(String rootUrl, String basePackage) {
+        Set<String> classNames = this.roots.get(rootUrl);
+        return classNames == null ? null : filter(classNames, basePackage);
+    }
+
+    /**
+     * Get class names of indexed components of all roots in the package and
+     * its sub-packages.
+     */
+    public List<String> getCandidateClassNames(String basePackage) {
+        List<String> list = new ArrayList<>();
+        for (Set<String> classNames : this.roots.values()) {
+            list.addAll(filter(classNames, basePackage));
+        }
+        return list;
+    }
+
+    static List<String> filter(Set<String> classNames, String basePackage) {
+        String prefix = basePackage + ".";
+        List<String> list = new ArrayList<>();
+        for (String className : classNames) {
+            if (className.startsWith(prefix)) {
+                list.add(className);
+            }
+        }
+        return list;
+    }
+}
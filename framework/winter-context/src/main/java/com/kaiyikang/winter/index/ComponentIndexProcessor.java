@@ -0,0 +1,181 @@
+package com.kaiyikang.winter.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor which writes all classes annotated with @Component
+ * (directly or by meta-annotation) to META-INF/winter.components, so the
+ * context does not need to walk the classpath at startup. The index of a
+ * previous build is merged, so an incremental build keeps the components of
+ * the classes not compiled again.
+ *
+ * The processor is registered in META-INF/services of winter-context, so javac
+ * runs it when winter-context is on the classpath and processors are
+ * discovered (-proc:full on JDK 23 and later). It only runs for a compilation
+ * using @Component or @Configuration, and never claims them. Then all root
+ * elements are checked, so classes with a stereotype meta-annotated with
+ * @Component in the same compilation are indexed too. A stereotype of another
+ * library must be passed by option, e.g.
+ * -Awinter.index.annotations=com.example.Service,com.example.Repository
+ *
+ * To opt out, compile with -proc:none, or name the processors to run by
+ * -processor (or annotationProcessors of maven-compiler-plugin), which
+ * disables discovery. Without an index the context scans the classpath.
+ */
+@SupportedAnnotationTypes({ ComponentIndexProcessor.COMPONENT_ANNOTATION,
+        ComponentIndexProcessor.CONFIGURATION_ANNOTATION })
+@SupportedOptions(ComponentIndexProcessor.ANNOTATIONS_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    static final String COMPONENT_ANNOTATION = "com.kaiyikang.winter.annotation.Component";
+    static final String CONFIGURATION_ANNOTATION = "com.kaiyikang.winter.annotation.Configuration";
+    // Comma separated stereotypes declared out of the compilation
+    static final String ANNOTATIONS_OPTION = "winter.index.annotations";
+
+    // Sorted to make the generated file stable between builds
+    final Set<String> components = new TreeSet<>();
+    // All types compiled in this build, their entries of an existing index are replaced
+    final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> types = new LinkedHashSet<>(super.getSupportedAnnotationTypes());
+        String option = processingEnv == null ? null : processingEnv.getOptions().get(ANNOTATIONS_OPTION);
+        if (option != null) {
+            for (String type : option.split(",")) {
+                if (!type.isBlank()) {
+                    types.add(type.strip());
+                }
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            collect(element);
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // Never claim the annotations, other processors may need them
+        return false;
+    }
+
+    void collect(Element element) {
+        if (!(element instanceof TypeElement type)) {
+            return;
+        }
+        // Binary name keeps '$' of nested class, e.g. OuterBean$NestedBean
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        compiledTypes.add(binaryName);
+        if (type.getKind() == ElementKind.CLASS && isComponent(type, new HashSet<>())) {
+            components.add(binaryName);
+        }
+        // Nested classes are not root elements
+        for (Element enclosed : type.getEnclosedElements()) {
+            collect(enclosed);
+        }
+    }
+
+    boolean isComponent(Element element, Set<String> visited) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annoType = (TypeElement) mirror.getAnnotationType().asElement();
+            String annoName = annoType.getQualifiedName().toString();
+            if (annoName.equals(COMPONENT_ANNOTATION)) {
+                return true;
+            }
+            if (annoName.startsWith("java.lang.annotation.")) {
+                continue;
+            }
+            // Search meta-annotations, e.g. @Configuration -> @Component
+            if (visited.add(annoName) && isComponent(annoType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the index of the previous build, which is incomplete in an
+     * incremental build. Entries of the types compiled in this build or
+     * removed are dropped. Return null if there is no existing index.
+     */
+    Set<String> readExistingIndex() {
+        Set<String> existing = null;
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    ComponentIndex.COMPONENTS_RESOURCE_LOCATION);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                existing = new TreeSet<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.strip();
+                    if (!line.isEmpty() && !line.startsWith("#") && !compiledTypes.contains(line)
+                            && exists(line)) {
+                        existing.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No index of previous build
+        }
+        return existing;
+    }
+
+    boolean exists(String binaryName) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+        return type != null;
+    }
+
+    void writeIndex() {
+        Set<String> merged = readExistingIndex();
+        if (merged == null) {
+            if (components.isEmpty()) {
+                return;
+            }
+            merged = new TreeSet<>();
+        }
+        // Rewrite an existing index even if empty, its components may be removed
+        merged.addAll(components);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ComponentIndex.COMPONENTS_RESOURCE_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + ", do not edit.\n");
+                for (String className : merged) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write " + ComponentIndex.COMPONENTS_RESOURCE_LOCATION + ": " + e);
+        }
+    }
+}
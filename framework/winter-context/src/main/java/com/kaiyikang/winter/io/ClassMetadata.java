@@ -0,0 +1,36 @@
+package com.kaiyikang.winter.io;
+
+import java.util.List;
+
+/**
+ * Class info parsed from .class file without loading the class.
+ *
+ * Names are binary class names, like: com.example.Outer$Inner
+ */
+public record ClassMetadata(String className, int accessFlags, String superClassName, List<String> annotationNames) {
+
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ABSTRACT = 0x0400;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (accessFlags & ACC_ENUM) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (accessFlags & ACC_ABSTRACT) != 0;
+    }
+
+    public boolean isRecord() {
+        return "java.lang.Record".equals(superClassName);
+    }
+}
@@ -0,0 +1,235 @@
+package com.kaiyikang.winter.io;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Read class metadata by parsing the bytes of .class file, so the scanned
+ * class is neither defined nor initialized.
+ *
+ * Only the constant pool, the class header and the RuntimeVisibleAnnotations
+ * attribute of class are parsed.
+ */
+public class ClassMetadataReader {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    final ClassLoader classLoader;
+
+    // Annotation class name -> target annotation present (directly or by meta)
+    final Map<String, Map<String, Boolean>> metaAnnotationCache = new HashMap<>();
+
+    public ClassMetadataReader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Read metadata of class, return null if .class file not found.
+     */
+    @Nullable
+    public ClassMetadata read(String className) {
+        String path = className.replace('.', '/') + ".class";
+        try (InputStream input = this.classLoader.getResourceAsStream(path)) {
+            if (input == null) {
+                return null;
+            }
+            return parse(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Check if the class is annotated by target annotation, directly or by
+     * meta-annotation. Return true if any annotation class cannot be read, so
+     * that the caller falls back to check by reflection.
+     */
+    public boolean isAnnotated(ClassMetadata metadata, String targetAnnotationName) {
+        Map<String, Boolean> cache = this.metaAnnotationCache.computeIfAbsent(targetAnnotationName,
+                k -> new HashMap<>());
+        for (String annoName : metadata.annotationNames()) {
+            Set<String> visited = new HashSet<>();
+            if (isAnnotation(annoName, targetAnnotationName, cache, visited)) {
+                return true;
+            }
+            // The walk is completed without target, so no visited annotation has it
+            for (String name : visited) {
+                cache.put(name, false);
+            }
+        }
+        return false;
+    }
+
+    boolean isAnnotation(String annoName, String targetAnnotationName, Map<String, Boolean> cache,
+            Set<String> visited) {
+        if (annoName.equals(targetAnnotationName)) {
+            return true;
+        }
+        if (annoName.startsWith("java.lang.annotation.") || !visited.add(annoName)) {
+            return false;
+        }
+        Boolean cached = cache.get(annoName);
+        if (cached != null) {
+            return cached;
+        }
+        ClassMetadata annoMetadata = read(annoName);
+        if (annoMetadata == null) {
+            logger.atDebug().log("cannot read annotation class: {}", annoName);
+            return true;
+        }
+        for (String metaAnnoName : annoMetadata.annotationNames()) {
+            if (isAnnotation(metaAnnoName, targetAnnotationName, cache, visited)) {
+                cache.put(annoName, true);
+                return true;
+            }
+        }
+        // Not cached here: false may be cut by a cycle through an annotation still in the walk
+        return false;
+    }
+
+    // Parse class file
+    // ----------------
+
+    static final int CONSTANT_UTF8 = 1;
+    static final int CONSTANT_INTEGER = 3;
+    static final int CONSTANT_FLOAT = 4;
+    static final int CONSTANT_LONG = 5;
+    static final int CONSTANT_DOUBLE = 6;
+    static final int CONSTANT_CLASS = 7;
+    static final int CONSTANT_STRING = 8;
+    static final int CONSTANT_FIELDREF = 9;
+    static final int CONSTANT_METHODREF = 10;
+    static final int CONSTANT_INTERFACE_METHODREF = 11;
+    static final int CONSTANT_NAME_AND_TYPE = 12;
+    static final int CONSTANT_METHOD_HANDLE = 15;
+    static final int CONSTANT_METHOD_TYPE = 16;
+    static final int CONSTANT_DYNAMIC = 17;
+    static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    static final int CONSTANT_MODULE = 19;
+    static final int CONSTANT_PACKAGE = 20;
+
+    public static ClassMetadata parse(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != 0xCAFEBABE) {
+            throw new IOException("Invalid class file.");
+        }
+        // minor and major version
+        input.skipNBytes(4);
+
+        // --- Constant pool, keep utf8 strings and class name index only ---
+        int poolCount = input.readUnsignedShort();
+        String[] utf8s = new String[poolCount];
+        int[] classNameIndexes = new int[poolCount];
+        for (int i = 1; i < poolCount; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8 -> utf8s[i] = input.readUTF();
+                case CONSTANT_CLASS -> classNameIndexes[i] = input.readUnsignedShort();
+                case CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> input.skipNBytes(2);
+                case CONSTANT_METHOD_HANDLE -> input.skipNBytes(3);
+                case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF,
+                        CONSTANT_INTERFACE_METHODREF, CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC,
+                        CONSTANT_INVOKE_DYNAMIC ->
+                    input.skipNBytes(4);
+                case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                    // 8-byte constants take two entries
+                    input.skipNBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Invalid constant pool tag: " + tag);
+            }
+        }
+
+        // --- Class header ---
+        int accessFlags = input.readUnsignedShort();
+        String className = toClassName(utf8s[classNameIndexes[input.readUnsignedShort()]]);
+        int superIndex = input.readUnsignedShort();
+        String superClassName = superIndex == 0 ? null : toClassName(utf8s[classNameIndexes[superIndex]]);
+        int interfaceCount = input.readUnsignedShort();
+        input.skipNBytes(2L * interfaceCount);
+
+        // --- Skip fields and methods ---
+        for (int n = 0; n < 2; n++) {
+            int memberCount = input.readUnsignedShort();
+            for (int i = 0; i < memberCount; i++) {
+                // access_flags, name_index, descriptor_index
+                input.skipNBytes(6);
+                skipAttributes(input);
+            }
+        }
+
+        // --- Class attributes ---
+        List<String> annotationNames = new ArrayList<>();
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8s[input.readUnsignedShort()];
+            int length = input.readInt();
+            if (!"RuntimeVisibleAnnotations".equals(attributeName)) {
+                input.skipNBytes(length);
+                continue;
+            }
+            int annotationCount = input.readUnsignedShort();
+            for (int j = 0; j < annotationCount; j++) {
+                // Descriptor like: Lcom/example/Component;
+                String descriptor = utf8s[input.readUnsignedShort()];
+                annotationNames.add(toClassName(descriptor.substring(1, descriptor.length() - 1)));
+                skipElementValuePairs(input);
+            }
+        }
+        return new ClassMetadata(className, accessFlags, superClassName, List.copyOf(annotationNames));
+    }
+
+    static void skipAttributes(DataInputStream input) throws IOException {
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            input.skipNBytes(2);
+            input.skipNBytes(Integer.toUnsignedLong(input.readInt()));
+        }
+    }
+
+    static void skipElementValuePairs(DataInputStream input) throws IOException {
+        int pairCount = input.readUnsignedShort();
+        for (int i = 0; i < pairCount; i++) {
+            // element_name_index
+            input.skipNBytes(2);
+            skipElementValue(input);
+        }
+    }
+
+    static void skipElementValue(DataInputStream input) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> input.skipNBytes(2);
+            case 'e' -> input.skipNBytes(4);
+            case '@' -> {
+                // type_index
+                input.skipNBytes(2);
+                skipElementValuePairs(input);
+            }
+            case '[' -> {
+                int count = input.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(input);
+                }
+            }
+            default -> throw new IOException("Invalid element value tag: " + (char) tag);
+        }
+    }
+
+    static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+}
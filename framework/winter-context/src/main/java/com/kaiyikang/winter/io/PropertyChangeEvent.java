@@ -0,0 +1,13 @@
+package com.kaiyikang.winter.io;
+
+import java.util.Set;
+
+/**
+ * Keys added, changed or removed by a reload.
+ */
+public record PropertyChangeEvent(PropertyResolver source, Set<String> changedKeys) {
+
+    public boolean isChanged(String key) {
+        return this.changedKeys.contains(key);
+    }
+}
@@ -0,0 +1,12 @@
+package com.kaiyikang.winter.io;
+
+/**
+ * Called after properties are reloaded and any of them is changed. Beans
+ * implementing it are registered by the context automatically, so they can
+ * re-bind values from the resolver.
+ */
+@FunctionalInterface
+public interface PropertyChangeListener {
+
+    void onPropertyChange(PropertyChangeEvent event);
+}
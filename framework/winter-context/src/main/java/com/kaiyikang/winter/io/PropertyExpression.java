@@ -0,0 +1,130 @@
+package com.kaiyikang.winter.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Compiled property string: text, placeholder like ${key:default}, or text
+ * mixed with placeholders. Key and default of a placeholder are expressions
+ * too, so ${a:${b:c}} and ${${prefix}.host} are supported.
+ */
+sealed interface PropertyExpression {
+
+    /**
+     * Evaluate by the snapshot, throw NullPointerException if a required
+     * property is not found.
+     */
+    String evaluate(PropertySnapshot snapshot);
+
+    record Literal(String text) implements PropertyExpression {
+
+        @Override
+        public String evaluate(PropertySnapshot snapshot) {
+            return text;
+        }
+    }
+
+    record Placeholder(PropertyExpression key, @Nullable PropertyExpression defaultValue)
+            implements PropertyExpression {
+
+        @Override
+        public String evaluate(PropertySnapshot snapshot) {
+            String k = key.evaluate(snapshot);
+            String value = snapshot.getPropertyValue(k);
+            if (value != null) {
+                return value;
+            }
+            if (defaultValue != null) {
+                return defaultValue.evaluate(snapshot);
+            }
+            return Objects.requireNonNull(value, "Property '" + k + "' not found.");
+        }
+    }
+
+    record Composite(List<PropertyExpression> parts) implements PropertyExpression {
+
+        @Override
+        public String evaluate(PropertySnapshot snapshot) {
+            StringBuilder sb = new StringBuilder();
+            for (PropertyExpression part : parts) {
+                sb.append(part.evaluate(snapshot));
+            }
+            return sb.toString();
+        }
+    }
+
+    static PropertyExpression compile(String s) {
+        List<PropertyExpression> parts = new ArrayList<>();
+        int pos = 0;
+        while (pos < s.length()) {
+            int start = s.indexOf("${", pos);
+            int end = start == -1 ? -1 : findClosingBrace(s, start + 2);
+            if (end == -1) {
+                // No more complete placeholder
+                parts.add(new Literal(s.substring(pos)));
+                break;
+            }
+            if (start > pos) {
+                parts.add(new Literal(s.substring(pos, start)));
+            }
+            parts.add(compilePlaceholder(s.substring(start + 2, end)));
+            pos = end + 1;
+        }
+        if (parts.isEmpty()) {
+            return new Literal(s);
+        }
+        return parts.size() == 1 ? parts.get(0) : new Composite(List.copyOf(parts));
+    }
+
+    /**
+     * key or key:default, the separator is the first ':' outside nested
+     * placeholders.
+     */
+    static Placeholder compilePlaceholder(String content) {
+        int depth = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '$' && i + 1 < content.length() && content.charAt(i + 1) == '{') {
+                depth++;
+                i++;
+            } else if (c == '}') {
+                depth--;
+            } else if (c == ':' && depth == 0) {
+                return new Placeholder(compile(notEmpty(content.substring(0, i))),
+                        compile(content.substring(i + 1)));
+            }
+        }
+        return new Placeholder(compile(notEmpty(content)), null);
+    }
+
+    /**
+     * Index of the '}' closing the placeholder whose content starts from the
+     * index, or -1 if not closed.
+     */
+    static int findClosingBrace(String s, int from) {
+        int depth = 0;
+        for (int i = from; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '$' && i + 1 < s.length() && s.charAt(i + 1) == '{') {
+                depth++;
+                i++;
+            } else if (c == '}') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            }
+        }
+        return -1;
+    }
+
+    static String notEmpty(String key) {
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Invalid key:" + key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,148 @@
+package com.kaiyikang.winter.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kaiyikang.winter.utils.YamlUtils;
+
+/**
+ * Watch config files (.yml, .yaml or .properties) by WatchService, and reload
+ * the PropertyResolver when any of them is modified. Later files override
+ * earlier ones.
+ */
+public class PropertyReloader implements AutoCloseable {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    // Wait for more events, an editor may write a file several times
+    static final long DEBOUNCE_MILLIS = 100;
+
+    final PropertyResolver propertyResolver;
+    final List<Path> files;
+
+    WatchService watchService;
+    Thread thread;
+
+    public PropertyReloader(PropertyResolver propertyResolver, List<Path> files) {
+        this.propertyResolver = propertyResolver;
+        this.files = files.stream().map(f -> f.toAbsolutePath().normalize()).toList();
+    }
+
+    public synchronized void start() {
+        if (this.watchService != null) {
+            return;
+        }
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : this.files.stream().map(Path::getParent).distinct().toList()) {
+                dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.thread = Thread.ofPlatform().daemon().name("winter-property-reloader").start(this::watch);
+        logger.info("watching config files: {}", this.files);
+    }
+
+    void watch() {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                boolean changed = pollEvents(key);
+                // Collect events in a short time, then reload once
+                while ((key = this.watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed = pollEvents(key) || changed;
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.atDebug().log("stop watching config files.");
+        }
+    }
+
+    boolean pollEvents(WatchKey key) {
+        boolean changed = false;
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name && this.files.contains(dir.resolve(name))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Load all files and reload the resolver, the properties are not changed if
+     * any file is invalid.
+     */
+    public void reload() {
+        Properties props;
+        try {
+            props = loadProperties(this.files);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot load config files, keep current properties.", e);
+            return;
+        }
+        this.propertyResolver.reload(props);
+    }
+
+    static Properties loadProperties(List<Path> files) {
+        Properties props = new Properties();
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            String name = file.getFileName().toString();
+            if (name.endsWith(".yml") || name.endsWith(".yaml")) {
+                Map<String, Object> yamlMap = YamlUtils.loadYamlAsPlainMap(file);
+                yamlMap.forEach((key, value) -> {
+                    if (value instanceof String strValue) {
+                        props.put(key, strValue);
+                    }
+                });
+            } else {
+                try (InputStream input = Files.newInputStream(file)) {
+                    props.load(input);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return props;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.watchService == null) {
+            return;
+        }
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close watch service.", e);
+        }
+        this.thread.interrupt();
+        this.watchService = null;
+        this.thread = null;
+    }
+}
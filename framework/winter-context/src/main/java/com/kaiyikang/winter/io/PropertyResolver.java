@@ -9,11 +9,16 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
@@ -25,27 +30,21 @@ public class PropertyResolver {
 
     Logger logger = LoggerFactory.getLogger(getClass());
 
-    Map<String, String> properties = new HashMap<>();
     Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
 
-    public PropertyResolver(Properties props) {
-        // Store system env
-        this.properties.putAll(System.getenv());
+    // Marks a property which is not found in typedValues
+    static final Object NULL_VALUE = new Object();
 
-        Set<String> names = props.stringPropertyNames();
+    // Compiled keys and values
+    final Map<String, PropertyExpression> expressions = new ConcurrentHashMap<>();
 
-        for (String name : names) {
-            this.properties.put(name, props.getProperty(name));
-        }
+    // Replaced as a whole on reload, readers never lock
+    final AtomicReference<PropertySnapshot> snapshot = new AtomicReference<>();
 
-        // Log for Debug
-        if (logger.isDebugEnabled()) {
-            List<String> keys = new ArrayList<>(this.properties.keySet());
-            Collections.sort(keys);
-            for (String key : keys) {
-                logger.debug("PropertyResolver: {} = {}", key, this.properties.get(key));
-            }
-        }
+    final List<PropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public PropertyResolver(Properties props) {
+        this.snapshot.set(createSnapshot(props));
 
         // Register Converters
         converters.put(String.class, s -> s);
@@ -79,52 +78,111 @@ public class PropertyResolver {
     }
 
     public boolean containsProperty(String key) {
-        return this.properties.containsKey(key);
+        return this.snapshot.get().properties.containsKey(key);
     }
 
     /**
-     * Core getProperty method
+     * Replace all properties (system env is reloaded too), and notify listeners
+     * if any property is changed.
      */
-    @Nullable
-    public String getProperty(String key) {
-        PropertyExpr keyExpr = parsePropertyExpr(key);
-        if (keyExpr != null) {
-            if (keyExpr.defaultValue() != null) {
-                // ${db.host:localhost} -> db.host, localhost
-                return getProperty(keyExpr.key(), keyExpr.defaultValue());
-            } else {
-                return getRequiredProperty(keyExpr.key());
+    public void reload(Properties props) {
+        PropertySnapshot newSnapshot = createSnapshot(props);
+        PropertySnapshot oldSnapshot = this.snapshot.getAndSet(newSnapshot);
+
+        Set<String> changedKeys = new TreeSet<>();
+        newSnapshot.properties.forEach((key, value) -> {
+            if (!value.equals(oldSnapshot.properties.get(key))) {
+                changedKeys.add(key);
+            }
+        });
+        oldSnapshot.properties.keySet().forEach(key -> {
+            if (!newSnapshot.properties.containsKey(key)) {
+                changedKeys.add(key);
+            }
+        });
+        if (changedKeys.isEmpty()) {
+            logger.atDebug().log("properties reloaded without change.");
+            return;
+        }
+        logger.info("properties reloaded, changed: {}", changedKeys);
+
+        PropertyChangeEvent event = new PropertyChangeEvent(this, Set.copyOf(changedKeys));
+        for (PropertyChangeListener listener : this.listeners) {
+            try {
+                listener.onPropertyChange(event);
+            } catch (RuntimeException e) {
+                logger.warn("Error when notify property change to " + listener, e);
             }
         }
+    }
 
-        // Final state: find key in properties map, could be null
-        String value = this.properties.get(key);
-        if (value != null) {
-            return parserValue(value);
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    PropertySnapshot createSnapshot(Properties props) {
+        // Store system env
+        Map<String, String> properties = new HashMap<>(System.getenv());
+        Set<String> envKeys = new HashSet<>(properties.keySet());
+
+        Set<String> names = props.stringPropertyNames();
+
+        for (String name : names) {
+            properties.put(name, props.getProperty(name));
+            envKeys.remove(name);
+        }
+
+        // Log for Debug
+        if (logger.isDebugEnabled()) {
+            List<String> keys = new ArrayList<>(properties.keySet());
+            Collections.sort(keys);
+            for (String key : keys) {
+                logger.debug("PropertyResolver: {} = {}", key, properties.get(key));
+            }
         }
-        return value;
+        return new PropertySnapshot(properties, envKeys, this.expressions);
+    }
+
+    /**
+     * Core getProperty method, the key could be a placeholder like
+     * ${key:default}.
+     */
+    @Nullable
+    public String getProperty(String key) {
+        return getProperty(key, String.class);
     }
 
     public String getProperty(String key, String defaultValue) {
         String value = getProperty(key);
-        return value == null ? parserValue(defaultValue) : value;
+        if (value != null) {
+            return value;
+        }
+        PropertySnapshot current = this.snapshot.get();
+        return current.compile(defaultValue).evaluate(current);
     }
 
     @Nullable
+    @SuppressWarnings("unchecked")
     public <T> T getProperty(String key, Class<T> targetType) {
-        String value = getProperty(key);
+        // Resolved and converted only once per key and type
+        PropertySnapshot current = this.snapshot.get();
+        PropertySnapshot.TypedKey typedKey = new PropertySnapshot.TypedKey(key, targetType);
+        Object value = current.typedValues.get(typedKey);
         if (value == null) {
-            return null;
+            String s = current.resolveProperty(key);
+            value = s == null ? NULL_VALUE : convert(targetType, s);
+            current.cacheTypedValue(typedKey, value);
         }
-        return convert(targetType, value);
+        return value == NULL_VALUE ? null : (T) value;
     }
 
     public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
-        String value = getProperty(key);
-        if (value == null) {
-            return defaultValue;
-        }
-        return convert(targetType, value);
+        T value = getProperty(key, targetType);
+        return value == null ? defaultValue : value;
     }
 
     public String getRequiredProperty(String key) {
@@ -145,47 +203,4 @@ public class PropertyResolver {
         }
         return (T) fn.apply(value);
     }
-
-    String parserValue(String value) {
-        PropertyExpr expr = parsePropertyExpr(value);
-        if (expr == null) {
-            // final value
-            return value;
-        }
-
-        if (expr.defaultValue() != null) {
-            return getProperty(expr.key(), expr.defaultValue());
-        } else {
-            return getRequiredProperty(expr.key());
-        }
-    }
-
-    PropertyExpr parsePropertyExpr(String key) {
-        if (!key.startsWith("${") || !key.endsWith("}")) {
-            return null;
-        }
-
-        int n = key.indexOf(":");
-
-        if (n == -1) {
-            // ${key}
-            String k = notEmpty(key.substring(2, key.length() - 1));
-            return new PropertyExpr(k, null);
-        } else {
-            // ${key:default}
-            String k = notEmpty(key.substring(2, n));
-            return new PropertyExpr(k, key.substring(n + 1, key.length() - 1));
-        }
-
-    }
-
-    String notEmpty(String key) {
-        if (key.isEmpty()) {
-            throw new IllegalArgumentException("Invalid key:" + key);
-        }
-        return key;
-    }
 }
-
-record PropertyExpr(String key, String defaultValue) {
-}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.kaiyikang.winter.io;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Immutable properties of a PropertyResolver at a time, with the values
+ * resolved from them. A reload creates a new snapshot, so a lookup never sees
+ * mixed old and new values.
+ *
+ * Placeholders mixed with text are resolved in values of the given
+ * properties. A value from system env is only resolved if it is a single
+ * placeholder, as before.
+ */
+final class PropertySnapshot {
+
+    // Max expressions kept in the shared cache, others are compiled on each use
+    static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+    // Max typed values kept per snapshot, others are resolved on each use
+    static final int MAX_CACHED_TYPED_VALUES = MAX_CACHED_EXPRESSIONS;
+
+    record TypedKey(String key, Class<?> type) {
+    }
+
+    final Map<String, String> properties;
+
+    // Keys whose value is from system env
+    final Set<String> envKeys;
+
+    // Compiled expressions are shared by snapshots
+    final Map<String, PropertyExpression> expressions;
+
+    // Resolved values by key and type, only valid for this snapshot
+    final Map<TypedKey, Object> typedValues = new ConcurrentHashMap<>();
+
+    PropertySnapshot(Map<String, String> properties, Set<String> envKeys,
+            Map<String, PropertyExpression> expressions) {
+        this.properties = Map.copyOf(properties);
+        this.envKeys = Set.copyOf(envKeys);
+        this.expressions = expressions;
+    }
+
+    @Nullable
+    String resolveProperty(String key) {
+        PropertyExpression expr = compile(key);
+        if (expr instanceof PropertyExpression.Literal) {
+            return getPropertyValue(key);
+        }
+        return expr.evaluate(this);
+    }
+
+    /**
+     * Find value by the plain key, placeholders in the value are resolved.
+     */
+    @Nullable
+    String getPropertyValue(String key) {
+        String value = this.properties.get(key);
+        if (value == null) {
+            return null;
+        }
+        PropertyExpression expr = this.envKeys.contains(key) ? compileEnvValue(value) : compile(value);
+        try {
+            return expr.evaluate(this);
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot resolve value of property '%s': %s", key, e.getMessage()), e);
+        }
+    }
+
+    void cacheTypedValue(TypedKey typedKey, Object value) {
+        if (this.typedValues.size() < MAX_CACHED_TYPED_VALUES) {
+            this.typedValues.putIfAbsent(typedKey, value);
+        }
+    }
+
+    PropertyExpression compile(String s) {
+        PropertyExpression expr = this.expressions.get(s);
+        if (expr == null) {
+            expr = PropertyExpression.compile(s);
+            if (this.expressions.size() < MAX_CACHED_EXPRESSIONS) {
+                this.expressions.putIfAbsent(s, expr);
+            }
+        }
+        return expr;
+    }
+
+    // Not cached, env is not bounded
+    static PropertyExpression compileEnvValue(String value) {
+        if (value.startsWith("${") && value.endsWith("}")
+                && PropertyExpression.compile(value) instanceof PropertyExpression.Placeholder placeholder) {
+            return placeholder;
+        }
+        return new PropertyExpression.Literal(value);
+    }
+}
@@ -1,23 +1,41 @@
 package com.kaiyikang.winter.io;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystemAlreadyExistsException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,24 +43,55 @@ import org.slf4j.LoggerFactory;
 /**
  * A classpath scan for both directory and jar.
  *
+ * Jar is scanned by the entries of its central directory, and the entry names
+ * under the package are cached on disk by jar path, size and last modified
+ * time, so a restart does not read the jar again. The cache is opt-in by system
+ * property "winter.scan.cache=true", and is in "${user.home}/.winter/scan-cache"
+ * by default, which can be set by "winter.scan.cache-dir". The directory is
+ * created owner-only, a cache in a directory writable by others is ignored,
+ * and so is a cache file with an entry outside the package.
+ *
+ * Roots of the package are scanned in parallel, and the mapper is called on
+ * the caller thread in the order of the roots. A root of other protocol, e.g.
+ * "nested:" of an executable war, is scanned by the file list of its directory
+ * stream.
  */
-
 public class ResourceResolver {
     Logger logger = LoggerFactory.getLogger(getClass());
 
+    static final String CACHE_HEADER = "winter-scan-cache 1";
+
     final String basePackage;
 
+    // Null if the cache is disabled
+    Path cacheDir;
+
     public ResourceResolver(String basePackage) {
         this.basePackage = basePackage;
+        this.cacheDir = Boolean.parseBoolean(System.getProperty("winter.scan.cache", "false"))
+                ? Path.of(System.getProperty("winter.scan.cache-dir",
+                        Path.of(System.getProperty("user.home"), ".winter", "scan-cache").toString()))
+                : null;
     }
 
     public <R> List<R> scan(Function<Resource, R> mapper) {
+        return scan(mapper, rootUrl -> null);
+    }
+
+    /**
+     * Scan with results known before, e.g. by an index. A root is not scanned
+     * if rootResults returns non-null list for its root URL.
+     *
+     * @param rootResults Function of root URL like "file:/path/to/classes/"
+     *                    or "jar:file:/path/to/app.jar!/" to results.
+     */
+    public <R> List<R> scan(Function<Resource, R> mapper, Function<String, List<R>> rootResults) {
         String basePackagePath = this.basePackage.replace(".", "/");
         String currentScanPath = basePackagePath;
 
         try {
             List<R> collector = new ArrayList<>();
-            scan0(basePackagePath, currentScanPath, collector, mapper);
+            scan0(basePackagePath, currentScanPath, collector, mapper, rootResults);
             return collector;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -51,36 +100,93 @@ public class ResourceResolver {
         }
     }
 
-    <R> void scan0(String basePackagePath, String currentScanPath, List<R> collector, Function<Resource, R> mapper)
-            throws IOException, URISyntaxException {
+    <R> void scan0(String basePackagePath, String currentScanPath, List<R> collector, Function<Resource, R> mapper,
+            Function<String, List<R>> rootResults) throws IOException, URISyntaxException {
         logger.atDebug().log("scan path: {}", currentScanPath);
 
         // Find all resources with "currentScanPath"
         Enumeration<URL> resources = getContextClassLoader().getResources(currentScanPath);
-
+        List<URL> roots = new ArrayList<>();
+        List<List<R>> knownResults = new ArrayList<>();
         while (resources.hasMoreElements()) {
-            final URL resourceUrl = resources.nextElement();
-            final URI resourceUri = resourceUrl.toURI();
-
-            String resourceUriStr = removeTrailingSlash(uriToString(resourceUri));
+            URL url = resources.nextElement();
+            roots.add(url);
+            knownResults.add(rootResults.apply(getRootUrl(basePackagePath, url)));
+        }
 
-            // basePackagePath: "com/example/service"
-            // resourceUriStr: "file:/D:/project/target/classes/com/example/service"
-            // resourceBaseUriStr: "file:/D:/project/target/classes/"
-            String resourceBaseUriStr = resourceUriStr.substring(0, resourceUriStr.length() - basePackagePath.length());
+        // Roots are scanned in parallel, but the order is kept
+        IntStream indexes = IntStream.range(0, roots.size());
+        List<List<Resource>> results = (roots.size() > 1 ? indexes.parallel() : indexes).mapToObj(i -> {
+            if (knownResults.get(i) != null) {
+                return List.<Resource>of();
+            }
+            try {
+                return scanRoot(basePackagePath, roots.get(i));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (URISyntaxException e) {
+                throw new RuntimeException(e);
+            }
+        }).toList();
 
-            if (resourceBaseUriStr.startsWith("file:")) {
-                resourceBaseUriStr = resourceBaseUriStr.substring(5);
+        for (int i = 0; i < roots.size(); i++) {
+            if (knownResults.get(i) != null) {
+                logger.atDebug().log("skip scan of root: {}", roots.get(i));
+                collector.addAll(knownResults.get(i));
+                continue;
             }
+            for (Resource res : results.get(i)) {
+                logger.atDebug().log("found resource: {}", res);
+                R r = mapper.apply(res);
+                if (r != null) {
+                    collector.add(r);
+                }
+            }
+        }
+    }
 
-            if (resourceUriStr.startsWith("jar:")) {
-                final Path jarInternalPath = jarUriToPath(resourceUri, basePackagePath);
-                scanFile(true, resourceBaseUriStr, jarInternalPath, collector, mapper);
-            } else {
-                final Path fileSystemPath = Paths.get(resourceUri);
-                scanFile(false, resourceBaseUriStr, fileSystemPath, collector, mapper);
+    /**
+     * Get root URL of a resource URL of the package, e.g.
+     * "file:/path/to/classes/" for "file:/path/to/classes/com/example/".
+     */
+    static String getRootUrl(String basePackagePath, URL resourceUrl) {
+        String url = resourceUrl.toString();
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url.endsWith(basePackagePath) ? url.substring(0, url.length() - basePackagePath.length()) : url;
+    }
+
+    List<Resource> scanRoot(String basePackagePath, URL resourceUrl) throws IOException, URISyntaxException {
+        URI resourceUri = resourceUrl.toURI();
+        String resourceUriStr = removeTrailingSlash(uriToString(resourceUri));
+
+        // basePackagePath: "com/example/service"
+        // resourceUriStr: "file:/D:/project/target/classes/com/example/service"
+        // resourceBaseUriStr: "file:/D:/project/target/classes/"
+        String resourceBaseUriStr = resourceUriStr.substring(0, resourceUriStr.length() - basePackagePath.length());
+
+        if (resourceBaseUriStr.startsWith("file:")) {
+            resourceBaseUriStr = resourceBaseUriStr.substring(5);
+        }
+
+        if (resourceUriStr.startsWith("jar:")) {
+            String baseDir = removeTrailingSlash(resourceBaseUriStr);
+            // jar:file:/path/to/app.jar!/com/example
+            String spec = resourceUri.getRawSchemeSpecificPart();
+            int sep = spec.indexOf("!/");
+            if (sep > 0 && spec.startsWith("file:") && spec.indexOf("!/", sep + 2) < 0) {
+                Path jarPath = Paths.get(URI.create(spec.substring(0, sep)));
+                return scanJar(baseDir, jarPath, basePackagePath);
             }
+            // Nested jar is only supported by zipfs
+            return scanJarFileSystem(baseDir, resourceUri, basePackagePath);
         }
+        if (!resourceUriStr.startsWith("file:")) {
+            // Other protocols, e.g. "nested:" of an executable war
+            return scanUrl(removeTrailingSlash(resourceBaseUriStr), resourceUrl, basePackagePath);
+        }
+        return scanFile(resourceBaseUriStr, Paths.get(resourceUri));
     }
 
     ClassLoader getContextClassLoader() {
@@ -93,25 +199,195 @@ public class ResourceResolver {
         // return this.getClass().getClassLoader();
     }
 
-    <R> void scanFile(boolean isJar, String base, Path root, List<R> collector, Function<Resource, R> mapper)
-            throws IOException {
+    List<Resource> scanFile(String base, Path root) throws IOException {
         String baseDir = removeTrailingSlash(base);
-        Files.walk(root).filter(Files::isRegularFile).forEach(
-                file -> {
-                    Resource res = null;
-                    if (isJar) {
-                        res = new Resource(baseDir, removeLeadingSlash(file.toString()));
-                    } else {
-                        String path = file.toString();
-                        String name = removeLeadingSlash(path.substring(baseDir.length()));
-                        res = new Resource("file:" + path, name);
-                    }
-                    logger.atDebug().log("found resource: {}", res);
-                    R r = mapper.apply(res);
-                    if (r != null) {
-                        collector.add(r);
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).map(file -> {
+                String path = file.toString();
+                String name = removeLeadingSlash(path.substring(baseDir.length()));
+                return new Resource("file:" + path, name);
+            }).toList();
+        }
+    }
+
+    List<Resource> scanJar(String baseDir, Path jarPath, String basePackagePath) throws IOException {
+        List<String> names = readCache(jarPath, basePackagePath);
+        if (names == null) {
+            String prefix = basePackagePath + "/";
+            names = new ArrayList<>();
+            try (JarFile jarFile = new JarFile(jarPath.toFile(), false)) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (!entry.isDirectory() && entry.getName().startsWith(prefix)) {
+                        names.add(entry.getName());
                     }
-                });
+                }
+            }
+            // Stable order for the cache
+            Collections.sort(names);
+            writeCache(jarPath, basePackagePath, names);
+        }
+        return names.stream().map(name -> new Resource(baseDir, name)).toList();
+    }
+
+    List<Resource> scanJarFileSystem(String baseDir, URI jarUri, String basePackagePath) throws IOException {
+        FileSystem fs;
+        boolean created = true;
+        try {
+            fs = FileSystems.newFileSystem(jarUri, Map.of());
+        } catch (FileSystemAlreadyExistsException e) {
+            // Opened by others, do not close it
+            fs = FileSystems.getFileSystem(jarUri);
+            created = false;
+        }
+        try (Stream<Path> files = Files.walk(fs.getPath(basePackagePath))) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> new Resource(baseDir, removeLeadingSlash(file.toString()))).toList();
+        } finally {
+            if (created) {
+                fs.close();
+            }
+        }
+    }
+
+    /**
+     * Scan by the stream of a directory URL, which lists paths of files under the
+     * directory, one per line.
+     */
+    List<Resource> scanUrl(String baseDir, URL dirUrl, String basePackagePath) throws IOException {
+        List<Resource> list = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dirUrl.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.endsWith("/")) {
+                    list.add(new Resource(baseDir, basePackagePath + "/" + removeLeadingSlash(line)));
+                }
+            }
+        }
+        return list;
+    }
+
+    // Scan Cache
+    // ----------
+
+    /**
+     * Read entry names of the jar from cache, return null if not found or out of
+     * date.
+     */
+    List<String> readCache(Path jarPath, String basePackagePath) {
+        Path cacheFile = getCacheFile(jarPath, basePackagePath);
+        if (cacheFile == null || !Files.isRegularFile(cacheFile) || !isOwnerOnly(this.cacheDir)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            if (!CACHE_HEADER.equals(reader.readLine())
+                    || !getCacheKey(jarPath, basePackagePath).equals(reader.readLine())) {
+                return null;
+            }
+            List<String> names = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (!isEntryOf(line, basePackagePath)) {
+                    logger.atDebug().log("ignore scan cache {}: invalid entry {}", cacheFile, line);
+                    return null;
+                }
+                names.add(line);
+            }
+            logger.atDebug().log("read {} entries of {} from scan cache.", names.size(), jarPath);
+            return names;
+        } catch (IOException e) {
+            logger.atDebug().log("cannot read scan cache {}: {}", cacheFile, e.toString());
+            return null;
+        }
+    }
+
+    void writeCache(Path jarPath, String basePackagePath, List<String> names) {
+        Path cacheFile = getCacheFile(jarPath, basePackagePath);
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            if (this.cacheDir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.createDirectories(this.cacheDir,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(this.cacheDir);
+            }
+            // Write to temp file then move, so a concurrent reader never sees a partial file
+            Path tmp = Files.createTempFile(this.cacheDir, cacheFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(CACHE_HEADER);
+                writer.newLine();
+                writer.write(getCacheKey(jarPath, basePackagePath));
+                writer.newLine();
+                for (String name : names) {
+                    writer.write(name);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Cache is optional
+            logger.atDebug().log("cannot write scan cache {}: {}", cacheFile, e.toString());
+        }
+    }
+
+    /**
+     * Check the cache directory cannot be written by other users. Always true if
+     * the file system has no POSIX permissions.
+     */
+    boolean isOwnerOnly(Path dir) {
+        try {
+            PosixFileAttributeView view = Files.getFileAttributeView(dir, PosixFileAttributeView.class);
+            if (view == null) {
+                return true;
+            }
+            PosixFileAttributes attrs = view.readAttributes();
+            Set<PosixFilePermission> perms = attrs.permissions();
+            if (!attrs.owner().getName().equals(System.getProperty("user.name"))
+                    || perms.contains(PosixFilePermission.GROUP_WRITE)
+                    || perms.contains(PosixFilePermission.OTHERS_WRITE)) {
+                logger.atDebug().log("ignore scan cache {}: not owned by current user only.", dir);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // A cached entry must be a file under the package without ".." segment
+    static boolean isEntryOf(String name, String basePackagePath) {
+        return name.startsWith(basePackagePath + "/") && !name.endsWith("/") && name.indexOf('\\') < 0
+                && !List.of(name.split("/")).contains("..");
+    }
+
+    Path getCacheFile(Path jarPath, String basePackagePath) {
+        if (this.cacheDir == null) {
+            return null;
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md
+                    .digest((jarPath.toAbsolutePath() + "!/" + basePackagePath).getBytes(StandardCharsets.UTF_8));
+            return this.cacheDir.resolve(HexFormat.of().formatHex(hash, 0, 16) + ".idx");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    String getCacheKey(Path jarPath, String basePackagePath) throws IOException {
+        return jarPath.toAbsolutePath() + "|" + Files.size(jarPath) + "|"
+                + Files.getLastModifiedTime(jarPath).toMillis() + "|" + basePackagePath;
     }
 
     String uriToString(URI uri) {
@@ -131,16 +407,4 @@ public class ResourceResolver {
         }
         return str;
     }
-
-    Path jarUriToPath(URI jarUri, String rootPackagePathStr) throws IOException {
-        // return FileSystems.newFileSystem(jarUri,
-        // Map.of()).getPath(rootPackagePathStr);
-        FileSystem fs;
-        try {
-            fs = FileSystems.newFileSystem(jarUri, Map.of());
-        } catch (FileSystemAlreadyExistsException e) {
-            fs = FileSystems.getFileSystem(jarUri);
-        }
-        return fs.getPath(rootPackagePathStr);
-    }
 }
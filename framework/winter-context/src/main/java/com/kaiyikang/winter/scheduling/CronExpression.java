@@ -0,0 +1,138 @@
+package com.kaiyikang.winter.scheduling;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Cron expression of 6 fields: second, minute, hour, day of month, month and
+ * day of week, e.g. "0 0/15 9-17 * * MON-FRI". A field supports *, ?, lists,
+ * ranges, steps, and names of month (JAN-DEC) and day of week (SUN-SAT, 0 or
+ * 7 is SUN).
+ */
+public class CronExpression {
+
+    static final List<String> MONTHS = List.of("JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT",
+            "NOV", "DEC");
+    static final List<String> DAYS_OF_WEEK = List.of("SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT");
+
+    // Search no further if nothing matches, e.g. 30 FEB
+    static final int MAX_YEARS = 4;
+
+    final String expression;
+    final BitSet seconds;
+    final BitSet minutes;
+    final BitSet hours;
+    final BitSet daysOfMonth;
+    final BitSet months;
+    // 1 (MON) to 7 (SUN), same as DayOfWeek
+    final BitSet daysOfWeek;
+
+    public static CronExpression parse(String expression) {
+        return new CronExpression(expression);
+    }
+
+    CronExpression(String expression) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Cron expression must have 6 fields: " + expression);
+        }
+        this.expression = expression;
+        this.seconds = parseField(fields[0], 0, 59, null, expression);
+        this.minutes = parseField(fields[1], 0, 59, null, expression);
+        this.hours = parseField(fields[2], 0, 23, null, expression);
+        this.daysOfMonth = parseField(fields[3], 1, 31, null, expression);
+        this.months = parseField(fields[4], 1, 12, MONTHS, expression);
+        BitSet dows = parseField(fields[5], 0, 7, DAYS_OF_WEEK, expression);
+        if (dows.get(0)) {
+            dows.set(7);
+            dows.clear(0);
+        }
+        this.daysOfWeek = dows;
+    }
+
+    /**
+     * The first time matched after the given time, in seconds.
+     */
+    public ZonedDateTime next(ZonedDateTime from) {
+        ZonedDateTime t = from.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        int maxYear = from.getYear() + MAX_YEARS;
+        while (t.getYear() <= maxYear) {
+            if (!this.months.get(t.getMonthValue())) {
+                t = t.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            } else if (!this.daysOfMonth.get(t.getDayOfMonth()) || !this.daysOfWeek.get(t.getDayOfWeek().getValue())) {
+                t = t.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            } else if (!this.hours.get(t.getHour())) {
+                t = t.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!this.minutes.get(t.getMinute())) {
+                t = t.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+            } else if (!this.seconds.get(t.getSecond())) {
+                t = t.plusSeconds(1);
+            } else {
+                return t;
+            }
+        }
+        throw new IllegalArgumentException("No time matches cron expression: " + this.expression);
+    }
+
+    static BitSet parseField(String field, int min, int max, List<String> names, String expression) {
+        BitSet bits = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseValue(part.substring(slash + 1), 1, max, null, expression);
+                part = part.substring(0, slash);
+            }
+            int from;
+            int to;
+            if (part.equals("*") || part.equals("?")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = part.indexOf('-');
+                if (dash > 0) {
+                    from = parseValue(part.substring(0, dash), min, max, names, expression);
+                    to = parseValue(part.substring(dash + 1), min, max, names, expression);
+                } else {
+                    from = parseValue(part, min, max, names, expression);
+                    // a/n means from a to max
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("Invalid range '" + part + "' in cron expression: " + expression);
+            }
+            for (int i = from; i <= to; i += step) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    static int parseValue(String value, int min, int max, List<String> names, String expression) {
+        if (names != null) {
+            int index = names.indexOf(value.toUpperCase());
+            if (index >= 0) {
+                // Months start from 1, days of week start from 0 (SUN)
+                return index + min;
+            }
+        }
+        try {
+            int n = Integer.parseInt(value);
+            if (n < min || n > max) {
+                throw new IllegalArgumentException(
+                        "Value " + n + " out of range [" + min + ", " + max + "] in cron expression: " + expression);
+            }
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' in cron expression: " + expression);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.expression;
+    }
+}
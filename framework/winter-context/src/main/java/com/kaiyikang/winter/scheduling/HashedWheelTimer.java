@@ -0,0 +1,260 @@
+package com.kaiyikang.winter.scheduling;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer of a single thread. Timeouts are hashed into the buckets of a wheel
+ * by deadline, and the thread expires one bucket per tick, so adding and
+ * cancelling is O(1) for any number of timeouts. A timeout expires within one
+ * tick after its deadline, and its task runs on the timer thread, so it must
+ * be short, e.g. submit work to an executor. The thread is started by the
+ * first timeout.
+ */
+public class HashedWheelTimer implements AutoCloseable {
+
+    static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    // Max timeouts transferred to the wheel per tick
+    static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    public final class Timeout {
+
+        static final int ST_INIT = 0;
+        static final int ST_CANCELLED = 1;
+        static final int ST_EXPIRED = 2;
+
+        final Runnable task;
+        // Nanos since startTime
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger(ST_INIT);
+        long remainingRounds;
+
+        Timeout next;
+        Timeout prev;
+        Bucket bucket;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public boolean cancel() {
+            if (!this.state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return this.state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return this.state.get() == ST_EXPIRED;
+        }
+
+        void expire() {
+            if (!this.state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                this.task.run();
+            } catch (Throwable t) {
+                logger.warn("Exception in timer task " + this.task, t);
+            }
+        }
+    }
+
+    // Doubly linked list of timeouts, only accessed by the timer thread
+    final class Bucket {
+
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (this.head == null) {
+                this.head = this.tail = timeout;
+            } else {
+                this.tail.next = timeout;
+                timeout.prev = this.tail;
+                this.tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                this.head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                this.tail = timeout.prev;
+            }
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void expireTimeouts(long deadline) {
+            Timeout timeout = this.head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    } else {
+                        // Should not happen, never expire early but put it back to the wheel
+                        logger.warn("timeout deadline {} is later than the tick {}, reschedule it.",
+                                timeout.deadline, deadline);
+                        pendingTimeouts.add(timeout);
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    final long tickNanos;
+    final Bucket[] wheel;
+    final int mask;
+    final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    final String threadName;
+    // Set before the worker is started
+    long startTime;
+    volatile Thread worker;
+    volatile boolean closed = false;
+    long tick = 0;
+
+    public HashedWheelTimer(String threadName, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tickDuration and ticksPerWheel must be positive.");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        // Round up to power of 2, so index is computed by mask
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < this.wheel.length; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = this.wheel.length - 1;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Run the task once after the delay.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (this.worker == null) {
+            start();
+        }
+        if (this.closed) {
+            throw new IllegalStateException("Timer is closed.");
+        }
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - this.startTime;
+        Timeout timeout = new Timeout(task, deadline);
+        this.pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    synchronized void start() {
+        if (this.worker == null && !this.closed) {
+            this.startTime = System.nanoTime();
+            this.worker = Thread.ofPlatform().daemon().name(this.threadName).start(this::run);
+        }
+    }
+
+    void run() {
+        while (!this.closed) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                break;
+            }
+            try {
+                removeCancelledTimeouts();
+                transferTimeouts();
+                this.wheel[(int) (this.tick & this.mask)].expireTimeouts(deadline);
+            } catch (RuntimeException e) {
+                // Keep the timer thread alive
+                logger.error("Unexpected exception in timer " + this.threadName, e);
+            }
+            this.tick++;
+        }
+    }
+
+    long waitForNextTick() {
+        long deadline = this.tickNanos * (this.tick + 1);
+        while (true) {
+            long current = System.nanoTime() - this.startTime;
+            long sleepNanos = deadline - current;
+            if (sleepNanos <= 0) {
+                return current;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (this.closed) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    void transferTimeouts() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = this.pendingTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / this.tickNanos;
+            timeout.remainingRounds = (calculated - this.tick) / this.wheel.length;
+            // Expire in current tick if it is already late
+            long ticks = Math.max(calculated, this.tick);
+            this.wheel[(int) (ticks & this.mask)].add(timeout);
+        }
+    }
+
+    void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = this.cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            this.closed = true;
+            thread = this.worker;
+        }
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
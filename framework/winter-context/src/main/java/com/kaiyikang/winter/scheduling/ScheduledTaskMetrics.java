@@ -0,0 +1,10 @@
+package com.kaiyikang.winter.scheduling;
+
+/**
+ * Statistics of a scheduled task. An execution is skipped if the previous one
+ * is still running when it is due, and overruns when it is still running when
+ * the next one is due.
+ */
+public record ScheduledTaskMetrics(String name, String trigger, long executions, long failures, long skipped,
+        long overruns, long lastDurationNanos, long maxDurationNanos) {
+}
@@ -0,0 +1,215 @@
+package com.kaiyikang.winter.scheduling;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedule periodic tasks on a shared HashedWheelTimer, and run them on the
+ * executor. An execution of a task never overlaps the previous one.
+ */
+public class TaskScheduler implements AutoCloseable {
+
+    static final Logger logger = LoggerFactory.getLogger(TaskScheduler.class);
+
+    // Max time to wait for running tasks on close
+    static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    public final class ScheduledTask {
+
+        final String name;
+        final String trigger;
+        final Runnable task;
+        final long periodNanos;
+        final boolean fixedDelay;
+        final CronExpression cron;
+
+        final AtomicBoolean running = new AtomicBoolean();
+        volatile boolean cancelled = false;
+        volatile long nextFireNanos;
+        volatile ZonedDateTime nextFireTime;
+        volatile HashedWheelTimer.Timeout timeout;
+
+        final LongAdder executions = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder overruns = new LongAdder();
+        volatile long lastDurationNanos;
+        final AtomicLong maxDurationNanos = new AtomicLong();
+
+        ScheduledTask(String name, String trigger, Runnable task, long periodNanos, boolean fixedDelay,
+                CronExpression cron) {
+            this.name = name;
+            this.trigger = trigger;
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.fixedDelay = fixedDelay;
+            this.cron = cron;
+        }
+
+        public void cancel() {
+            this.cancelled = true;
+            HashedWheelTimer.Timeout t = this.timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+
+        void scheduleAt(long fireNanos) {
+            this.nextFireNanos = fireNanos;
+            this.timeout = timer.newTimeout(this::fire, fireNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        void scheduleNextCron() {
+            ZonedDateTime now = ZonedDateTime.now();
+            ZonedDateTime last = this.nextFireTime;
+            // The timer may fire a little earlier than the wall clock
+            ZonedDateTime next = this.cron.next(last != null && last.isAfter(now) ? last : now);
+            this.nextFireTime = next;
+            scheduleAt(System.nanoTime() + Duration.between(now, next).toNanos());
+        }
+
+        // Called by timer thread
+        void fire() {
+            if (this.cancelled || closed) {
+                return;
+            }
+            // Schedule next before running, so an overrun can be detected.
+            // Next of fixed delay is scheduled after the execution.
+            if (this.cron != null) {
+                scheduleNextCron();
+            } else if (!this.fixedDelay) {
+                long now = System.nanoTime();
+                long next = this.nextFireNanos + this.periodNanos;
+                if (next <= now) {
+                    // The timer is late for more than one period
+                    long missed = (now - next) / this.periodNanos + 1;
+                    this.skipped.add(missed);
+                    next += missed * this.periodNanos;
+                }
+                scheduleAt(next);
+            }
+            if (this.running.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::execute);
+                } catch (RejectedExecutionException e) {
+                    this.running.set(false);
+                    this.skipped.increment();
+                }
+            } else {
+                this.skipped.increment();
+            }
+        }
+
+        void execute() {
+            long start = System.nanoTime();
+            // Next fire time is scheduled before the execution
+            long deadline = this.nextFireNanos;
+            try {
+                this.task.run();
+            } catch (Throwable t) {
+                this.failures.increment();
+                logger.warn("Exception in scheduled task " + this.name, t);
+            } finally {
+                long end = System.nanoTime();
+                long duration = end - start;
+                this.executions.increment();
+                this.lastDurationNanos = duration;
+                this.maxDurationNanos.accumulateAndGet(duration, Math::max);
+                if (!this.fixedDelay && end > deadline) {
+                    this.overruns.increment();
+                    logger.atDebug().log("scheduled task {} overruns, took {} ms.", this.name, duration / 1_000_000);
+                }
+                this.running.set(false);
+                if (this.fixedDelay && !this.cancelled && !closed) {
+                    scheduleAt(System.nanoTime() + this.periodNanos);
+                }
+            }
+        }
+
+        public ScheduledTaskMetrics getMetrics() {
+            return new ScheduledTaskMetrics(this.name, this.trigger, this.executions.sum(), this.failures.sum(),
+                    this.skipped.sum(), this.overruns.sum(), this.lastDurationNanos, this.maxDurationNanos.get());
+        }
+    }
+
+    final HashedWheelTimer timer;
+    final ExecutorService executor;
+    final List<ScheduledTask> tasks = new CopyOnWriteArrayList<>();
+    volatile boolean closed = false;
+
+    /**
+     * Create scheduler which owns the executor, and shuts it down on close.
+     */
+    public TaskScheduler(ExecutorService executor, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this.executor = executor;
+        this.timer = new HashedWheelTimer("winter-scheduler-timer", tickDuration, unit, ticksPerWheel);
+    }
+
+    public ScheduledTask scheduleAtFixedRate(String name, Runnable task, long initialDelay, long period,
+            TimeUnit unit) {
+        checkPositive(period);
+        ScheduledTask st = new ScheduledTask(name, "fixedRate=" + period + " " + unit, task, unit.toNanos(period),
+                false, null);
+        this.tasks.add(st);
+        st.scheduleAt(System.nanoTime() + unit.toNanos(initialDelay));
+        return st;
+    }
+
+    public ScheduledTask scheduleWithFixedDelay(String name, Runnable task, long initialDelay, long delay,
+            TimeUnit unit) {
+        checkPositive(delay);
+        ScheduledTask st = new ScheduledTask(name, "fixedDelay=" + delay + " " + unit, task, unit.toNanos(delay),
+                true, null);
+        this.tasks.add(st);
+        st.scheduleAt(System.nanoTime() + unit.toNanos(initialDelay));
+        return st;
+    }
+
+    public ScheduledTask schedule(String name, Runnable task, CronExpression cron) {
+        ScheduledTask st = new ScheduledTask(name, "cron=" + cron, task, 0, false, cron);
+        this.tasks.add(st);
+        st.scheduleNextCron();
+        return st;
+    }
+
+    public List<ScheduledTaskMetrics> getMetrics() {
+        return this.tasks.stream().map(ScheduledTask::getMetrics).toList();
+    }
+
+    static void checkPositive(long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+    }
+
+    /**
+     * Stop scheduling and wait for running tasks.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.tasks.forEach(ScheduledTask::cancel);
+        this.timer.close();
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                logger.warn("scheduled tasks are still running after {} ms, interrupt them.", CLOSE_TIMEOUT_MILLIS);
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.executor.shutdownNow();
+        }
+    }
+}
@@ -11,30 +11,14 @@ import jakarta.annotation.Nullable;
 
 public class ClassUtils {
 
+    /**
+     * Find the annotation directly or as meta-annotation, the result is cached
+     * by MergedAnnotations.
+     */
+    @Nullable
     public static <A extends Annotation> A findAnnotation(Class<?> clazz, Class<A> targetAnnotation) {
-        A a = clazz.getAnnotation(targetAnnotation);
-        // If the annotation cannot be found
-        for (Annotation anno : clazz.getAnnotations()) {
-            // Get the definition of the annotation
-            Class<? extends Annotation> annoType = anno.annotationType();
-
-            if (annoType.getPackageName().equals("java.lang.annotation")) {
-                continue;
-            }
-
-            A found = findAnnotation(annoType, targetAnnotation);
-            if (found == null) {
-                continue;
-            }
-
-            if (a != null) {
-                throw new BeanDefinitionException("Duplicate @" + targetAnnotation.getSimpleName()
-                        + " found on class " + clazz.getSimpleName());
-            }
-
-            a = found;
-        }
-        return a;
+        MergedAnnotation<A> merged = MergedAnnotations.from(clazz).find(targetAnnotation);
+        return merged == null ? null : merged.annotation();
     }
 
     @Nullable
@@ -49,7 +33,7 @@ public class ClassUtils {
     }
 
     public static String getBeanName(Method method) {
-        Bean bean = method.getAnnotation(Bean.class);
+        Bean bean = MergedAnnotations.from(method).get(Bean.class);
         if (bean == null) {
             return method.getName();
         }
@@ -69,24 +53,9 @@ public class ClassUtils {
     }
 
     public static String getBeanName(Class<?> clazz) {
-        String name = "";
-
-        Component component = clazz.getAnnotation(Component.class);
-        if (component != null) {
-            // @Component has value
-            name = component.value();
-        } else {
-            // @Component has no value, find other @Component
-            for (Annotation anno : clazz.getAnnotations()) {
-                if (findAnnotation(anno.annotationType(), Component.class) != null) {
-                    try {
-                        name = (String) anno.annotationType().getMethod("value").invoke(anno);
-                    } catch (ReflectiveOperationException e) {
-                        throw new BeanDefinitionException("Cannot get annotation value.", e);
-                    }
-                }
-            }
-        }
+        // Value of @Component, or the annotation annotated with @Component
+        MergedAnnotation<Component> component = MergedAnnotations.from(clazz).find(Component.class);
+        String name = component == null ? "" : component.getString("value");
 
         if (name.isEmpty()) {
             name = clazz.getSimpleName();
@@ -99,7 +68,7 @@ public class ClassUtils {
     public static Method findAnnotationMethod(Class<?> clazz, Class<? extends Annotation> targetAnnotation) {
         Method foundedMethod = null;
         for (Method method : clazz.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(targetAnnotation)) {
+            if (MergedAnnotations.from(method).isPresent(targetAnnotation)) {
                 // Verify the number of parameters
                 if (method.getParameterCount() != 0) {
                     throw new BeanDefinitionException(
@@ -0,0 +1,31 @@
+package com.kaiyikang.winter.utils;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * An annotation found on an element directly or as meta-annotation. The root
+ * is the annotation declared on the element, e.g. @Configuration for a
+ * meta-annotated @Component. Attributes are the attributes of the annotation,
+ * overridden by the same named attributes of the annotations on the path to
+ * the root, the closer to the root the higher priority.
+ */
+public record MergedAnnotation<A extends Annotation>(A annotation, Annotation root, Map<String, Object> attributes) {
+
+    public boolean isDirect() {
+        return this.annotation == this.root;
+    }
+
+    @Nullable
+    public <T> T getAttribute(String name, Class<T> type) {
+        Object value = this.attributes.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    public String getString(String name) {
+        String value = getAttribute(name, String.class);
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,180 @@
+package com.kaiyikang.winter.utils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.kaiyikang.winter.exception.BeanDefinitionException;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Annotations of a class, method, field or parameter, parsed once and shared by
+ * context, aop and web. Meta-annotations are searched on first lookup of each
+ * annotation type, and the merged result is cached.
+ *
+ * Classes are cached by ClassValue, and members and parameters by the class
+ * declaring them, so a class can be unloaded with its cache.
+ */
+public final class MergedAnnotations {
+
+    static final ClassValue<MergedAnnotations> CLASSES = new ClassValue<>() {
+        @Override
+        protected MergedAnnotations computeValue(Class<?> type) {
+            return new MergedAnnotations(type);
+        }
+    };
+
+    // Member or parameter -> annotations, by the declaring class
+    static final ClassValue<Map<AnnotatedElement, MergedAnnotations>> MEMBERS = new ClassValue<>() {
+        @Override
+        protected Map<AnnotatedElement, MergedAnnotations> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    static final MergedAnnotation<?> NOT_FOUND = new MergedAnnotation<>(null, null, Map.of());
+
+    final AnnotatedElement element;
+    final Annotation[] annotations;
+    final Map<Class<? extends Annotation>, Annotation> directAnnotations;
+    final Map<Class<? extends Annotation>, MergedAnnotation<?>> mergedAnnotations = new ConcurrentHashMap<>();
+
+    MergedAnnotations(AnnotatedElement element) {
+        this.element = element;
+        this.annotations = element.getAnnotations();
+        Map<Class<? extends Annotation>, Annotation> map = new HashMap<>();
+        for (Annotation anno : this.annotations) {
+            map.put(anno.annotationType(), anno);
+        }
+        this.directAnnotations = Map.copyOf(map);
+    }
+
+    public static MergedAnnotations from(AnnotatedElement element) {
+        if (element instanceof Class<?> clazz) {
+            return CLASSES.get(clazz);
+        }
+        Class<?> declaringClass;
+        if (element instanceof Member member) {
+            declaringClass = member.getDeclaringClass();
+        } else if (element instanceof Parameter parameter) {
+            declaringClass = parameter.getDeclaringExecutable().getDeclaringClass();
+        } else {
+            return new MergedAnnotations(element);
+        }
+        return MEMBERS.get(declaringClass).computeIfAbsent(element, MergedAnnotations::new);
+    }
+
+    /**
+     * Annotations of each parameter, like Executable.getParameterAnnotations().
+     */
+    public static Annotation[][] getParameterAnnotations(Executable executable) {
+        Parameter[] parameters = executable.getParameters();
+        Annotation[][] result = new Annotation[parameters.length][];
+        for (int i = 0; i < parameters.length; i++) {
+            result[i] = from(parameters[i]).getAnnotations();
+        }
+        return result;
+    }
+
+    /**
+     * Annotations declared or inherited, not including meta-annotations.
+     */
+    public Annotation[] getAnnotations() {
+        return this.annotations.clone();
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A get(Class<A> annotationType) {
+        return (A) this.directAnnotations.get(annotationType);
+    }
+
+    public boolean isPresent(Class<? extends Annotation> annotationType) {
+        return this.directAnnotations.containsKey(annotationType);
+    }
+
+    /**
+     * Find the annotation directly or as meta-annotation, return null if not
+     * found.
+     * 
+     * @throws BeanDefinitionException if the annotation is found more than once.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> MergedAnnotation<A> find(Class<A> annotationType) {
+        MergedAnnotation<?> merged = this.mergedAnnotations.get(annotationType);
+        if (merged == null) {
+            // Not cached if duplicate annotations are found
+            merged = Optional.<MergedAnnotation<?>>ofNullable(merge(annotationType)).orElse(NOT_FOUND);
+            this.mergedAnnotations.putIfAbsent(annotationType, merged);
+        }
+        return merged == NOT_FOUND ? null : (MergedAnnotation<A>) merged;
+    }
+
+    @Nullable
+    <A extends Annotation> MergedAnnotation<A> merge(Class<A> annotationType) {
+        A direct = get(annotationType);
+        MergedAnnotation<A> found = direct == null ? null
+                : new MergedAnnotation<>(direct, direct, Collections.unmodifiableMap(getAttributes(direct)));
+        for (Annotation anno : this.annotations) {
+            Class<? extends Annotation> type = anno.annotationType();
+            if (type == annotationType || type.getPackageName().equals("java.lang.annotation")) {
+                continue;
+            }
+            MergedAnnotation<A> meta = from(type).find(annotationType);
+            if (meta == null) {
+                continue;
+            }
+            if (found != null) {
+                throw new BeanDefinitionException("Duplicate @" + annotationType.getSimpleName() + " found on "
+                        + (this.element instanceof Class<?> clazz ? "class " + clazz.getSimpleName() : this.element));
+            }
+            // Attributes of this annotation override the meta-annotation
+            Map<String, Object> attributes = new LinkedHashMap<>(meta.attributes());
+            attributes.putAll(overrides(anno, meta.attributes()));
+            found = new MergedAnnotation<>(meta.annotation(), anno, Collections.unmodifiableMap(attributes));
+        }
+        return found;
+    }
+
+    /**
+     * Attributes of annotation which have the same name and type as existing
+     * attributes.
+     */
+    static Map<String, Object> overrides(Annotation anno, Map<String, Object> existing) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        getAttributes(anno).forEach((name, value) -> {
+            Object old = existing.get(name);
+            if (old != null && old.getClass() == value.getClass()) {
+                result.put(name, value);
+            }
+        });
+        return result;
+    }
+
+    static Map<String, Object> getAttributes(Annotation anno) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (Method m : anno.annotationType().getDeclaredMethods()) {
+            if (m.getParameterCount() != 0) {
+                continue;
+            }
+            try {
+                m.setAccessible(true);
+                attributes.put(m.getName(), m.invoke(anno));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new BeanDefinitionException("Cannot get attribute " + m.getName() + " of " + anno, e);
+            }
+        }
+        return attributes;
+    }
+}
@@ -1,5 +1,10 @@
 package com.kaiyikang.winter.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +19,30 @@ import org.yaml.snakeyaml.resolver.Resolver;
 public class YamlUtils {
 
     public static Map<String, Object> loadYaml(String path) {
+        var yaml = createYaml();
+        return ClassPathUtils.readInputStream(path, (input) -> {
+            return yaml.load(input);
+        });
+    }
+
+    /**
+     * Load yaml from file system.
+     */
+    public static Map<String, Object> loadYamlAsPlainMap(Path file) {
+        var yaml = createYaml();
+        try (InputStream input = Files.newInputStream(file)) {
+            Map<String, Object> data = yaml.load(input);
+            Map<String, Object> plain = new LinkedHashMap<>();
+            if (data != null) {
+                convertTo(data, "", plain);
+            }
+            return plain;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Yaml createYaml() {
         // 1. Loader Options: Controls how YAML input is parsed/loaded
         var loaderOptions = new LoaderOptions();
 
@@ -25,10 +54,7 @@ public class YamlUtils {
         var representer = new Representer(dumperOptions);
 
         var resolver = new NoImplicitResolver();
-        var yaml = new Yaml(new Constructor(loaderOptions), representer, dumperOptions, loaderOptions, resolver);
-        return ClassPathUtils.readInputStream(path, (input) -> {
-            return (Map<String, Object>) yaml.load(input);
-        });
+        return new Yaml(new Constructor(loaderOptions), representer, dumperOptions, loaderOptions, resolver);
     }
 
     public static Map<String, Object> loadYamlAsPlainMap(String path) {
@@ -0,0 +1,8 @@
+package com.kaiyikang.circular;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class CircularApplication {
+
+}
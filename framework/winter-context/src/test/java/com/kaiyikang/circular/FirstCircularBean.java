@@ -0,0 +1,11 @@
+package com.kaiyikang.circular;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class FirstCircularBean {
+
+    public FirstCircularBean(@Autowired SecondCircularBean second) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.kaiyikang.event;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.context.ApplicationContextUtils;
+
+@Component
+public class AccountService {
+
+    public AccountService() {
+        // Created before AuditListener, the event is deferred
+        ApplicationContextUtils.getRequiredApplicationContext().publishEvent(new AuditEvent("startup"));
+    }
+}
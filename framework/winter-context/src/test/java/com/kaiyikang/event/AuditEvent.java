@@ -0,0 +1,4 @@
+package com.kaiyikang.event;
+
+public record AuditEvent(String action) {
+}
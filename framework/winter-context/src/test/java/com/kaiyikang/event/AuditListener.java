@@ -0,0 +1,27 @@
+package com.kaiyikang.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.EventListener;
+
+@Component
+public class AuditListener {
+
+    public final List<String> actions = new CopyOnWriteArrayList<>();
+    public final List<String> threads = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    void onAudit(AuditEvent event) {
+        this.actions.add(event.action());
+        this.threads.add(Thread.currentThread().getName());
+    }
+
+    @EventListener
+    void onAnyEvent(Object event) {
+        if (event instanceof AuditEvent audit && audit.action().equals("fail")) {
+            throw new IllegalStateException("audit failed");
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.kaiyikang.event;
+
+public record CacheEvictEvent(String key) {
+}
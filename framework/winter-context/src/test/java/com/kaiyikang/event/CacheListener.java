@@ -0,0 +1,24 @@
+package com.kaiyikang.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.EventListener;
+
+@Component
+public class CacheListener {
+
+    public final List<String> evictedKeys = new CopyOnWriteArrayList<>();
+    public final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    public volatile boolean virtualThread;
+
+    @EventListener(async = true, batchSize = 10, queueCapacity = 2)
+    void onEvict(List<CacheEvictEvent> events) throws InterruptedException {
+        this.virtualThread = Thread.currentThread().isVirtual();
+        this.batchSizes.add(events.size());
+        events.forEach(event -> this.evictedKeys.add(event.key()));
+        // Slow consumer
+        Thread.sleep(20);
+    }
+}
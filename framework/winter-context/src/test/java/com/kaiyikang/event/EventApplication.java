@@ -0,0 +1,8 @@
+package com.kaiyikang.event;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class EventApplication {
+
+}
@@ -0,0 +1,31 @@
+package com.kaiyikang.footprint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class CacheService {
+
+    @Autowired
+    SettingsService settingsService;
+
+    final long[] hashes = new long[100_000];
+    final List<byte[]> blocks = new ArrayList<>();
+
+    // Shared with SettingsService
+    Map<String, String> settings;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < 10; i++) {
+            this.blocks.add(new byte[1024]);
+        }
+        this.settings = this.settingsService.getSettings();
+    }
+}
@@ -0,0 +1,8 @@
+package com.kaiyikang.footprint;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class FootprintApplication {
+
+}
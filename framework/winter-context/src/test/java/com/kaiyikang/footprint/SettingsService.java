@@ -0,0 +1,22 @@
+package com.kaiyikang.footprint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class SettingsService {
+
+    final Map<String, String> settings = new HashMap<>();
+
+    public SettingsService() {
+        for (int i = 0; i < 100; i++) {
+            this.settings.put("key-" + i, "value-" + i);
+        }
+    }
+
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+}
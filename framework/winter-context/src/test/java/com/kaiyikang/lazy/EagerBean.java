@@ -0,0 +1,14 @@
+package com.kaiyikang.lazy;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class EagerBean {
+
+    public final InjectedLazyBean injected;
+
+    public EagerBean(@Autowired InjectedLazyBean injected) {
+        this.injected = injected;
+    }
+}
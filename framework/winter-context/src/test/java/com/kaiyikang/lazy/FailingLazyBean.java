@@ -0,0 +1,23 @@
+package com.kaiyikang.lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Lazy;
+
+import jakarta.annotation.PostConstruct;
+
+@Lazy
+@Component
+public class FailingLazyBean {
+
+    public static final AtomicInteger initCount = new AtomicInteger();
+
+    @PostConstruct
+    void init() throws InterruptedException {
+        initCount.incrementAndGet();
+        // Slow enough for other threads to wait for it
+        Thread.sleep(100);
+        throw new IllegalStateException("Failed to init FailingLazyBean");
+    }
+}
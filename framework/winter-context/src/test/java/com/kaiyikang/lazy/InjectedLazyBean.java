@@ -0,0 +1,13 @@
+package com.kaiyikang.lazy;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Lazy;
+
+/**
+ * Injected into eager bean and cannot be proxied without winter-aop.
+ */
+@Lazy
+@Component
+public class InjectedLazyBean {
+
+}
@@ -0,0 +1,17 @@
+package com.kaiyikang.lazy;
+
+import java.time.ZoneId;
+
+import com.kaiyikang.winter.annotation.Bean;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.annotation.Lazy;
+
+@Configuration
+public class LazyConfiguration {
+
+    @Lazy
+    @Bean
+    ZoneId lazyZoneId() {
+        return ZoneId.of("Asia/Shanghai");
+    }
+}
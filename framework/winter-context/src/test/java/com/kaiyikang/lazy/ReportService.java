@@ -0,0 +1,22 @@
+package com.kaiyikang.lazy;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Lazy;
+
+import jakarta.annotation.PostConstruct;
+
+@Lazy
+@Component
+public class ReportService {
+
+    @Autowired
+    public EagerBean eagerBean;
+
+    public boolean initialized;
+
+    @PostConstruct
+    void init() {
+        this.initialized = true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.kaiyikang.parallel;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class AggregateBean {
+
+    public final SlowBeanA slowBeanA;
+    public final SlowBeanB slowBeanB;
+
+    @Autowired
+    InitBean initBean;
+
+    public boolean initAfterDependency;
+
+    public AggregateBean(@Autowired SlowBeanA slowBeanA, @Autowired SlowBeanB slowBeanB) {
+        this.slowBeanA = slowBeanA;
+        this.slowBeanB = slowBeanB;
+    }
+
+    @PostConstruct
+    void init() {
+        this.initAfterDependency = this.initBean.initialized;
+    }
+}
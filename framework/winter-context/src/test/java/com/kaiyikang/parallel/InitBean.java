@@ -0,0 +1,17 @@
+package com.kaiyikang.parallel;
+
+import com.kaiyikang.winter.annotation.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class InitBean {
+
+    public boolean initialized;
+
+    @PostConstruct
+    void init() throws InterruptedException {
+        Thread.sleep(100);
+        this.initialized = true;
+    }
+}
@@ -0,0 +1,13 @@
+package com.kaiyikang.parallel;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class ParallelApplication {
+
+    // Counted down by the slow beans, only reached when they are created at the
+    // same time
+    public static CountDownLatch latch = new CountDownLatch(2);
+}
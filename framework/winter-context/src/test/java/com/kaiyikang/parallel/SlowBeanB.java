@@ -0,0 +1,16 @@
+package com.kaiyikang.parallel;
+
+import java.util.concurrent.TimeUnit;
+
+import com.kaiyikang.winter.annotation.Component;
+
+@Component
+public class SlowBeanB {
+
+    public final boolean concurrent;
+
+    public SlowBeanB() throws InterruptedException {
+        ParallelApplication.latch.countDown();
+        this.concurrent = ParallelApplication.latch.await(5, TimeUnit.SECONDS);
+    }
+}
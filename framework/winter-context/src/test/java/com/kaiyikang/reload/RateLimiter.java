@@ -0,0 +1,20 @@
+package com.kaiyikang.reload;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Value;
+import com.kaiyikang.winter.io.PropertyChangeEvent;
+import com.kaiyikang.winter.io.PropertyChangeListener;
+
+@Component
+public class RateLimiter implements PropertyChangeListener {
+
+    @Value("${rate.limit:10}")
+    public volatile int limit;
+
+    @Override
+    public void onPropertyChange(PropertyChangeEvent event) {
+        if (event.isChanged("rate.limit")) {
+            this.limit = event.source().getProperty("${rate.limit:10}", int.class);
+        }
+    }
+}
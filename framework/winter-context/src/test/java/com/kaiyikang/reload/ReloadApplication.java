@@ -0,0 +1,8 @@
+package com.kaiyikang.reload;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class ReloadApplication {
+
+}
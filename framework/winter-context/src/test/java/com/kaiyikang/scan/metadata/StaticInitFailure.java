@@ -0,0 +1,13 @@
+package com.kaiyikang.scan.metadata;
+
+/**
+ * Not a component, component scan must not initialize this class.
+ */
+public class StaticInitFailure {
+
+    static {
+        if (Boolean.TRUE) {
+            throw new IllegalStateException("StaticInitFailure must not be initialized.");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kaiyikang.scheduled;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Scheduled;
+
+@Component
+public class AuditJobs {
+
+    final AtomicInteger auditCount = new AtomicInteger();
+
+    public int getAuditCount() {
+        return this.auditCount.get();
+    }
+
+    // Not forwarded by the proxy, must run on the target
+    @Scheduled(fixedRate = 20)
+    void audit() {
+        this.auditCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,15 @@
+package com.kaiyikang.scheduled;
+
+public class AuditJobsProxy extends AuditJobs {
+
+    final AuditJobs target;
+
+    public AuditJobsProxy(AuditJobs target) {
+        this.target = target;
+    }
+
+    @Override
+    public int getAuditCount() {
+        return target.getAuditCount();
+    }
+}
@@ -0,0 +1,28 @@
+package com.kaiyikang.scheduled;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.context.BeanPostProcessor;
+
+@Component
+public class AuditProxyBeanPostProcessor implements BeanPostProcessor {
+
+    Map<String, Object> originBeans = new HashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof AuditJobs jobs) {
+            originBeans.put(beanName, bean);
+            return new AuditJobsProxy(jobs);
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessOnSetProperty(Object bean, String beanName) {
+        Object origin = originBeans.get(beanName);
+        return origin != null ? origin : bean;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kaiyikang.scheduled;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Scheduled;
+
+@Component
+public class ReportJobs {
+
+    public final AtomicInteger rateCount = new AtomicInteger();
+    public final AtomicInteger delayCount = new AtomicInteger();
+    public final AtomicInteger slowCount = new AtomicInteger();
+    public final AtomicInteger cronCount = new AtomicInteger();
+
+    @Scheduled(fixedRate = 20)
+    void refreshCache() {
+        this.rateCount.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelay = 20, initialDelay = 10)
+    void cleanup() {
+        this.delayCount.incrementAndGet();
+    }
+
+    @Scheduled(fixedRate = 20)
+    void slowReport() throws InterruptedException {
+        this.slowCount.incrementAndGet();
+        Thread.sleep(70);
+    }
+
+    @Scheduled(cron = "${report.cron:* * * * * *}")
+    void everySecond() {
+        this.cronCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,8 @@
+package com.kaiyikang.scheduled;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class ScheduledApplication {
+
+}
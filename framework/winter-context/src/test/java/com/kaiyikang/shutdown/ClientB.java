@@ -0,0 +1,24 @@
+package com.kaiyikang.shutdown;
+
+import java.util.concurrent.TimeUnit;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class ClientB {
+
+    @Autowired
+    PoolBean pool;
+
+    public boolean concurrent;
+
+    @PreDestroy
+    void flush() throws InterruptedException {
+        ShutdownApplication.latch.countDown();
+        this.concurrent = ShutdownApplication.latch.await(5, TimeUnit.SECONDS);
+        ShutdownApplication.destroyed.add("clientB");
+    }
+}
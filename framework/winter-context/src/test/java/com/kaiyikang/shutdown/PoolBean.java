@@ -0,0 +1,14 @@
+package com.kaiyikang.shutdown;
+
+import com.kaiyikang.winter.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class PoolBean {
+
+    @PreDestroy
+    void drain() {
+        ShutdownApplication.destroyed.add("pool");
+    }
+}
@@ -0,0 +1,17 @@
+package com.kaiyikang.shutdown;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class ShutdownApplication {
+
+    public static final List<String> destroyed = new CopyOnWriteArrayList<>();
+
+    // Counted down by the clients, only reached when they are destroyed at the
+    // same time
+    public static CountDownLatch latch = new CountDownLatch(2);
+}
@@ -0,0 +1,22 @@
+package com.kaiyikang.shutdown;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Component;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class StuckBean {
+
+    final PoolBean pool;
+
+    public StuckBean(@Autowired PoolBean pool) {
+        this.pool = pool;
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        Thread.sleep(60_000);
+        ShutdownApplication.destroyed.add("stuck");
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
@@ -24,12 +25,16 @@ import com.kaiyikang.scan.nested.OuterBean;
 import com.kaiyikang.scan.nested.OuterBean.NestedBean;
 import com.kaiyikang.scan.primary.CatBean;
 import com.kaiyikang.scan.primary.PersonBean;
+import com.kaiyikang.scan.primary.PrimaryConfiguration;
 import com.kaiyikang.scan.primary.StudentBean;
 import com.kaiyikang.scan.primary.TeacherBean;
 import com.kaiyikang.scan.proxy.InjectProxyOnConstructorBean;
 import com.kaiyikang.scan.proxy.InjectProxyOnPropertyBean;
 import com.kaiyikang.scan.proxy.OriginBean;
 import com.kaiyikang.scan.proxy.SecondProxyBean;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.annotation.Primary;
+import com.kaiyikang.winter.exception.NoUniqueBeanDefinitionException;
 import com.kaiyikang.winter.io.PropertyResolver;
 
 public class AnnotationConfigApplicationContextTest {
@@ -139,6 +144,23 @@ public class AnnotationConfigApplicationContextTest {
         assertEquals("Mimi", cat.type);
     }
 
+    @Test
+    public void findBeanDefinitionsByIndex() {
+        // Interface and superclass, lookup returns the same list
+        List<BeanDefinition> defs = ctx.findBeanDefinitions(BeanPostProcessor.class);
+        assertEquals(2, defs.size());
+        assertSame(defs, ctx.findBeanDefinitions(BeanPostProcessor.class));
+        assertTrue(ctx.findBeanDefinitions(Runnable.class).isEmpty());
+        assertThrows(NoUniqueBeanDefinitionException.class, () -> ctx.findBeanDefinition(Object.class));
+
+        // Annotation
+        List<BeanDefinition> configDefs = ctx.findBeanDefinitionsByAnnotation(Configuration.class);
+        assertTrue(configDefs.contains(ctx.findBeanDefinition(PrimaryConfiguration.class)));
+        assertTrue(configDefs.stream().allMatch(def -> def.getBeanClass().isAnnotationPresent(Configuration.class)));
+        assertSame(ctx.findBeanDefinition(TeacherBean.class),
+                ctx.findBeanDefinitionsByAnnotation(Primary.class).get(0));
+    }
+
     PropertyResolver createPropertyResolver() {
         var ps = new Properties();
         ps.put("app.title", "Scan App");
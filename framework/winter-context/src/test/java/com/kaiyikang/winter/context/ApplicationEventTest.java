@@ -0,0 +1,72 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.event.AuditEvent;
+import com.kaiyikang.event.AuditListener;
+import com.kaiyikang.event.CacheEvictEvent;
+import com.kaiyikang.event.CacheListener;
+import com.kaiyikang.event.EventApplication;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class ApplicationEventTest {
+
+    @Test
+    public void syncListener() {
+        try (var ctx = new AnnotationConfigApplicationContext(EventApplication.class, createPropertyResolver())) {
+            ctx.publishEvent(new AuditEvent("login"));
+            AuditListener listener = ctx.getBean(AuditListener.class);
+            // Event published before the listener bean is created is delivered after refresh
+            assertEquals(List.of("startup", "login"), listener.actions);
+            assertEquals(Thread.currentThread().getName(), listener.threads.get(0));
+
+            // Exception of sync listener is thrown to publisher
+            assertThrows(IllegalStateException.class, () -> ctx.publishEvent(new AuditEvent("fail")));
+
+            EventListenerMetrics metrics = ctx.getEventListenerMetrics().stream()
+                    .filter(m -> m.name().equals("auditListener#onAnyEvent")).findFirst().get();
+            assertEquals(3, metrics.published());
+            assertEquals(2, metrics.delivered());
+            assertEquals(1, metrics.failed());
+        }
+    }
+
+    @Test
+    public void asyncBatchListener() {
+        CacheListener listener;
+        EventListenerMetrics metrics;
+        try (var ctx = new AnnotationConfigApplicationContext(EventApplication.class, createPropertyResolver())) {
+            listener = ctx.getBean(CacheListener.class);
+            IntStream.range(0, 20).forEach(i -> ctx.publishEvent(new CacheEvictEvent("key-" + i)));
+            metrics = ctx.getEventListenerMetrics().stream().filter(m -> m.name().equals("cacheListener#onEvict"))
+                    .findFirst().get();
+            assertTrue(metrics.async());
+            assertEquals(2, metrics.queueCapacity());
+            assertEquals(20, metrics.published());
+        }
+        // Queued events are delivered on close
+        assertEquals(IntStream.range(0, 20).mapToObj(i -> "key-" + i).toList(), listener.evictedKeys);
+        assertTrue(listener.virtualThread);
+        // A batch is the polled event and the drained queue
+        assertTrue(listener.batchSizes.stream().allMatch(size -> size <= 3));
+        assertTrue(listener.batchSizes.stream().anyMatch(size -> size > 1));
+        // Queue of capacity 2 is full with a slow consumer
+        assertTrue(metrics.blockedPublishes() > 0);
+        assertTrue(metrics.blockedNanos() > 0);
+    }
+
+    PropertyResolver createPropertyResolver() {
+        var ps = new Properties();
+        ps.put("app.title", "Scan App");
+        ps.put("app.version", "v1.0");
+        return new PropertyResolver(ps);
+    }
+}
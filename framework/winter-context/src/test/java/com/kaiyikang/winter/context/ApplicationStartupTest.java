@@ -0,0 +1,73 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.kaiyikang.parallel.ParallelApplication;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class ApplicationStartupTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void recordPhasesAndBeans() {
+        ParallelApplication.latch = new CountDownLatch(0);
+        try (var ctx = new AnnotationConfigApplicationContext(ParallelApplication.class,
+                createPropertyResolver(null))) {
+            ApplicationStartup startup = ctx.getApplicationStartup();
+            assertTrue(startup.getRefreshNanos() > 0);
+            assertEquals(List.of("scan", "definitions", "configurations", "postProcessors", "beans", "injection", "init"),
+                    startup.getPhases().stream().map(ApplicationStartup.Phase::name).toList());
+
+            var initBean = startup.getBeans().stream().filter(b -> b.getName().equals("initBean")).findFirst().get();
+            assertEquals("beans", initBean.getPhase());
+            assertTrue(initBean.getInitNanos() >= 100_000_000L);
+            // The slowest bean is the first
+            assertEquals("initBean", startup.getBeans().get(0).getName());
+
+            // aggregateBean -> initBean is the longest chain
+            ApplicationStartup.CriticalPath path = startup.getCriticalPath();
+            assertEquals(List.of("aggregateBean", "initBean"), path.beanNames());
+            assertTrue(path.nanos() >= initBean.getSelfNanos());
+        }
+    }
+
+    @Test
+    public void writeReportOnClose() throws IOException {
+        ParallelApplication.latch = new CountDownLatch(0);
+        Path json = tempDir.resolve("startup.json");
+        new AnnotationConfigApplicationContext(ParallelApplication.class, createPropertyResolver(json)).close();
+        String report = Files.readString(json);
+        assertTrue(report.contains("\"criticalPath\": {"));
+        assertTrue(report.contains("\"name\": \"initBean\""));
+
+        Path folded = tempDir.resolve("startup.folded");
+        new AnnotationConfigApplicationContext(ParallelApplication.class, createPropertyResolver(folded)).close();
+        List<String> lines = Files.readAllLines(folded);
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("refresh;beans;aggregateBean;slowBeanA ")));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("refresh;init;initBean ")));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("refresh;scan ")));
+    }
+
+    PropertyResolver createPropertyResolver(Path report) {
+        var ps = new Properties();
+        ps.put("app.title", "Scan App");
+        ps.put("app.version", "v1.0");
+        if (report != null) {
+            ps.put("winter.context.startup.report", report.toString());
+        }
+        return new PropertyResolver(ps);
+    }
+}
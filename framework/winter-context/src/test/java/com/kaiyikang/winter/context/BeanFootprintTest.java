@@ -0,0 +1,51 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.footprint.FootprintApplication;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class BeanFootprintTest {
+
+    @Test
+    public void rankByRetainedSize() {
+        try (var ctx = new AnnotationConfigApplicationContext(FootprintApplication.class, createPropertyResolver())) {
+            BeanFootprintReport report = ctx.analyzeBeanFootprint();
+            Map<String, BeanFootprint> beans = report.getBeans().stream()
+                    .collect(Collectors.toMap(BeanFootprint::name, b -> b));
+
+            // Largest first: long[100000] and 10 blocks of 1K
+            assertEquals("cacheService", report.getBeans().get(0).name());
+            BeanFootprint cache = beans.get("cacheService");
+            assertTrue(cache.retainedBytes() > 800_000 + 10 * 1024);
+            assertTrue(cache.retainedBytes() < 900_000);
+            assertTrue(cache.shallowBytes() < 64);
+            assertFalse(cache.truncated());
+
+            // Settings map is shared, and the other bean is not retained
+            BeanFootprint settings = beans.get("settingsService");
+            assertTrue(settings.retainedBytes() < 64);
+            assertTrue(report.getSharedObjectCount() > 200);
+            assertTrue(report.getSharedBytes() > 100 * 2 * 40);
+            assertEquals(report.getTotalBytes(), report.getSharedBytes()
+                    + report.getBeans().stream().mapToLong(BeanFootprint::retainedBytes).sum());
+
+            String json = report.toJson();
+            assertTrue(json.contains("\"name\": \"cacheService\""));
+            assertTrue(report.toString().contains("cacheService"));
+        }
+    }
+
+    PropertyResolver createPropertyResolver() {
+        var ps = new Properties();
+        return new PropertyResolver(ps);
+    }
+}
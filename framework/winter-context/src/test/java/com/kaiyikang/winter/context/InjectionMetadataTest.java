@@ -0,0 +1,74 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.annotation.Value;
+import com.kaiyikang.winter.context.InjectionMetadata.InjectionPoint;
+import com.kaiyikang.winter.exception.BeanCreationException;
+import com.kaiyikang.winter.exception.BeanDefinitionException;
+
+public class InjectionMetadataTest {
+
+    static class BaseBean {
+        @Value("${app.title}")
+        private String title;
+    }
+
+    static class ChildBean extends BaseBean {
+        @Autowired(name = "foo")
+        Object foo;
+
+        int port;
+
+        Object none;
+
+        @Value("${app.port}")
+        void setPort(int port) {
+            this.port = port;
+        }
+    }
+
+    static class StaticFieldBean {
+        @Autowired
+        static Object foo;
+    }
+
+    static class BothAnnotatedBean {
+        @Value("${app.title}")
+        @Autowired
+        String title;
+    }
+
+    @Test
+    public void injectionPoints() throws Throwable {
+        InjectionMetadata metadata = InjectionMetadata.forClass(ChildBean.class);
+        assertSame(metadata, InjectionMetadata.forClass(ChildBean.class));
+
+        List<InjectionPoint> points = metadata.injectionPoints;
+        assertEquals(List.of("foo", "setPort", "title"), points.stream().map(p -> p.member().getName()).toList());
+        assertEquals("foo", points.get(0).autowiredName());
+        assertEquals(int.class, points.get(1).type());
+        assertEquals("${app.port}", points.get(1).propertyExpr());
+        assertSame(BaseBean.class, points.get(2).declaringClass());
+
+        // Setters of private field and primitive setter
+        var bean = new ChildBean();
+        points.get(1).setter().invokeExact((Object) bean, (Object) 8080);
+        points.get(2).setter().invokeExact((Object) bean, (Object) "Winter");
+        assertEquals(8080, bean.port);
+        assertEquals("Winter", ((BaseBean) bean).title);
+    }
+
+    @Test
+    public void invalidInjectionPoints() {
+        assertThrows(BeanDefinitionException.class, () -> InjectionMetadata.forClass(StaticFieldBean.class));
+        assertThrows(BeanCreationException.class, () -> InjectionMetadata.forClass(BothAnnotatedBean.class));
+    }
+}
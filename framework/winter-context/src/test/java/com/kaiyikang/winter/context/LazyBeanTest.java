@@ -0,0 +1,134 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.lazy.EagerBean;
+import com.kaiyikang.lazy.FailingLazyBean;
+import com.kaiyikang.lazy.InjectedLazyBean;
+import com.kaiyikang.lazy.LazyApplication;
+import com.kaiyikang.lazy.ReportService;
+import com.kaiyikang.scan.ScanApplication;
+import com.kaiyikang.scan.init.AnnotationInitBean;
+import com.kaiyikang.scan.proxy.InjectProxyOnConstructorBean;
+import com.kaiyikang.scan.proxy.OriginBean;
+import com.kaiyikang.scan.proxy.SecondProxyBean;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class LazyBeanTest {
+
+    @Test
+    public void createLazyBeanOnFirstUse() {
+        try (var ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver(false))) {
+            BeanDefinition reportDef = ctx.findBeanDefinition(ReportService.class);
+            assertTrue(reportDef.isLazy());
+            assertNull(reportDef.getInstance());
+            assertNull(ctx.findBeanDefinition("lazyZoneId").getInstance());
+
+            ReportService report = ctx.getBean(ReportService.class);
+            assertTrue(report.initialized);
+            assertSame(ctx.getBean(EagerBean.class), report.eagerBean);
+            assertSame(report, ctx.getBean("reportService"));
+            assertEquals(ZoneId.of("Asia/Shanghai"), ctx.getBean("lazyZoneId"));
+        }
+    }
+
+    @Test
+    public void createLazyBeanOnceConcurrently() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver(false));
+                ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<ReportService>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> ctx.getBean(ReportService.class)));
+            }
+            for (Future<ReportService> future : futures) {
+                assertSame(ctx.getBean(ReportService.class), future.get());
+                assertTrue(future.get().initialized);
+            }
+        }
+    }
+
+    @Test
+    public void failWaitingThreadsWithCreationError() throws Exception {
+        try (var ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver(false));
+                ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<FailingLazyBean>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> ctx.getBean(FailingLazyBean.class)));
+            }
+            for (Future<FailingLazyBean> future : futures) {
+                var e = assertThrows(ExecutionException.class, future::get);
+                Throwable cause = e.getCause();
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                assertEquals("Failed to init FailingLazyBean", cause.getMessage());
+            }
+            // Waiting threads see the error instead of creating it again
+            assertEquals(1, FailingLazyBean.initCount.get());
+        }
+    }
+
+    @Test
+    public void createEagerlyIfNotProxyable() {
+        try (var ctx = new AnnotationConfigApplicationContext(LazyApplication.class, createPropertyResolver(false))) {
+            // No LazyBeanProxyFactory without winter-aop
+            BeanDefinition def = ctx.findBeanDefinition(InjectedLazyBean.class);
+            assertFalse(def.isLazy());
+            assertSame(def.getInstance(), ctx.getBean(EagerBean.class).injected);
+        }
+    }
+
+    @Test
+    public void globalLazyInit() {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver(true))) {
+            BeanDefinition initDef = ctx.findBeanDefinition(AnnotationInitBean.class);
+            assertTrue(initDef.isLazy());
+            assertNull(initDef.getInstance());
+            // BeanPostProcessor is never lazy
+            assertNotNull(ctx.findBeanDefinition("firstProxyBeanPostProcessor").getInstance());
+
+            assertEquals("Scan App / v1.0", ctx.getBean(AnnotationInitBean.class).appName);
+            OriginBean proxy = ctx.getBean(OriginBean.class);
+            assertSame(SecondProxyBean.class, proxy.getClass());
+            assertSame(proxy, ctx.getBean(InjectProxyOnConstructorBean.class).injected);
+        }
+    }
+
+    PropertyResolver createPropertyResolver(boolean lazyInit) {
+        var ps = new Properties();
+        ps.put("app.title", "Scan App");
+        ps.put("app.version", "v1.0");
+        ps.put("convert.boolean", "true");
+        ps.put("convert.byte", "123");
+        ps.put("convert.short", "12345");
+        ps.put("convert.integer", "1234567");
+        ps.put("convert.long", "123456789000");
+        ps.put("convert.float", "12345.6789");
+        ps.put("convert.double", "123456789.87654321");
+        ps.put("convert.localdate", "2023-03-29");
+        ps.put("convert.localtime", "20:45:01");
+        ps.put("convert.localdatetime", "2023-03-29T20:45:01");
+        ps.put("convert.zoneddatetime", "2023-03-29T20:45:01+08:00[Asia/Shanghai]");
+        ps.put("convert.duration", "P2DT3H4M");
+        ps.put("convert.zoneid", "Asia/Shanghai");
+        ps.put("winter.context.lazy-init", String.valueOf(lazyInit));
+        return new PropertyResolver(ps);
+    }
+}
@@ -0,0 +1,87 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.circular.CircularApplication;
+import com.kaiyikang.parallel.AggregateBean;
+import com.kaiyikang.parallel.ParallelApplication;
+import com.kaiyikang.scan.ScanApplication;
+import com.kaiyikang.scan.init.AnnotationInitBean;
+import com.kaiyikang.scan.proxy.InjectProxyOnConstructorBean;
+import com.kaiyikang.scan.proxy.InjectProxyOnPropertyBean;
+import com.kaiyikang.scan.proxy.OriginBean;
+import com.kaiyikang.scan.proxy.SecondProxyBean;
+import com.kaiyikang.winter.exception.UnsatisfiedDependencyException;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class ParallelRefreshTest {
+
+    @Test
+    public void createIndependentBeansConcurrently() {
+        ParallelApplication.latch = new CountDownLatch(2);
+        try (var ctx = new AnnotationConfigApplicationContext(ParallelApplication.class,
+                createPropertyResolver(true))) {
+            AggregateBean bean = ctx.getBean(AggregateBean.class);
+            assertTrue(bean.slowBeanA.concurrent);
+            assertTrue(bean.slowBeanB.concurrent);
+            assertTrue(bean.initAfterDependency);
+        }
+    }
+
+    @Test
+    public void sameBeansAsSequentialRefresh() {
+        List<String> sequential;
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver(false))) {
+            sequential = ctx.findBeanDefinitions(Object.class).stream().map(BeanDefinition::getName).toList();
+        }
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver(true))) {
+            assertEquals(sequential,
+                    ctx.findBeanDefinitions(Object.class).stream().map(BeanDefinition::getName).toList());
+
+            // BeanPostProcessor and init method
+            OriginBean proxy = ctx.getBean(OriginBean.class);
+            assertSame(SecondProxyBean.class, proxy.getClass());
+            assertEquals("Scan App", proxy.getName());
+            assertSame(proxy, ctx.getBean(InjectProxyOnPropertyBean.class).injected);
+            assertSame(proxy, ctx.getBean(InjectProxyOnConstructorBean.class).injected);
+            assertEquals("Scan App / v1.0", ctx.getBean(AnnotationInitBean.class).appName);
+        }
+    }
+
+    @Test
+    public void circularDependency() {
+        assertThrows(UnsatisfiedDependencyException.class,
+                () -> new AnnotationConfigApplicationContext(CircularApplication.class, createPropertyResolver(true)));
+    }
+
+    PropertyResolver createPropertyResolver(boolean parallel) {
+        var ps = new Properties();
+        ps.put("app.title", "Scan App");
+        ps.put("app.version", "v1.0");
+        ps.put("convert.boolean", "true");
+        ps.put("convert.byte", "123");
+        ps.put("convert.short", "12345");
+        ps.put("convert.integer", "1234567");
+        ps.put("convert.long", "123456789000");
+        ps.put("convert.float", "12345.6789");
+        ps.put("convert.double", "123456789.87654321");
+        ps.put("convert.localdate", "2023-03-29");
+        ps.put("convert.localtime", "20:45:01");
+        ps.put("convert.localdatetime", "2023-03-29T20:45:01");
+        ps.put("convert.zoneddatetime", "2023-03-29T20:45:01+08:00[Asia/Shanghai]");
+        ps.put("convert.duration", "P2DT3H4M");
+        ps.put("convert.zoneid", "Asia/Shanghai");
+        ps.put("winter.context.refresh.parallel", String.valueOf(parallel));
+        ps.put("winter.context.refresh.parallelism", "4");
+        return new PropertyResolver(ps);
+    }
+}
@@ -0,0 +1,86 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.scheduled.AuditJobs;
+import com.kaiyikang.scheduled.AuditJobsProxy;
+import com.kaiyikang.scheduled.ReportJobs;
+import com.kaiyikang.scheduled.ScheduledApplication;
+import com.kaiyikang.scan.ScanApplication;
+import com.kaiyikang.winter.io.PropertyResolver;
+import com.kaiyikang.winter.scheduling.ScheduledTaskMetrics;
+
+public class ScheduledTaskTest {
+
+    @Test
+    public void runScheduledMethods() throws InterruptedException {
+        ReportJobs jobs;
+        AuditJobs auditJobs;
+        Map<String, ScheduledTaskMetrics> metrics;
+        try (var ctx = new AnnotationConfigApplicationContext(ScheduledApplication.class, createPropertyResolver())) {
+            jobs = ctx.getBean(ReportJobs.class);
+            auditJobs = ctx.getBean(AuditJobs.class);
+            assertTrue(auditJobs instanceof AuditJobsProxy);
+            for (int i = 0; i < 100 && jobs.cronCount.get() == 0; i++) {
+                Thread.sleep(50);
+            }
+            Thread.sleep(300);
+            metrics = ctx.getScheduledTaskMetrics().stream()
+                    .collect(Collectors.toMap(ScheduledTaskMetrics::name, Function.identity()));
+        }
+        assertEquals(5, metrics.size());
+        assertTrue(jobs.rateCount.get() >= 5);
+        assertTrue(jobs.delayCount.get() >= 5);
+        assertTrue(jobs.cronCount.get() >= 1);
+        // Package-private method of proxied bean runs on the target
+        assertTrue(auditJobs.getAuditCount() >= 5);
+
+        // Slow task takes longer than its period
+        ScheduledTaskMetrics slow = metrics.get("reportJobs#slowReport");
+        assertEquals("fixedRate=20 MILLISECONDS", slow.trigger());
+        assertTrue(slow.skipped() > 0);
+        assertTrue(slow.overruns() > 0);
+        assertTrue(slow.maxDurationNanos() >= 70_000_000L);
+        assertEquals(0, metrics.get("reportJobs#everySecond").failures());
+
+        // No more execution after close
+        int count = jobs.rateCount.get();
+        Thread.sleep(100);
+        assertEquals(count, jobs.rateCount.get());
+    }
+
+    @Test
+    public void noSchedulerWithoutScheduledMethod() {
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, createPropertyResolver())) {
+            assertTrue(ctx.getScheduledTaskMetrics().isEmpty());
+        }
+    }
+
+    PropertyResolver createPropertyResolver() {
+        var ps = new Properties();
+        ps.put("app.title", "Scan App");
+        ps.put("app.version", "v1.0");
+        ps.put("convert.boolean", "true");
+        ps.put("convert.byte", "123");
+        ps.put("convert.short", "12345");
+        ps.put("convert.integer", "1234567");
+        ps.put("convert.long", "123456789000");
+        ps.put("convert.float", "12345.6789");
+        ps.put("convert.double", "123456789.87654321");
+        ps.put("convert.localdate", "2023-03-29");
+        ps.put("convert.localtime", "20:45:01");
+        ps.put("convert.localdatetime", "2023-03-29T20:45:01");
+        ps.put("convert.zoneddatetime", "2023-03-29T20:45:01+08:00[Asia/Shanghai]");
+        ps.put("convert.duration", "P2DT3H4M");
+        ps.put("convert.zoneid", "Asia/Shanghai");
+        return new PropertyResolver(ps);
+    }
+}
@@ -0,0 +1,46 @@
+package com.kaiyikang.winter.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.shutdown.ClientA;
+import com.kaiyikang.shutdown.ClientB;
+import com.kaiyikang.shutdown.ShutdownApplication;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+public class ShutdownTest {
+
+    @Test
+    public void destroyInReverseDependencyOrder() {
+        ShutdownApplication.destroyed.clear();
+        ShutdownApplication.latch = new CountDownLatch(2);
+        var ctx = new AnnotationConfigApplicationContext(ShutdownApplication.class, createPropertyResolver());
+        ClientA clientA = ctx.getBean(ClientA.class);
+        ClientB clientB = ctx.getBean(ClientB.class);
+
+        long start = System.currentTimeMillis();
+        ctx.close();
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Clients are destroyed in parallel before the pool they use
+        assertTrue(clientA.concurrent);
+        assertTrue(clientB.concurrent);
+        // Stuck bean is interrupted after the bean timeout
+        assertEquals(List.of("pool"), ShutdownApplication.destroyed.subList(2, 3));
+        assertFalse(ShutdownApplication.destroyed.contains("stuck"));
+        assertTrue(elapsed < 5000);
+    }
+
+    PropertyResolver createPropertyResolver() {
+        var ps = new Properties();
+        ps.put("winter.context.shutdown.bean-timeout-millis", "500");
+        return new PropertyResolver(ps);
+    }
+}
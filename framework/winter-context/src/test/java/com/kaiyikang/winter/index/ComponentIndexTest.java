@@ -0,0 +1,101 @@
+package com.kaiyikang.winter.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.scan.ScanApplication;
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.context.BeanDefinition;
+import com.kaiyikang.winter.io.PropertyResolver;
+import com.kaiyikang.winter.io.Resource;
+import com.kaiyikang.winter.io.ResourceResolver;
+
+public class ComponentIndexTest {
+
+    @Test
+    public void indexGeneratedByProcessor() {
+        ComponentIndex index = ComponentIndex.load(getClass().getClassLoader());
+        assertNotNull(index);
+
+        List<String> classNames = index.getCandidateClassNames("com.kaiyikang.scan");
+        // @Component, meta-annotated @Component and nested class
+        assertTrue(classNames.contains("com.kaiyikang.scan.proxy.OriginBean"));
+        assertTrue(classNames.contains("com.kaiyikang.scan.init.SpecifyInitConfiguration"));
+        assertTrue(classNames.contains("com.kaiyikang.scan.custom.annotation.CustomAnnotationBean"));
+        assertTrue(classNames.contains("com.kaiyikang.scan.nested.OuterBean$NestedBean"));
+
+        // Not a component
+        assertFalse(classNames.contains("com.kaiyikang.scan.ScanApplication"));
+        assertFalse(classNames.contains("com.kaiyikang.scan.proxy.FirstProxyBean"));
+        assertFalse(classNames.contains("com.kaiyikang.scan.custom.annotation.CustomAnnotation"));
+
+        // Out of package
+        assertTrue(index.getCandidateClassNames("com.kaiyikang.imported").contains(
+                "com.kaiyikang.imported.LocalDateConfiguration"));
+        assertTrue(index.getCandidateClassNames("com.kaiyikang.sca").isEmpty());
+    }
+
+    @Test
+    public void rootWithoutIndexIsScanned() {
+        ComponentIndex index = ComponentIndex.load(getClass().getClassLoader());
+        ComponentIndex empty = new ComponentIndex(Map.of());
+        assertNull(empty.getCandidateClassNames("file:/no/index/", "com.kaiyikang.scan"));
+
+        var resolver = new ResourceResolver("com.kaiyikang.scan");
+        Set<String> scanned = new HashSet<>(resolver.scan(ComponentIndexTest::toClassName));
+        // no root is indexed, all roots are scanned
+        assertEquals(scanned, new HashSet<>(resolver.scan(ComponentIndexTest::toClassName,
+                rootUrl -> empty.getCandidateClassNames(rootUrl, "com.kaiyikang.scan"))));
+        // indexed roots are not scanned
+        List<String> indexed = resolver.scan(ComponentIndexTest::toClassName,
+                rootUrl -> index.getCandidateClassNames(rootUrl, "com.kaiyikang.scan"));
+        assertTrue(indexed.contains("com.kaiyikang.scan.proxy.OriginBean"));
+        assertFalse(indexed.contains("com.kaiyikang.scan.ScanApplication"));
+    }
+
+    static String toClassName(Resource res) {
+        String name = res.name();
+        return name.endsWith(".class") ? name.substring(0, name.length() - 6).replace("/", ".") : null;
+    }
+
+    @Test
+    public void sameBeansWithAndWithoutIndex() {
+        List<String> indexed = beanNames(false);
+        List<String> scanned = beanNames(true);
+        assertEquals(scanned, indexed);
+    }
+
+    List<String> beanNames(boolean ignoreIndex) {
+        var ps = new Properties();
+        ps.put("app.title", "Scan App");
+        ps.put("app.version", "v1.0");
+        ps.put("convert.boolean", "true");
+        ps.put("convert.byte", "123");
+        ps.put("convert.short", "12345");
+        ps.put("convert.integer", "1234567");
+        ps.put("convert.long", "123456789000");
+        ps.put("convert.float", "12345.6789");
+        ps.put("convert.double", "123456789.87654321");
+        ps.put("convert.localdate", "2023-03-29");
+        ps.put("convert.localtime", "20:45:01");
+        ps.put("convert.localdatetime", "2023-03-29T20:45:01");
+        ps.put("convert.zoneddatetime", "2023-03-29T20:45:01+08:00[Asia/Shanghai]");
+        ps.put("convert.duration", "P2DT3H4M");
+        ps.put("convert.zoneid", "Asia/Shanghai");
+        ps.put("winter.index.ignore", String.valueOf(ignoreIndex));
+        try (var ctx = new AnnotationConfigApplicationContext(ScanApplication.class, new PropertyResolver(ps))) {
+            return ctx.findBeanDefinitions(Object.class).stream().map(BeanDefinition::getName).toList();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.kaiyikang.winter.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.annotation.Component;
+
+public class ClassMetadataReaderTest {
+
+    final ClassMetadataReader reader = new ClassMetadataReader(getClass().getClassLoader());
+
+    @Test
+    public void readComponent() {
+        ClassMetadata metadata = reader.read("com.kaiyikang.scan.proxy.OriginBean");
+        assertNotNull(metadata);
+        assertEquals("com.kaiyikang.scan.proxy.OriginBean", metadata.className());
+        assertEquals("java.lang.Object", metadata.superClassName());
+        assertEquals(List.of(Component.class.getName()), metadata.annotationNames());
+        assertTrue(reader.isAnnotated(metadata, Component.class.getName()));
+        assertFalse(metadata.isAbstract());
+    }
+
+    @Test
+    public void readMetaAnnotatedComponent() {
+        // @CustomAnnotation -> @Component
+        assertTrue(isComponent("com.kaiyikang.scan.custom.annotation.CustomAnnotationBean"));
+        // @Configuration -> @Component
+        assertTrue(isComponent("com.kaiyikang.scan.primary.PrimaryConfiguration"));
+        assertTrue(isComponent("com.kaiyikang.scan.nested.OuterBean$NestedBean"));
+
+        ClassMetadata anno = reader.read("com.kaiyikang.scan.custom.annotation.CustomAnnotation");
+        assertTrue(anno.isAnnotation());
+        assertTrue(anno.isInterface());
+    }
+
+    @Test
+    public void readNonComponentWithoutInitialization() {
+        assertFalse(isComponent("com.kaiyikang.scan.proxy.FirstProxyBean"));
+        // Throws ExceptionInInitializerError if the class is initialized
+        assertFalse(isComponent("com.kaiyikang.scan.metadata.StaticInitFailure"));
+        assertNull(reader.read("com.kaiyikang.scan.NotExist"));
+    }
+
+    @Test
+    public void readCyclicMetaAnnotation() {
+        // The walk from @Alpha reaches @Beta, whose only meta-annotation @Alpha is still in progress
+        assertTrue(isComponent(AlphaBean.class.getName()));
+        assertTrue(isComponent(BetaBean.class.getName()));
+    }
+
+    boolean isComponent(String className) {
+        ClassMetadata metadata = reader.read(className);
+        return reader.isAnnotated(metadata, Component.class.getName());
+    }
+
+    @Beta
+    @Component
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Alpha {
+    }
+
+    @Alpha
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Beta {
+    }
+
+    @Alpha
+    static class AlphaBean {
+    }
+
+    @Beta
+    static class BetaBean {
+    }
+}
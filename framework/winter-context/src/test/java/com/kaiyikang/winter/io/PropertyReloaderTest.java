@@ -0,0 +1,65 @@
+package com.kaiyikang.winter.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.kaiyikang.reload.RateLimiter;
+import com.kaiyikang.reload.ReloadApplication;
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+
+public class PropertyReloaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void reloadOnFileChange() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("application.yml");
+        Files.writeString(file, "rate:\n  limit: 100\n");
+
+        var pr = new PropertyResolver(PropertyReloader.loadProperties(List.of(file)));
+        var changed = new CountDownLatch(1);
+        pr.addPropertyChangeListener(event -> changed.countDown());
+        assertEquals(100, pr.getProperty("rate.limit", int.class));
+
+        try (var reloader = new PropertyReloader(pr, List.of(file))) {
+            reloader.start();
+            Files.writeString(file, "rate:\n  limit: 200\n");
+            assertTrue(changed.await(30, TimeUnit.SECONDS));
+            assertEquals(200, pr.getProperty("rate.limit", int.class));
+
+            // Invalid file keeps current properties
+            Files.writeString(file, "rate: [limit\n");
+            reloader.reload();
+            assertEquals(200, pr.getProperty("rate.limit", int.class));
+        }
+    }
+
+    @Test
+    public void rebindListenerBean() {
+        var props = new Properties();
+        props.setProperty("rate.limit", "100");
+        var pr = new PropertyResolver(props);
+        try (var ctx = new AnnotationConfigApplicationContext(ReloadApplication.class, pr)) {
+            RateLimiter limiter = ctx.getBean(RateLimiter.class);
+            assertEquals(100, limiter.limit);
+
+            props.setProperty("rate.limit", "50");
+            pr.reload(props);
+            assertEquals(50, limiter.limit);
+        }
+        // Removed after context is closed
+        assertTrue(pr.listeners.isEmpty());
+    }
+}
@@ -5,13 +5,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -100,4 +106,108 @@ public class PropertyResolverTest {
         assertEquals(home, pr.getProperty("${app.path:${app.home:${HOME}}}"));
         assertEquals("/not-exist", pr.getProperty("${app.path:${app.home:${ENV_NOT_EXIST:/not-exist}}}"));
     }
+
+    @Test
+    public void nestedPlaceholder() {
+        var props = new Properties();
+        props.setProperty("db.host", "localhost");
+        props.setProperty("db.port", "3306");
+        props.setProperty("db.url", "jdbc:mysql://${db.host}:${db.port:5432}/${db.name:test}");
+        props.setProperty("profile", "prod");
+        props.setProperty("prod.pool-size", "${pool.size:${default.pool-size:8}}");
+
+        var pr = new PropertyResolver(props);
+
+        assertEquals("jdbc:mysql://localhost:3306/test", pr.getProperty("db.url"));
+        assertEquals("localhost:3306", pr.getProperty("${db.host}:${db.port}"));
+        assertEquals(8, pr.getProperty("${${profile}.pool-size}", int.class));
+        assertEquals("a:b", pr.getProperty("${not.exist:a:b}"));
+        assertEquals("}", pr.getProperty("${not.exist:}}"));
+        // Unclosed placeholder is a plain key
+        assertNull(pr.getProperty("${not.exist:${unclosed}"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            pr.getProperty("${:default}");
+        });
+        assertThrows(NullPointerException.class, () -> {
+            pr.getProperty("${db.user}@${db.host}");
+        });
+    }
+
+    @Test
+    public void envValueIsNotExpanded() {
+        var snapshot = new PropertySnapshot(Map.of("ENV_PROMPT", "${USER}@${HOST}", "app.url", "http://${app.host}"),
+                Set.of("ENV_PROMPT"), new ConcurrentHashMap<>());
+        assertEquals("${USER}@${HOST}", snapshot.getPropertyValue("ENV_PROMPT"));
+        // Property value with missing placeholder fails with the property key
+        var e = assertThrows(IllegalArgumentException.class, () -> snapshot.getPropertyValue("app.url"));
+        assertTrue(e.getMessage().contains("'app.url'"));
+    }
+
+    @Test
+    public void mixedTextValueIsResolved() {
+        var props = new Properties();
+        props.setProperty("b", "x");
+        props.setProperty("mixed", "a-${b}");
+        props.setProperty("dollar", "cost $5 {not a placeholder}");
+
+        var pr = new PropertyResolver(props);
+
+        // Placeholders inside a value are resolved, not only a whole ${...} value
+        assertEquals("a-x", pr.getProperty("mixed"));
+        assertEquals("cost $5 {not a placeholder}", pr.getProperty("dollar"));
+    }
+
+    @Test
+    public void boundTypedValueCache() {
+        var pr = new PropertyResolver(new Properties());
+        for (int i = 0; i < PropertySnapshot.MAX_CACHED_TYPED_VALUES + 100; i++) {
+            assertNull(pr.getProperty("dynamic.key." + i, Integer.class));
+        }
+        assertEquals(PropertySnapshot.MAX_CACHED_TYPED_VALUES, pr.snapshot.get().typedValues.size());
+    }
+
+    @Test
+    public void cacheTypedValue() {
+        var props = new Properties();
+        props.setProperty("feature.enabled", "true");
+
+        var pr = new PropertyResolver(props);
+
+        Boolean enabled = pr.getProperty("feature.enabled", Boolean.class);
+        assertSame(enabled, pr.getProperty("feature.enabled", Boolean.class));
+        assertEquals("true", pr.getProperty("feature.enabled"));
+        assertNull(pr.getProperty("feature.not-exist", Boolean.class));
+        assertTrue(pr.getProperty("feature.not-exist", boolean.class, true));
+        assertThrows(IllegalArgumentException.class, () -> {
+            pr.getProperty("feature.enabled", StringBuilder.class);
+        });
+    }
+
+    @Test
+    public void reloadProperties() {
+        var props = new Properties();
+        props.setProperty("rate.limit", "100");
+        props.setProperty("rate.burst", "${rate.limit}");
+        props.setProperty("timeout", "30");
+
+        var pr = new PropertyResolver(props);
+        List<PropertyChangeEvent> events = new ArrayList<>();
+        pr.addPropertyChangeListener(events::add);
+        assertEquals(100, pr.getProperty("rate.burst", int.class));
+
+        // Not changed
+        pr.reload(props);
+        assertTrue(events.isEmpty());
+
+        var newProps = new Properties();
+        newProps.setProperty("rate.limit", "200");
+        newProps.setProperty("rate.burst", "${rate.limit}");
+        newProps.setProperty("retry", "3");
+        pr.reload(newProps);
+
+        assertEquals(200, pr.getProperty("rate.burst", int.class));
+        assertNull(pr.getProperty("timeout"));
+        assertEquals(1, events.size());
+        assertEquals(Set.of("rate.limit", "timeout", "retry"), events.get(0).changedKeys());
+    }
 }
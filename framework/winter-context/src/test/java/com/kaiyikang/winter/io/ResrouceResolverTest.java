@@ -1,12 +1,27 @@
 package com.kaiyikang.winter.io;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -79,4 +94,66 @@ public class ResrouceResolverTest {
         }, classes.toArray(String[]::new));
     }
 
+    @Test
+    public void scanJarWithCache(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("app.jar");
+        writeJar(jar, "com/jarscan/A.class", "com/jarscan/sub/B.class", "com/other/C.class");
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (var classLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null)) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            final ResourceResolver resolver = new ResourceResolver("com.jarscan");
+            resolver.cacheDir = tempDir.resolve("cache");
+            Function<Resource, String> mapper = res -> res.name();
+            assertEquals(List.of("com/jarscan/A.class", "com/jarscan/sub/B.class"), resolver.scan(mapper));
+
+            // Read from cache
+            Path cacheFile = resolver.getCacheFile(jar, "com/jarscan");
+            assertTrue(Files.isRegularFile(cacheFile));
+            List<String> lines = Files.readAllLines(cacheFile);
+            Files.write(cacheFile, List.of(lines.get(0), lines.get(1), "com/jarscan/Cached.class"));
+            assertEquals(List.of("com/jarscan/Cached.class"), resolver.scan(mapper));
+
+            // Entry outside the package invalidates the cache
+            Files.write(cacheFile, List.of(lines.get(0), lines.get(1), "com/jarscan/../other/C.class"));
+            assertEquals(List.of("com/jarscan/A.class", "com/jarscan/sub/B.class"), resolver.scan(mapper));
+
+            // Cache in directory writable by others is ignored
+            if (Files.getFileAttributeView(resolver.cacheDir, PosixFileAttributeView.class) != null) {
+                assertEquals("rwx------",
+                        PosixFilePermissions.toString(Files.getPosixFilePermissions(resolver.cacheDir)));
+                Files.write(cacheFile, List.of(lines.get(0), lines.get(1), "com/jarscan/Cached.class"));
+                Files.setPosixFilePermissions(resolver.cacheDir, PosixFilePermissions.fromString("rwxrwxrwx"));
+                assertEquals(List.of("com/jarscan/A.class", "com/jarscan/sub/B.class"), resolver.scan(mapper));
+                Files.setPosixFilePermissions(resolver.cacheDir, PosixFilePermissions.fromString("rwx------"));
+            }
+
+            // Cache is out of date when jar is modified
+            writeJar(jar, "com/jarscan/A.class", "com/jarscan/D.class");
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            assertEquals(List.of("com/jarscan/A.class", "com/jarscan/D.class"), resolver.scan(mapper));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    void writeJar(Path jar, String... names) throws IOException {
+        try (var out = new JarOutputStream(Files.newOutputStream(jar))) {
+            // Directory entries are required by ClassLoader.getResources()
+            Set<String> dirs = new LinkedHashSet<>();
+            for (String name : names) {
+                for (int n = name.indexOf('/'); n > 0; n = name.indexOf('/', n + 1)) {
+                    dirs.add(name.substring(0, n + 1));
+                }
+            }
+            for (String dir : dirs) {
+                out.putNextEntry(new JarEntry(dir));
+                out.closeEntry();
+            }
+            for (String name : names) {
+                out.putNextEntry(new JarEntry(name));
+                out.write(new byte[] { 1, 2, 3 });
+                out.closeEntry();
+            }
+        }
+    }
 }
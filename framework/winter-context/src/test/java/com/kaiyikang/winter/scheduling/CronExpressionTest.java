@@ -0,0 +1,39 @@
+package com.kaiyikang.winter.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class CronExpressionTest {
+
+    final ZonedDateTime from = ZonedDateTime.of(2023, 3, 29, 20, 45, 1, 0, ZoneId.of("Asia/Shanghai"));
+
+    @Test
+    public void nextTime() {
+        assertEquals(from.withSecond(2), CronExpression.parse("* * * * * *").next(from));
+        assertEquals(from.withMinute(50).withSecond(0), CronExpression.parse("0 */10 * * * ?").next(from));
+        assertEquals(from.plusDays(1).withHour(9).withMinute(30).withSecond(0),
+                CronExpression.parse("0 30 9 * * *").next(from));
+        // 2023-03-29 is Wednesday
+        assertEquals(from.plusDays(2).withHour(0).withMinute(0).withSecond(0),
+                CronExpression.parse("0 0 0 * * FRI").next(from));
+        assertEquals(from.plusDays(4).withHour(0).withMinute(0).withSecond(0),
+                CronExpression.parse("0 0 0 * * 0").next(from));
+        assertEquals(ZonedDateTime.of(2023, 12, 1, 8, 0, 0, 0, from.getZone()),
+                CronExpression.parse("0 0 8-10 1 DEC,JAN *").next(from));
+        assertEquals(ZonedDateTime.of(2024, 2, 29, 0, 0, 0, 0, from.getZone()),
+                CronExpression.parse("0 0 0 29 2 *").next(from));
+    }
+
+    @Test
+    public void invalidExpression() {
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("* * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("60 * * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("* * * * XYZ *"));
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("0 0 0 30 2 *").next(from));
+    }
+}
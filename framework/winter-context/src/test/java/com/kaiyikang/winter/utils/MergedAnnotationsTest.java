@@ -0,0 +1,62 @@
+package com.kaiyikang.winter.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.winter.annotation.Bean;
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Configuration;
+import com.kaiyikang.winter.annotation.Order;
+import com.kaiyikang.winter.exception.BeanDefinitionException;
+
+public class MergedAnnotationsTest {
+
+    @Test
+    public void findMetaAnnotation() {
+        MergedAnnotation<Component> merged = MergedAnnotations.from(SimpleConfigurationWithName.class)
+                .find(Component.class);
+        assertFalse(merged.isDirect());
+        assertSame(Configuration.class, merged.root().annotationType());
+        // Value of @Configuration overrides value of @Component
+        assertEquals("simpleCfg", merged.getString("value"));
+        assertEquals("", merged.annotation().value());
+
+        MergedAnnotation<Component> direct = MergedAnnotations.from(SimpleComponentWithName.class)
+                .find(Component.class);
+        assertTrue(direct.isDirect());
+        assertEquals("simpleName", direct.getString("value"));
+    }
+
+    @Test
+    public void cacheMergedAnnotations() throws Exception {
+        MergedAnnotations annotations = MergedAnnotations.from(CustomWithName.class);
+        assertSame(annotations, MergedAnnotations.from(CustomWithName.class));
+        assertSame(annotations.find(Component.class), annotations.find(Component.class));
+        assertNull(annotations.find(Order.class));
+
+        // Methods returned by reflection are copies
+        Method method = TestBeanConfiguration.class.getMethod("methodWithBeanAnnotationAndValue");
+        MergedAnnotations methodAnnotations = MergedAnnotations.from(method);
+        assertSame(methodAnnotations,
+                MergedAnnotations.from(TestBeanConfiguration.class.getMethod("methodWithBeanAnnotationAndValue")));
+        assertEquals("customBeanName", methodAnnotations.get(Bean.class).value());
+        assertTrue(methodAnnotations.isPresent(Bean.class));
+    }
+
+    @Test
+    public void duplicateAnnotation() {
+        assertThrows(BeanDefinitionException.class,
+                () -> MergedAnnotations.from(DuplicateComponent2.class).find(Component.class));
+        // Not cached
+        assertThrows(BeanDefinitionException.class,
+                () -> MergedAnnotations.from(DuplicateComponent2.class).find(Component.class));
+    }
+}
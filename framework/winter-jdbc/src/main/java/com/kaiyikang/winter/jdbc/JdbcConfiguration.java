@@ -6,6 +6,7 @@ import com.kaiyikang.winter.annotation.Autowired;
 import com.kaiyikang.winter.annotation.Bean;
 import com.kaiyikang.winter.annotation.Configuration;
 import com.kaiyikang.winter.annotation.Value;
+import com.kaiyikang.winter.aop.Pointcut;
 import com.kaiyikang.winter.jdbc.tx.DataSourceTransactionManager;
 import com.kaiyikang.winter.jdbc.tx.PlatformTransactionManager;
 import com.kaiyikang.winter.jdbc.tx.TransactionBeanPostProcessor;
@@ -50,7 +51,10 @@ public class JdbcConfiguration {
     }
 
     @Bean
-    PlatformTransactionManager platformTransactionManager(@Autowired DataSource dataSource) {
-        return new DataSourceTransactionManager(dataSource);
+    PlatformTransactionManager platformTransactionManager(@Autowired DataSource dataSource,
+            @Value("${winter.transaction.exclude-accessors:false}") boolean excludeAccessors) {
+        // Getters of @Transactional beans run without transaction if excluded
+        Pointcut pointcut = excludeAccessors ? Pointcut.DEFAULT.and(Pointcut.ACCESSORS.negate()) : Pointcut.DEFAULT;
+        return new DataSourceTransactionManager(dataSource, pointcut);
     }
 }
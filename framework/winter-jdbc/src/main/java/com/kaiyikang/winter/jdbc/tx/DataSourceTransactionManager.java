@@ -11,25 +11,59 @@ import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.kaiyikang.winter.aop.MethodInterceptor;
+import com.kaiyikang.winter.aop.MethodInvocation;
+import com.kaiyikang.winter.aop.Pointcut;
 import com.kaiyikang.winter.exception.TransactionException;
 
-public class DataSourceTransactionManager implements PlatformTransactionManager, InvocationHandler {
+public class DataSourceTransactionManager
+        implements PlatformTransactionManager, InvocationHandler, MethodInterceptor, Pointcut {
     static final ThreadLocal<TransactionStatus> transactionStatus = new ThreadLocal<>();
 
     final Logger logger = LoggerFactory.getLogger(getClass());
 
     final DataSource dataSource;
+    final Pointcut pointcut;
 
     public DataSourceTransactionManager(DataSource dataSource) {
+        this(dataSource, Pointcut.DEFAULT);
+    }
+
+    /**
+     * @param pointcut Methods of @Transactional beans run in transaction, e.g.
+     *                 exclude Pointcut.ACCESSORS.
+     */
+    public DataSourceTransactionManager(DataSource dataSource, Pointcut pointcut) {
         this.dataSource = dataSource;
+        this.pointcut = pointcut;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return this.pointcut.matches(method, targetClass);
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return doInTransaction(() -> {
+            try {
+                return method.invoke(proxy, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return doInTransaction(invocation::proceed);
+    }
+
+    Object doInTransaction(Callback callback) throws Throwable {
         TransactionStatus ts = transactionStatus.get();
         if (ts != null) {
             // Join current transaction
-            return method.invoke(proxy, args);
+            return callback.call();
         }
 
         // New Transaction
@@ -40,18 +74,16 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
             }
             try {
                 transactionStatus.set(new TransactionStatus(connection));
-                Object r = method.invoke(proxy, args); // do all updates in the @Transactional
+                Object r = callback.call(); // do all updates in the @Transactional
                 connection.commit();
                 return r;
-            } catch (InvocationTargetException e) {
-                logger.warn("will rollback transaction for caused exception: {}",
-                        e.getCause() == null ? "null" : e.getCause().getClass().getName());
-                TransactionException te = new TransactionException(e.getCause());
-                try {
-                    connection.rollback(); // rollback if some update error occurs
-                } catch (SQLException sqle) {
-                    te.addSuppressed(sqle);
-                }
+            } catch (Error e) {
+                // Error is rethrown as is, but still rollback, or restoring auto-commit would commit
+                rollback(connection, e, e);
+                throw e;
+            } catch (Throwable e) {
+                TransactionException te = new TransactionException(e);
+                rollback(connection, e, te);
                 throw te;
             } finally {
                 transactionStatus.remove();
@@ -61,4 +93,18 @@ public class DataSourceTransactionManager implements PlatformTransactionManager,
             }
         }
     }
+
+    void rollback(Connection connection, Throwable cause, Throwable primary) {
+        logger.warn("will rollback transaction for caused exception: {}", cause.getClass().getName());
+        try {
+            connection.rollback(); // rollback if some update error occurs
+        } catch (SQLException | RuntimeException e) {
+            primary.addSuppressed(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Callback {
+        Object call() throws Throwable;
+    }
 }
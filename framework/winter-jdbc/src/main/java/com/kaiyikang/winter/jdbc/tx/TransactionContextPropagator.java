@@ -0,0 +1,31 @@
+package com.kaiyikang.winter.jdbc.tx;
+
+import com.kaiyikang.winter.aop.AsyncContextPropagator;
+
+/**
+ * Run @Async method outside the caller's transaction, as the caller's
+ * connection must not be used by another thread or after the caller commits.
+ * A @Transactional async method starts its own transaction on the executor,
+ * even if the executor runs the task on the caller thread.
+ */
+public class TransactionContextPropagator implements AsyncContextPropagator {
+
+    @Override
+    public Runnable wrap(Runnable task) {
+        if (DataSourceTransactionManager.transactionStatus.get() == null) {
+            return task;
+        }
+        return () -> {
+            // Suspend the transaction if the task runs on the caller thread
+            TransactionStatus previous = DataSourceTransactionManager.transactionStatus.get();
+            DataSourceTransactionManager.transactionStatus.remove();
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    DataSourceTransactionManager.transactionStatus.set(previous);
+                }
+            }
+        };
+    }
+}
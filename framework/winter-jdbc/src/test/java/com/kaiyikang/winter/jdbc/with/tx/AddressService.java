@@ -34,4 +34,9 @@ public class AddressService {
             throw new RuntimeException("Rollback delete for user id = 1");
         }
     }
+
+    public void addAddressThenFail(Address address) {
+        sql.update(JdbcTestBase.INSERT_ADDRESS, address.userId, address.address, address.zip);
+        throw new AssertionError("Rollback insert by error");
+    }
 }
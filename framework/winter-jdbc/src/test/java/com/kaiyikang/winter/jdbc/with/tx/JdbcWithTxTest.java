@@ -59,6 +59,12 @@ public class JdbcWithTxTest extends JdbcTestBase {
             assertEquals("Bob", userService.getUser(1).name);
             assertEquals(2, addressService.getAddresses(bob.id).size());
 
+            // Error is not wrapped, and the insert is rolled back
+            assertThrows(AssertionError.class, () -> {
+                addressService.addAddressThenFail(new Address(bob.id, "bob third address", 202));
+            });
+            assertEquals(2, addressService.getAddresses(bob.id).size());
+
         }
 
         try (var ctx = new AnnotationConfigApplicationContext(JdbcWithTxApplication.class, createPropertyResolver())) {
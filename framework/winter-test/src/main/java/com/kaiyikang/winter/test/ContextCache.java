@@ -0,0 +1,176 @@
+package com.kaiyikang.winter.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kaiyikang.winter.context.ConfigurableApplicationContext;
+
+/**
+ * Cache of contexts by ContextKey. A context is created once for a key, and
+ * contexts of different keys can be created at the same time.
+ *
+ * A context is acquired by a test class and released when the class is done.
+ * When the cache is full, the least recently used context not in use is
+ * closed.
+ */
+public class ContextCache implements AutoCloseable {
+
+    final Logger logger = LoggerFactory.getLogger(getClass());
+
+    /**
+     * Cached context acquired by a user, which must be passed back to release.
+     */
+    public static final class Entry {
+
+        final CompletableFuture<ConfigurableApplicationContext> future = new CompletableFuture<>();
+        // Only incremented inside compute of the entry map, so evict never closes a used context
+        final AtomicInteger users = new AtomicInteger();
+        volatile long lastAccess;
+
+        public ConfigurableApplicationContext getApplicationContext() {
+            return this.future.join();
+        }
+    }
+
+    final int maxSize;
+    final Function<ContextKey, ConfigurableApplicationContext> factory;
+    final Map<ContextKey, Entry> entries = new ConcurrentHashMap<>();
+    final AtomicLong clock = new AtomicLong();
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+
+    public ContextCache(int maxSize, Function<ContextKey, ConfigurableApplicationContext> factory) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.factory = factory;
+    }
+
+    /**
+     * Get or create the context of key, the returned entry must be released
+     * after use.
+     */
+    public Entry acquire(ContextKey key) {
+        Entry created = new Entry();
+        Entry entry = this.entries.compute(key, (k, e) -> {
+            Entry current = e == null ? created : e;
+            current.users.incrementAndGet();
+            current.lastAccess = this.clock.incrementAndGet();
+            return current;
+        });
+        if (entry == created) {
+            this.misses.increment();
+            logger.atDebug().log("create context for {}.", key);
+            try {
+                entry.future.complete(this.factory.apply(key));
+            } catch (RuntimeException | Error e) {
+                this.entries.remove(key, entry);
+                entry.future.completeExceptionally(e);
+                release(entry);
+                throw e;
+            }
+            evict();
+        } else {
+            this.hits.increment();
+        }
+        try {
+            // Wait if the context is being created by another thread
+            entry.future.join();
+        } catch (RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+        return entry;
+    }
+
+    public void release(Entry entry) {
+        entry.users.decrementAndGet();
+        evict();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    synchronized void evict() {
+        int overflow = this.entries.size() - this.maxSize;
+        if (overflow <= 0) {
+            return;
+        }
+        List<Map.Entry<ContextKey, Entry>> candidates = new ArrayList<>(this.entries.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<ContextKey, Entry> e : candidates) {
+            if (overflow == 0) {
+                break;
+            }
+            Entry entry = e.getValue();
+            if (entry.future.isDone() && removeUnused(e.getKey(), entry)) {
+                logger.atDebug().log("evict context for {}.", e.getKey());
+                closeContext(entry);
+                overflow--;
+            }
+        }
+    }
+
+    // Remove the entry only if no one acquired it, atomically with acquire
+    boolean removeUnused(ContextKey key, Entry entry) {
+        boolean[] removed = { false };
+        this.entries.computeIfPresent(key, (k, e) -> {
+            if (e == entry && e.users.get() == 0) {
+                removed[0] = true;
+                return null;
+            }
+            return e;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Close all contexts.
+     */
+    @Override
+    public void close() {
+        logger.info("close {} cached contexts, hits: {}, misses: {}.", this.entries.size(), getHitCount(),
+                getMissCount());
+        for (ContextKey key : List.copyOf(this.entries.keySet())) {
+            Entry entry = this.entries.remove(key);
+            if (entry != null) {
+                closeContext(entry);
+            }
+        }
+    }
+
+    void closeContext(Entry entry) {
+        if (entry.future.isCompletedExceptionally()) {
+            return;
+        }
+        ConfigurableApplicationContext ctx = entry.future.getNow(null);
+        if (ctx != null) {
+            try {
+                ctx.close();
+            } catch (RuntimeException e) {
+                logger.warn("failed to close context.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.kaiyikang.winter.test;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Key of a cached context: the configuration class and all properties.
+ */
+public record ContextKey(Class<?> configClass, Map<String, String> properties) {
+
+    public ContextKey {
+        properties = Map.copyOf(properties);
+    }
+
+    public static ContextKey of(Class<?> configClass, String... properties) {
+        Map<String, String> map = new TreeMap<>();
+        for (String property : properties) {
+            int n = property.indexOf('=');
+            if (n <= 0) {
+                throw new IllegalArgumentException("Invalid property, expected key=value: " + property);
+            }
+            map.put(property.substring(0, n).strip(), property.substring(n + 1).strip());
+        }
+        return new ContextKey(configClass, map);
+    }
+
+    public Properties toProperties() {
+        Properties ps = new Properties();
+        ps.putAll(this.properties);
+        return ps;
+    }
+}
@@ -0,0 +1,176 @@
+package com.kaiyikang.winter.test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
+import com.kaiyikang.winter.context.ApplicationContext;
+import com.kaiyikang.winter.context.ApplicationContextUtils;
+import com.kaiyikang.winter.context.BeanDefinition;
+import com.kaiyikang.winter.context.ConfigurableApplicationContext;
+import com.kaiyikang.winter.io.PropertyResolver;
+
+/**
+ * JUnit 5 extension of @WinterTest. The context is taken from a ContextCache
+ * shared by all test classes of the run, and closed when the run is done.
+ *
+ * The context is bound to the thread of each test, so ApplicationContextUtils
+ * returns the context of the test even when tests run in parallel. @Autowired
+ * fields of the test instance and parameters of test methods are injected from
+ * the context.
+ *
+ * The cache size is set by system property "winter.test.context-cache.size",
+ * default to 32.
+ */
+public class WinterExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback,
+        TestInstancePostProcessor, ParameterResolver {
+
+    static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(WinterExtension.class);
+
+    static final String CACHE_SIZE_PROPERTY = "winter.test.context-cache.size";
+
+    /**
+     * Cache stored in the root context, closed by JUnit at the end of the run.
+     */
+    record CacheResource(ContextCache cache) implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        public void close() {
+            this.cache.close();
+        }
+    }
+
+    public static ContextCache getContextCache(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(CacheResource.class,
+                k -> new CacheResource(new ContextCache(Integer.getInteger(CACHE_SIZE_PROPERTY, 32),
+                        WinterExtension::createApplicationContext)),
+                CacheResource.class).cache();
+    }
+
+    static ConfigurableApplicationContext createApplicationContext(ContextKey key) {
+        return new AnnotationConfigApplicationContext(key.configClass(), new PropertyResolver(key.toProperties()));
+    }
+
+    /**
+     * Context acquired by a test class.
+     */
+    record TestClassContext(ContextCache.Entry entry) {
+    }
+
+    /**
+     * Get the context of the test class, which is acquired by beforeAll, or
+     * postProcessTestInstance of PER_CLASS lifecycle.
+     */
+    public static ConfigurableApplicationContext getApplicationContext(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        // Store of the class is found from the method
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(testClass, c -> {
+            return new TestClassContext(getContextCache(context).acquire(getContextKey(testClass)));
+        }, TestClassContext.class).entry().getApplicationContext();
+    }
+
+    static ContextKey getContextKey(Class<?> testClass) {
+        for (Class<?> clazz = testClass; clazz != null; clazz = clazz.getEnclosingClass()) {
+            WinterTest winterTest = clazz.getAnnotation(WinterTest.class);
+            if (winterTest != null) {
+                return ContextKey.of(winterTest.value(), winterTest.properties());
+            }
+        }
+        throw new ExtensionConfigurationException("@WinterTest not found on " + testClass.getName());
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        getApplicationContext(context);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        TestClassContext testClassContext = context.getStore(NAMESPACE).remove(context.getRequiredTestClass(),
+                TestClassContext.class);
+        if (testClassContext != null) {
+            getContextCache(context).release(testClassContext.entry());
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ApplicationContextUtils.Binding binding = ApplicationContextUtils.bind(getApplicationContext(context));
+        context.getStore(NAMESPACE).put(ApplicationContextUtils.Binding.class, binding);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ApplicationContextUtils.Binding binding = context.getStore(NAMESPACE)
+                .remove(ApplicationContextUtils.Binding.class, ApplicationContextUtils.Binding.class);
+        if (binding != null) {
+            binding.close();
+        }
+    }
+
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) throws Exception {
+        ConfigurableApplicationContext ctx = getApplicationContext(context);
+        for (Class<?> clazz = testInstance.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field f : clazz.getDeclaredFields()) {
+                Autowired autowired = f.getAnnotation(Autowired.class);
+                if (autowired == null || Modifier.isStatic(f.getModifiers())) {
+                    continue;
+                }
+                Object bean = findBean(ctx, f.getType(), autowired.name());
+                if (bean == null) {
+                    if (autowired.value()) {
+                        throw new ExtensionConfigurationException(
+                                "Bean of type " + f.getType().getName() + " not found for field " + f);
+                    }
+                    continue;
+                }
+                f.setAccessible(true);
+                f.set(testInstance, bean);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        Parameter parameter = parameterContext.getParameter();
+        return ApplicationContext.class.isAssignableFrom(parameter.getType())
+                || parameter.isAnnotationPresent(Autowired.class);
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        ConfigurableApplicationContext ctx = getApplicationContext(extensionContext);
+        Parameter parameter = parameterContext.getParameter();
+        if (ApplicationContext.class.isAssignableFrom(parameter.getType())) {
+            return ctx;
+        }
+        Autowired autowired = parameter.getAnnotation(Autowired.class);
+        Object bean = findBean(ctx, parameter.getType(), autowired.name());
+        if (bean == null && autowired.value()) {
+            throw new ParameterResolutionException(
+                    "Bean of type " + parameter.getType().getName() + " not found for parameter " + parameter);
+        }
+        return bean;
+    }
+
+    static Object findBean(ConfigurableApplicationContext ctx, Class<?> type, String name) {
+        BeanDefinition def = name.isEmpty() ? ctx.findBeanDefinition(type) : ctx.findBeanDefinition(name, type);
+        return def == null ? null : ctx.getBean(def.getName());
+    }
+}
@@ -0,0 +1,33 @@
+package com.kaiyikang.winter.test;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Run the test class with an ApplicationContext of the configuration class.
+ * Contexts are cached by configuration class and properties, so test classes
+ * with the same configuration share one context.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(WinterExtension.class)
+public @interface WinterTest {
+
+    /**
+     * Configuration class with @ComponentScan.
+     */
+    Class<?> value();
+
+    /**
+     * Properties like "key=value".
+     */
+    String[] properties() default {};
+}
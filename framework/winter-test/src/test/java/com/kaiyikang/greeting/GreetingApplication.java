@@ -0,0 +1,8 @@
+package com.kaiyikang.greeting;
+
+import com.kaiyikang.winter.annotation.ComponentScan;
+
+@ComponentScan
+public class GreetingApplication {
+
+}
@@ -0,0 +1,15 @@
+package com.kaiyikang.greeting;
+
+import com.kaiyikang.winter.annotation.Component;
+import com.kaiyikang.winter.annotation.Value;
+
+@Component
+public class GreetingService {
+
+    @Value("${greeting.name:World}")
+    String name;
+
+    public String greet() {
+        return "Hello, " + this.name + "!";
+    }
+}
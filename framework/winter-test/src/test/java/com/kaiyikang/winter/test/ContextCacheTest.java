@@ -0,0 +1,90 @@
+package com.kaiyikang.winter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.greeting.GreetingApplication;
+import com.kaiyikang.greeting.GreetingService;
+import com.kaiyikang.winter.context.ConfigurableApplicationContext;
+
+public class ContextCacheTest {
+
+    @Test
+    public void reuseContextOfSameKey() {
+        try (var cache = new ContextCache(4, WinterExtension::createApplicationContext)) {
+            ContextKey key = ContextKey.of(GreetingApplication.class, "greeting.name=Cache");
+            ConfigurableApplicationContext ctx = cache.acquire(key).getApplicationContext();
+            assertSame(ctx, cache.acquire(ContextKey.of(GreetingApplication.class, " greeting.name = Cache "))
+                    .getApplicationContext());
+            assertEquals("Hello, Cache!", ctx.getBean(GreetingService.class).greet());
+
+            ConfigurableApplicationContext other = cache.acquire(ContextKey.of(GreetingApplication.class))
+                    .getApplicationContext();
+            assertNotSame(ctx, other);
+            assertEquals("Hello, World!", other.getBean(GreetingService.class).greet());
+            assertEquals(1, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+        }
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        List<String> closed = new ArrayList<>();
+        try (var cache = new ContextCache(1, key -> {
+            var ctx = WinterExtension.createApplicationContext(key);
+            return (ConfigurableApplicationContext) java.lang.reflect.Proxy.newProxyInstance(
+                    getClass().getClassLoader(), new Class<?>[] { ConfigurableApplicationContext.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            closed.add(key.properties().get("greeting.name"));
+                        }
+                        return method.invoke(ctx, args);
+                    });
+        })) {
+            ContextKey a = ContextKey.of(GreetingApplication.class, "greeting.name=A");
+            ContextKey b = ContextKey.of(GreetingApplication.class, "greeting.name=B");
+            ContextCache.Entry entryA = cache.acquire(a);
+            // A is in use
+            ContextCache.Entry entryB = cache.acquire(b);
+            assertEquals(2, cache.size());
+            assertEquals(List.of(), closed);
+
+            cache.release(entryA);
+            assertEquals(1, cache.size());
+            assertEquals(List.of("A"), closed);
+            cache.release(entryB);
+        }
+        assertEquals(List.of("A", "B"), closed);
+    }
+
+    @Test
+    public void createOnceConcurrently() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        try (var cache = new ContextCache(4, key -> {
+            created.incrementAndGet();
+            return WinterExtension.createApplicationContext(key);
+        }); ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            ContextKey key = ContextKey.of(GreetingApplication.class, "greeting.name=Concurrent");
+            List<Future<ConfigurableApplicationContext>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.acquire(key).getApplicationContext()));
+            }
+            ConfigurableApplicationContext ctx = futures.get(0).get();
+            for (Future<ConfigurableApplicationContext> future : futures) {
+                assertSame(ctx, future.get());
+            }
+            assertEquals(1, created.get());
+            assertEquals(7, cache.getHitCount());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.kaiyikang.winter.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import com.kaiyikang.greeting.GreetingApplication;
+import com.kaiyikang.greeting.GreetingService;
+import com.kaiyikang.winter.annotation.Autowired;
+import com.kaiyikang.winter.context.ApplicationContext;
+import com.kaiyikang.winter.context.ApplicationContextUtils;
+
+@WinterTest(value = GreetingApplication.class, properties = "greeting.name=Winter")
+public class WinterExtensionTest {
+
+    // Test class -> context, checked after all nested classes
+    static final Map<String, ApplicationContext> contexts = new ConcurrentHashMap<>();
+
+    @Autowired
+    GreetingService greetingService;
+
+    @Test
+    public void injectTestInstance(ApplicationContext ctx) throws InterruptedException {
+        contexts.put("outer", ctx);
+        assertEquals("Hello, Winter!", this.greetingService.greet());
+        assertBound(ctx);
+    }
+
+    @AfterAll
+    static void checkCachedContexts() {
+        assertSame(contexts.get("outer"), contexts.get("same"));
+        assertNotSame(contexts.get("outer"), contexts.get("other"));
+    }
+
+    // Run in parallel with other tests
+    static void assertBound(ApplicationContext ctx) throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            assertSame(ctx, ApplicationContextUtils.getRequiredApplicationContext());
+            Thread.sleep(10);
+        }
+    }
+
+    @Nested
+    class SameContext {
+
+        @Test
+        public void reuseContext(ApplicationContext ctx, @Autowired GreetingService service)
+                throws InterruptedException {
+            contexts.put("same", ctx);
+            assertEquals("Hello, Winter!", service.greet());
+            assertBound(ctx);
+        }
+    }
+
+    @Nested
+    @WinterTest(value = GreetingApplication.class, properties = "greeting.name=Parallel")
+    class OtherContext {
+
+        @Autowired
+        GreetingService service;
+
+        @Test
+        public void useOwnContext(ApplicationContext ctx) throws InterruptedException {
+            contexts.put("other", ctx);
+            assertEquals("Hello, Parallel!", this.service.greet());
+            assertBound(ctx);
+        }
+    }
+}
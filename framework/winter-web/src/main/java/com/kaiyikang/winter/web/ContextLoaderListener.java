@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import com.kaiyikang.winter.context.AnnotationConfigApplicationContext;
 import com.kaiyikang.winter.context.ApplicationContext;
 import com.kaiyikang.winter.exception.NestedRuntimeException;
+import com.kaiyikang.winter.io.PropertyReloader;
 import com.kaiyikang.winter.io.PropertyResolver;
 import com.kaiyikang.winter.web.utils.WebUtils;
 
@@ -16,12 +17,15 @@ public class ContextLoaderListener implements ServletContextListener {
 
     final Logger logger = LoggerFactory.getLogger(getClass());
 
+    PropertyReloader propertyReloader;
+
     /* web context的入口，加载配置，设置全局编码，创建dispatcherServlet，并且挂载WinterSpring到context */
     @Override
     public void contextInitialized(ServletContextEvent event) {
         logger.info("init {}.", getClass().getName());
         var servletContext = event.getServletContext();
         var propertyResolver = WebUtils.createPropertyResolver();
+        this.propertyReloader = WebUtils.createPropertyReloader(propertyResolver);
         WebMvcConfiguration.setServletContext(servletContext);
 
         // Setup encoding
@@ -37,6 +41,13 @@ public class ContextLoaderListener implements ServletContextListener {
         servletContext.setAttribute("applicationContext", applicationContext);
     }
 
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (this.propertyReloader != null) {
+            this.propertyReloader.close();
+        }
+    }
+
     ApplicationContext createApplicationContext(String configClassName, PropertyResolver propertyResolver) {
         logger.info("init ApplicationContext by configuration: {}", configClassName);
 
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,7 @@ import com.kaiyikang.winter.annotation.RequestParam;
 import com.kaiyikang.winter.annotation.ResponseBody;
 import com.kaiyikang.winter.annotation.RestController;
 import com.kaiyikang.winter.context.ApplicationContext;
+import com.kaiyikang.winter.context.BeanDefinition;
 import com.kaiyikang.winter.context.ConfigurableApplicationContext;
 import com.kaiyikang.winter.exception.ErrorResponseException;
 import com.kaiyikang.winter.exception.NestedRuntimeException;
@@ -34,6 +36,7 @@ import com.kaiyikang.winter.exception.ServerErrorException;
 import com.kaiyikang.winter.exception.ServerWebInputException;
 import com.kaiyikang.winter.io.PropertyResolver;
 import com.kaiyikang.winter.utils.ClassUtils;
+import com.kaiyikang.winter.utils.MergedAnnotations;
 import com.kaiyikang.winter.web.utils.JsonUtils;
 import com.kaiyikang.winter.web.utils.PathUtils;
 import com.kaiyikang.winter.web.utils.WebUtils;
@@ -72,13 +75,17 @@ public class DispatcherServlet extends HttpServlet {
     @Override
     public void init() throws ServletException {
         logger.info("init {}.", getClass().getName());
-        // 从applicationContext中获取所有的beanDef
-        for (var def : ((ConfigurableApplicationContext) this.applicationContext).findBeanDefinitions(Object.class)) {
+        // 从applicationContext中获取所有带@Controller或@RestController的beanDef
+        var ctx = (ConfigurableApplicationContext) this.applicationContext;
+        List<BeanDefinition> defs = Stream.concat(ctx.findBeanDefinitionsByAnnotation(Controller.class).stream(),
+                ctx.findBeanDefinitionsByAnnotation(RestController.class).stream()).distinct().sorted().toList();
+        for (var def : defs) {
             Class<?> beanClass = def.getBeanClass();
-            Object beanInstance = def.getRequiredInstance();
+            Object beanInstance = this.applicationContext.getBean(def.getName());
             // 获取Annotation
-            Controller controller = beanClass.getAnnotation(Controller.class);
-            RestController restController = beanClass.getAnnotation(RestController.class);
+            MergedAnnotations annotations = MergedAnnotations.from(beanClass);
+            Controller controller = annotations.get(Controller.class);
+            RestController restController = annotations.get(RestController.class);
             if (controller != null && restController != null) {
                 throw new ServletException("Found @Controller and @RestController on class: " + beanClass.getName());
             }
@@ -103,13 +110,14 @@ public class DispatcherServlet extends HttpServlet {
 
     void addMethods(boolean isRest, String name, Object instance, Class<?> type) throws ServletException {
         for (Method m : type.getDeclaredMethods()) {
-            GetMapping get = m.getAnnotation(GetMapping.class);
+            MergedAnnotations annotations = MergedAnnotations.from(m);
+            GetMapping get = annotations.get(GetMapping.class);
             if (get != null) {
                 checkMethod(m);
                 // value 是@GetMapping中的路径
                 this.getDispatchers.add(new Dispatcher("GET", isRest, instance, m, get.value()));
             }
-            PostMapping post = m.getAnnotation(PostMapping.class);
+            PostMapping post = annotations.get(PostMapping.class);
             if (post != null) {
                 checkMethod(m);
                 this.postDispatchers.add(new Dispatcher("POST", isRest, instance, m, post.value()));
@@ -324,13 +332,13 @@ public class DispatcherServlet extends HttpServlet {
         public Dispatcher(String httpMethod, boolean isRest, Object controller, Method method, String urlPattern)
                 throws ServletException {
             this.isRest = isRest;
-            this.isResponseBody = method.getAnnotation(ResponseBody.class) != null;
+            this.isResponseBody = MergedAnnotations.from(method).isPresent(ResponseBody.class);
             this.isVoid = method.getReturnType() == void.class;
             this.urlPattern = PathUtils.compile(urlPattern);
             this.controller = controller;
             this.handlerMethod = method;
             Parameter[] params = method.getParameters();
-            Annotation[][] paramsAnnos = method.getParameterAnnotations();
+            Annotation[][] paramsAnnos = MergedAnnotations.getParameterAnnotations(method);
             this.methodParameters = new Param[params.length];
             for (int i = 0; i < params.length; i++) {
                 this.methodParameters[i] = new Param(httpMethod, method, params[i], paramsAnnos[i]);
@@ -6,6 +6,8 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.Reader;
+import java.net.URL;
+import java.net.URLConnection;
 import java.util.Map;
 import java.util.Objects;
 
@@ -115,6 +117,12 @@ class ServletTemplateLoader implements TemplateLoader {
                     return file;
                 }
             }
+            // No real path if the webapp is a war which is not extracted
+            URL url = servletContext.getResource(fullPath);
+            logger.atDebug().log("load template {}: read url: {}", name, url);
+            if (url != null) {
+                return url;
+            }
         } catch (SecurityException e) {
 
         }
@@ -126,6 +134,13 @@ class ServletTemplateLoader implements TemplateLoader {
         if (templateSource instanceof File) {
             return ((File) templateSource).lastModified();
         }
+        if (templateSource instanceof URL url) {
+            try {
+                return openConnection(url).getLastModified();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
         return 0;
     }
 
@@ -134,9 +149,18 @@ class ServletTemplateLoader implements TemplateLoader {
         if (templateSource instanceof File) {
             return new InputStreamReader(new FileInputStream((File) templateSource), encoding);
         }
+        if (templateSource instanceof URL url) {
+            return new InputStreamReader(openConnection(url).getInputStream(), encoding);
+        }
         throw new IOException("File not found.");
     }
 
+    URLConnection openConnection(URL url) throws IOException {
+        URLConnection conn = url.openConnection();
+        conn.setUseCaches(false);
+        return conn;
+    }
+
     @Override
     public void closeTemplateSource(Object templateSource) throws IOException {
     }
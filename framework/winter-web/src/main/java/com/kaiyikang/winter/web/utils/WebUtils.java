@@ -2,6 +2,9 @@ package com.kaiyikang.winter.web.utils;
 
 import java.io.FileNotFoundException;
 import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -12,12 +15,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.kaiyikang.winter.context.ApplicationContextUtils;
+import com.kaiyikang.winter.io.PropertyReloader;
 import com.kaiyikang.winter.io.PropertyResolver;
 import com.kaiyikang.winter.utils.ClassPathUtils;
 import com.kaiyikang.winter.utils.YamlUtils;
 import com.kaiyikang.winter.web.DispatcherServlet;
 import com.kaiyikang.winter.web.FilterRegistrationBean;
 
+import jakarta.annotation.Nullable;
 import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletContext;
 
@@ -92,4 +97,40 @@ public class WebUtils {
         }
         return new PropertyResolver(properties);
     }
+
+    /**
+     * Create a started reloader for the config file if "winter.config.reload" is
+     * true and the file is in file system, otherwise return null.
+     */
+    @Nullable
+    public static PropertyReloader createPropertyReloader(PropertyResolver propertyResolver) {
+        if (!propertyResolver.getProperty("${winter.config.reload:false}", boolean.class)) {
+            return null;
+        }
+        // Same file as createPropertyResolver()
+        Path file = findConfigFile(CONFIG_APP_YAML);
+        if (file == null) {
+            file = findConfigFile(CONFIG_APP_PROP);
+        }
+        if (file == null) {
+            logger.warn("Cannot reload config: no config file found in file system.");
+            return null;
+        }
+        var reloader = new PropertyReloader(propertyResolver, List.of(file));
+        reloader.start();
+        return reloader;
+    }
+
+    @Nullable
+    static Path findConfigFile(String path) {
+        URL url = Thread.currentThread().getContextClassLoader().getResource(path.substring(1));
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
 }